@@ -0,0 +1,70 @@
+/*
+ * Copyright 2022-2024 Vitalij Berdinskih
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *	   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.bot_by.aws_lambda.slf4j;
+
+import com.amazonaws.services.lambda.runtime.LambdaLogger;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.slf4j.event.Level;
+
+/**
+ * Throughput of buffered writes: threads append entries to the batch of
+ * {@link AWSLambdaLoggerBuffer} behind its lock. Run it with different numbers of threads:
+ * <pre><code class="language-bash">
+ * for threads in 1 2 4 6; do
+ *   java -jar benchmarks/target/benchmarks.jar BufferBenchmark -t $threads
+ * done
+ * </code></pre>
+ */
+@BenchmarkMode(Mode.Throughput)
+@Fork(1)
+@Measurement(iterations = 5, time = 1)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 1)
+public class BufferBenchmark {
+
+  private static final String ENTRY = "123-456-789-abc-0 INFO uk.bot_by.benchmark - buffered entry";
+  private static final LambdaLogger LAMBDA_LOGGER = new LambdaLogger() {
+
+    @Override
+    public void log(String message) {
+      // discard
+    }
+
+    @Override
+    public void log(byte[] message) {
+      // discard
+    }
+
+  };
+
+  private final AWSLambdaLoggerBuffer buffer = new AWSLambdaLoggerBuffer();
+
+  @Benchmark
+  public void buffer() {
+    buffer.log(LAMBDA_LOGGER, Level.INFO, ENTRY);
+  }
+
+}
@@ -0,0 +1,100 @@
+/*
+ * Copyright 2022-2024 Vitalij Berdinskih
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *	   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.bot_by.aws_lambda.slf4j;
+
+import java.util.HashMap;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.slf4j.MDC;
+
+/**
+ * Cost of handing the request context over to a task: a snapshot of the request context compared
+ * with the manual copy of MDC. The task runs in the same thread, so the executor is not measured.
+ * <pre><code class="language-bash">
+ * java -jar benchmarks/target/benchmarks.jar ContextPropagationBenchmark -prof gc
+ * </code></pre>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@Fork(1)
+@Measurement(iterations = 5, time = 1)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Thread)
+@Warmup(iterations = 3, time = 1)
+public class ContextPropagationBenchmark {
+
+  @Param({"1", "4", "16"})
+  private int fields;
+
+  private long counter;
+  private Runnable task;
+
+  @Setup
+  public void setUp() throws Exception {
+    var contextFields = new HashMap<String, String>();
+
+    for (int i = 0; i < fields; i++) {
+      contextFields.put("key" + i, "value" + i);
+    }
+    MDC.setContextMap(contextFields);
+    AWSLambdaRequestContext.swap(AWSLambdaRequestContext.call("123-456-789-abc-0", contextFields,
+        AWSLambdaRequestContext::current));
+    task = () -> counter++;
+  }
+
+  @TearDown
+  public void tearDown() {
+    AWSLambdaRequestContext.swap(null);
+    MDC.clear();
+  }
+
+  @Benchmark
+  public void contextSnapshot() {
+    AWSLambdaRequestContext.wrap(task).run();
+  }
+
+  @Benchmark
+  public void copyOfContextMap() {
+    var contextMap = MDC.getCopyOfContextMap();
+    Runnable wrappedTask = () -> {
+      var previous = MDC.getCopyOfContextMap();
+
+      MDC.setContextMap(contextMap);
+      try {
+        task.run();
+      } finally {
+        if (previous == null) {
+          MDC.clear();
+        } else {
+          MDC.setContextMap(previous);
+        }
+      }
+    };
+
+    wrappedTask.run();
+  }
+
+}
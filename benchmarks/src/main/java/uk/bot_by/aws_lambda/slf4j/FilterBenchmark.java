@@ -0,0 +1,73 @@
+/*
+ * Copyright 2022-2024 Vitalij Berdinskih
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *	   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.bot_by.aws_lambda.slf4j;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.slf4j.event.Level;
+
+/**
+ * Cost of a noisy logging call: formatted and passed to the output, or rejected by a denied
+ * pattern before formatting. The output discards messages, so the numbers do not include
+ * encoding and writing.
+ * <pre><code class="language-bash">
+ * java -jar benchmarks/target/benchmarks.jar FilterBenchmark -prof gc
+ * </code></pre>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@Fork(1)
+@Measurement(iterations = 5, time = 1)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Thread)
+@Warmup(iterations = 3, time = 1)
+public class FilterBenchmark {
+
+  private static final String FORMAT = "connection {} leased from route {}";
+  private static final AWSLambdaLogger FILTERED_LOGGER = getLogger(
+      AWSLambdaFormatFilter.of(null, "pool is idle|" + FORMAT));
+  private static final AWSLambdaLogger LOGGER = getLogger(null);
+
+  private final String route = "https://example.com:443";
+
+  private int connection;
+
+  private static AWSLambdaLogger getLogger(AWSLambdaLoggerFilter filter) {
+    return new AWSLambdaLogger(
+        AWSLambdaLoggerConfiguration.builder().name("benchmark").filter(filter)
+            .requestId("request#").loggerLevel(Level.INFO).build(),
+        (configuration, marker, level, message, throwable) -> {
+        });
+  }
+
+  @Benchmark
+  public void denied() {
+    FILTERED_LOGGER.info(FORMAT, connection++, route);
+  }
+
+  @Benchmark
+  public void formatted() {
+    LOGGER.info(FORMAT, connection++, route);
+  }
+
+}
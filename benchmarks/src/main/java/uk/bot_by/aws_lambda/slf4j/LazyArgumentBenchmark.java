@@ -0,0 +1,94 @@
+/*
+ * Copyright 2022-2024 Vitalij Berdinskih
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *	   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.bot_by.aws_lambda.slf4j;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.slf4j.Marker;
+import org.slf4j.event.Level;
+import org.slf4j.helpers.BasicMarkerFactory;
+
+/**
+ * Cost of a disabled logging call with an expensive argument: computed eagerly, guarded by
+ * {@code isDebugEnabled()} and supplied lazily.
+ * <pre><code class="language-bash">
+ * java -jar benchmarks/target/benchmarks.jar LazyArgumentBenchmark -prof gc
+ * </code></pre>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@Fork(1)
+@Measurement(iterations = 5, time = 1)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 1)
+public class LazyArgumentBenchmark {
+
+  private static final AWSLambdaLazyLogger LOGGER = new AWSLambdaLogger(
+      AWSLambdaLoggerConfiguration.builder().name("benchmark").requestId("request#")
+          .loggerLevel(Level.INFO).loggerLevel(Level.TRACE,
+              new BasicMarkerFactory().getMarker("important")).build(),
+      (configuration, marker, level, message, throwable) -> {
+      });
+  private static final Marker MARKER = new BasicMarkerFactory().getMarker("unimportant");
+
+  private final int[] payload = new int[64];
+
+  @Benchmark
+  public void eagerArgument() {
+    LOGGER.debug("payload {}", summary());
+  }
+
+  @Benchmark
+  public void guardedArgument() {
+    if (LOGGER.isDebugEnabled()) {
+      LOGGER.debug("payload {}", summary());
+    }
+  }
+
+  @Benchmark
+  public void lazyArgument() {
+    LOGGER.debugLazy("payload {}", () -> summary());
+  }
+
+  @Benchmark
+  public void lazyArguments() {
+    LOGGER.debugLazy("payload {} {} {}", () -> summary(), () -> summary(), () -> summary());
+  }
+
+  @Benchmark
+  public void lazyArgumentWithMarker() {
+    LOGGER.debugLazy(MARKER, "payload {}", () -> summary());
+  }
+
+  @Benchmark
+  public void lazyFluentArgument() {
+    LOGGER.atDebug().addArgument(() -> summary()).log("payload {}");
+  }
+
+  private String summary() {
+    return Arrays.toString(payload);
+  }
+
+}
@@ -0,0 +1,101 @@
+/*
+ * Copyright 2022-2024 Vitalij Berdinskih
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *	   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.bot_by.aws_lambda.slf4j;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.slf4j.Logger;
+import org.slf4j.Marker;
+import org.slf4j.event.Level;
+import org.slf4j.helpers.BasicMarkerFactory;
+
+/**
+ * Cost of disabled logging calls compared with a hard-coded {@code false}.
+ * <p>
+ * The logger is held in a static final field as it is usually done in an application. The fluent
+ * API is checked with the logger without marker rules, it gets the shared no-op builder, and with
+ * the marker rules, it gets the thread's reusable builder. Run it with {@code -prof gc} to see
+ * allocations.
+ * <pre><code class="language-bash">
+ * java -jar benchmarks/target/benchmarks.jar LevelCheckBenchmark
+ * </code></pre>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@Fork(1)
+@Measurement(iterations = 5, time = 1)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 1)
+public class LevelCheckBenchmark {
+
+  private static final boolean DISABLED = false;
+  private static final Logger FLUENT_LOGGER = new AWSLambdaLogger(
+      AWSLambdaLoggerConfiguration.builder().name("benchmark").requestId("request#")
+          .loggerLevel(Level.INFO).build(),
+      (configuration, marker, level, message, throwable) -> {
+      });
+  private static final Logger LOGGER = new AWSLambdaLogger(
+      AWSLambdaLoggerConfiguration.builder().name("benchmark").requestId("request#")
+          .loggerLevel(Level.INFO).loggerLevel(Level.TRACE,
+              new BasicMarkerFactory().getMarker("important")).build(),
+      (configuration, marker, level, message, throwable) -> {
+      });
+  private static final Marker MARKER = new BasicMarkerFactory().getMarker("unimportant");
+
+  private final Object argument = new Object();
+
+  @Benchmark
+  public void hardCodedFalse(Blackhole blackhole) {
+    if (DISABLED) {
+      blackhole.consume(argument);
+    }
+  }
+
+  @Benchmark
+  public boolean isDebugEnabled() {
+    return LOGGER.isDebugEnabled();
+  }
+
+  @Benchmark
+  public void disabledDebug() {
+    LOGGER.debug("disabled message {}", argument);
+  }
+
+  @Benchmark
+  public void disabledDebugWithMarker() {
+    LOGGER.debug(MARKER, "disabled message {}", argument);
+  }
+
+  @Benchmark
+  public void disabledDebugFluent() {
+    FLUENT_LOGGER.atDebug().addArgument(argument).log("disabled message {}");
+  }
+
+  @Benchmark
+  public void disabledDebugFluentWithMarker() {
+    LOGGER.atDebug().addMarker(MARKER).addArgument(argument).log("disabled message {}");
+  }
+
+}
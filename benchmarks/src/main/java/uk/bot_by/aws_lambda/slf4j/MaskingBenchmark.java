@@ -0,0 +1,100 @@
+/*
+ * Copyright 2022-2024 Vitalij Berdinskih
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *	   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.bot_by.aws_lambda.slf4j;
+
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Throughput of masking JSON entries with and without sensitive data: {@link AWSLambdaMasker}
+ * scans an entry once, the regular expression tries every alternative at every position. The
+ * regular expression does not check card numbers by Luhn, so it does a bit less.
+ * <pre><code class="language-bash">
+ * java -jar benchmarks/target/benchmarks.jar MaskingBenchmark
+ * </code></pre>
+ */
+@BenchmarkMode(Mode.Throughput)
+@Fork(1)
+@Measurement(iterations = 5, time = 1)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Thread)
+@Warmup(iterations = 3, time = 1)
+public class MaskingBenchmark {
+
+  private static final String CLEAN_ENTRY = "{\"level\":\"INFO\","
+      + "\"logname\":\"uk.bot_by.slf4j_demo.BotHandler\",\"message\":\"order ord-1 is accepted, "
+      + "3 items\",\"aws-request-id\":\"7b9af47e-d861-44b4-bde7-fa2e84ffb7cf\"}";
+  private static final AWSLambdaMasker MASKER = AWSLambdaMasker.compile(
+      "card,email,password=*,secret=*,Bearer *");
+  private static final Pattern PATTERN = Pattern.compile("\\b[2-6]\\d{12,18}\\b"
+      + "|[\\w.%+-]+@[\\w-]+\\.[\\w.-]+|(?i)(?:password=|secret=|bearer )[^\\s\"',;&]+");
+  private static final String SENSITIVE_ENTRY = "{\"level\":\"INFO\","
+      + "\"logname\":\"uk.bot_by.slf4j_demo.BotHandler\",\"message\":\"card 4111111111111111 "
+      + "of john.doe@example.com, password=s3cret\","
+      + "\"aws-request-id\":\"7b9af47e-d861-44b4-bde7-fa2e84ffb7cf\"}";
+
+  private final StringBuilder builder = new StringBuilder(256);
+
+  @Benchmark
+  public boolean automatonClean() {
+    return MASKER.mask(reset(CLEAN_ENTRY));
+  }
+
+  @Benchmark
+  public boolean automatonSensitive() {
+    return MASKER.mask(reset(SENSITIVE_ENTRY));
+  }
+
+  @Benchmark
+  public boolean regexClean() {
+    return maskByRegex(reset(CLEAN_ENTRY));
+  }
+
+  @Benchmark
+  public boolean regexSensitive() {
+    return maskByRegex(reset(SENSITIVE_ENTRY));
+  }
+
+  private boolean maskByRegex(StringBuilder builder) {
+    var matcher = PATTERN.matcher(builder);
+    var masked = false;
+
+    while (matcher.find()) {
+      for (int i = matcher.start(); i < matcher.end(); i++) {
+        builder.setCharAt(i, '*');
+      }
+      masked = true;
+    }
+
+    return masked;
+  }
+
+  private StringBuilder reset(String entry) {
+    builder.setLength(0);
+
+    return builder.append(entry);
+  }
+
+}
@@ -0,0 +1,57 @@
+/*
+ * Copyright 2022-2024 Vitalij Berdinskih
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *	   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.bot_by.aws_lambda.slf4j;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.slf4j.helpers.MessageFormatter;
+
+/**
+ * Cost of formatting a message with two arguments: {@link AWSLambdaMessageFormatter} compared
+ * with {@link MessageFormatter#arrayFormat(String, Object[])}. Run it with {@code -prof gc} to see
+ * allocations.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@Fork(1)
+@Measurement(iterations = 5, time = 1)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Thread)
+@Warmup(iterations = 3, time = 1)
+public class MessageFormatBenchmark {
+
+  private static final String PATTERN = "order {} of customer {} is accepted";
+
+  private final Object[] arguments = {"ord-1234567", "cus-89"};
+
+  @Benchmark
+  public String awsLambdaMessageFormatter() {
+    return AWSLambdaMessageFormatter.format(PATTERN, arguments, arguments.length);
+  }
+
+  @Benchmark
+  public String messageFormatter() {
+    return MessageFormatter.arrayFormat(PATTERN, arguments).getMessage();
+  }
+
+}
@@ -0,0 +1,67 @@
+/*
+ * Copyright 2022-2024 Vitalij Berdinskih
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *	   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.bot_by.aws_lambda.slf4j;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.slf4j.Logger;
+
+/**
+ * Latency of the first logging call in a fresh JVM, with and without priming. It is like the first
+ * invocation after a SnapStart restore. Every fork writes one JSON line to the standard output.
+ * <pre><code class="language-bash">
+ * java -jar benchmarks/target/benchmarks.jar PrimingBenchmark
+ * </code></pre>
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@Fork(20)
+@Measurement(iterations = 1)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 0)
+public class PrimingBenchmark {
+
+  @Param({"false", "true"})
+  private boolean primed;
+
+  private Logger logger;
+
+  @Setup
+  public void setUp() {
+    var loggerFactory = new AWSLambdaLoggerFactory();
+
+    logger = loggerFactory.getLogger("benchmark");
+    if (primed) {
+      loggerFactory.prime();
+    }
+  }
+
+  @Benchmark
+  public void firstCall() {
+    logger.info("first call {}", primed);
+  }
+
+}
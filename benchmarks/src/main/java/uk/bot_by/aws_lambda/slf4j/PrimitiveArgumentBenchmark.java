@@ -0,0 +1,87 @@
+/*
+ * Copyright 2022-2024 Vitalij Berdinskih
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *	   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.bot_by.aws_lambda.slf4j;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.slf4j.Logger;
+import org.slf4j.event.Level;
+
+/**
+ * Cost of logging calls with {@code long} arguments: the {@link Logger} methods box them,
+ * the {@link AWSLambdaPrimitiveLogger} ones do not. The output discards
+ * messages, so the numbers are the cost of the call and formatting.
+ * <pre><code class="language-bash">
+ * java -jar benchmarks/target/benchmarks.jar PrimitiveArgumentBenchmark -prof gc
+ * </code></pre>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@Fork(1)
+@Measurement(iterations = 5, time = 1)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Thread)
+@Warmup(iterations = 3, time = 1)
+public class PrimitiveArgumentBenchmark {
+
+  private static final AWSLambdaLogger LOGGER = new AWSLambdaLogger(
+      AWSLambdaLoggerConfiguration.builder().name("benchmark").requestId("request#")
+          .loggerLevel(Level.INFO).build(),
+      (configuration, marker, level, message, throwable) -> {
+      });
+  private static final Logger BOXING_LOGGER = LOGGER;
+
+  // out of the Long cache
+  private long elapsed = 1_234_567L;
+
+  @Benchmark
+  public void boxedDisabled() {
+    BOXING_LOGGER.debug("took {} ns", elapsed++);
+  }
+
+  @Benchmark
+  public void boxedLong() {
+    BOXING_LOGGER.info("took {} ns", elapsed++);
+  }
+
+  @Benchmark
+  public void boxedLongs() {
+    BOXING_LOGGER.info("took {} ns of {}", elapsed++, elapsed);
+  }
+
+  @Benchmark
+  public void primitiveDisabled() {
+    LOGGER.debugPrimitive("took {} ns", elapsed++);
+  }
+
+  @Benchmark
+  public void primitiveLong() {
+    LOGGER.infoPrimitive("took {} ns", elapsed++);
+  }
+
+  @Benchmark
+  public void primitiveLongs() {
+    LOGGER.infoPrimitive("took {} ns of {}", elapsed++, elapsed);
+  }
+
+}
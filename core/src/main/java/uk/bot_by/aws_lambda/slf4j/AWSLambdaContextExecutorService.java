@@ -0,0 +1,72 @@
+/*
+ * Copyright 2022-2024 Vitalij Berdinskih
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *	   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.bot_by.aws_lambda.slf4j;
+
+import java.util.List;
+import java.util.concurrent.AbstractExecutorService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * The executor service that runs tasks with the request context of their submitter.
+ * <p>
+ * {@link AbstractExecutorService} builds futures in the submitter's thread and passes them to
+ * {@link #execute(Runnable)}, so that is the only place where the context is captured.
+ *
+ * @see AWSLambdaRequestContext#wrap(ExecutorService)
+ */
+class AWSLambdaContextExecutorService extends AbstractExecutorService {
+
+  private final ExecutorService executorService;
+
+  AWSLambdaContextExecutorService(@NotNull ExecutorService executorService) {
+    this.executorService = executorService;
+  }
+
+  @Override
+  public boolean awaitTermination(long timeout, @NotNull TimeUnit unit)
+      throws InterruptedException {
+    return executorService.awaitTermination(timeout, unit);
+  }
+
+  @Override
+  public void execute(@NotNull Runnable command) {
+    executorService.execute(AWSLambdaRequestContext.wrap(command));
+  }
+
+  @Override
+  public boolean isShutdown() {
+    return executorService.isShutdown();
+  }
+
+  @Override
+  public boolean isTerminated() {
+    return executorService.isTerminated();
+  }
+
+  @Override
+  public void shutdown() {
+    executorService.shutdown();
+  }
+
+  @NotNull
+  @Override
+  public List<Runnable> shutdownNow() {
+    return executorService.shutdownNow();
+  }
+
+}
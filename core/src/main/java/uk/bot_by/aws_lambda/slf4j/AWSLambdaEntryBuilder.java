@@ -0,0 +1,166 @@
+/*
+ * Copyright 2022-2024 Vitalij Berdinskih
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *	   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.bot_by.aws_lambda.slf4j;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.util.Objects.isNull;
+
+import java.io.PrintWriter;
+import java.io.Writer;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.VisibleForTesting;
+
+/**
+ * A reusable builder of log entries, every thread has its own one.
+ * <p>
+ * A new builder gets the capacity that follows the average length of entries, so a long entry
+ * does not grow it repeatedly. A builder that has grown beyond the cap after a huge entry is
+ * dropped, it does not keep memory while the thread lives. If the thread's builder is in use,
+ * e.g. a stack trace logs something while it is printed, a disposable builder is returned.
+ * <p>
+ * An entry could be encoded to UTF-8 from the builder, the AWS lambda logger takes the bytes as
+ * they are, so the entry is not converted twice. The JDK's encoder is used, its intrinsics beat
+ * a copy char by char.
+ */
+public final class AWSLambdaEntryBuilder {
+
+  @VisibleForTesting
+  static final int INITIAL_CAPACITY = 256;
+  @VisibleForTesting
+  static final int MAX_CAPACITY = 32_768;
+
+  private static final ThreadLocal<AWSLambdaEntryBuilder> BUILDERS = ThreadLocal.withInitial(
+      AWSLambdaEntryBuilder::new);
+
+  private int averageLength;
+  private StringBuilder builder;
+  private boolean busy;
+  private PrintWriter printWriter;
+
+  @VisibleForTesting
+  AWSLambdaEntryBuilder() {
+  }
+
+  /**
+   * Get the builder of the current thread.
+   *
+   * @return the thread's builder, or a disposable one if the thread's builder is in use
+   */
+  @NotNull
+  public static AWSLambdaEntryBuilder get() {
+    var entryBuilder = BUILDERS.get();
+
+    return (entryBuilder.busy) ? new AWSLambdaEntryBuilder() : entryBuilder;
+  }
+
+  /**
+   * Take the string builder, it is empty.
+   *
+   * @return string builder
+   */
+  @NotNull
+  public StringBuilder acquire() {
+    busy = true;
+    if (isNull(builder)) {
+      builder = new StringBuilder(capacity());
+    }
+
+    return builder;
+  }
+
+  /**
+   * Encode the content of the string builder to UTF-8.
+   *
+   * @return UTF-8 bytes
+   */
+  public byte @NotNull [] encode() {
+    return builder.toString().getBytes(UTF_8);
+  }
+
+  /**
+   * The writer that appends to the string builder, e.g. to print a stack trace.
+   *
+   * @return print writer
+   */
+  @NotNull
+  public PrintWriter printWriter() {
+    if (isNull(printWriter)) {
+      printWriter = new PrintWriter(new BuilderWriter(this));
+    }
+
+    return printWriter;
+  }
+
+  /**
+   * Give the string builder back: it is cleared or dropped if it is too big.
+   */
+  public void release() {
+    averageLength += (builder.length() - averageLength) / 8;
+    if (builder.capacity() > MAX_CAPACITY) {
+      builder = null;
+    } else {
+      builder.setLength(0);
+    }
+    busy = false;
+  }
+
+  @VisibleForTesting
+  int capacity() {
+    return Math.max(INITIAL_CAPACITY, Math.min(MAX_CAPACITY, averageLength * 2));
+  }
+
+  @VisibleForTesting
+  boolean isBusy() {
+    return busy;
+  }
+
+  // appends to the current string builder, it could be replaced after release
+  private static class BuilderWriter extends Writer {
+
+    private final AWSLambdaEntryBuilder entryBuilder;
+
+    private BuilderWriter(AWSLambdaEntryBuilder entryBuilder) {
+      this.entryBuilder = entryBuilder;
+    }
+
+    @Override
+    public void close() {
+      // nothing to close
+    }
+
+    @Override
+    public void flush() {
+      // nothing to flush
+    }
+
+    @Override
+    public void write(int character) {
+      entryBuilder.builder.append((char) character);
+    }
+
+    @Override
+    public void write(char @NotNull [] characters, int offset, int length) {
+      entryBuilder.builder.append(characters, offset, length);
+    }
+
+    @Override
+    public void write(@NotNull String text, int offset, int length) {
+      entryBuilder.builder.append(text, offset, offset + length);
+    }
+
+  }
+
+}
@@ -0,0 +1,87 @@
+/*
+ * Copyright 2022-2024 Vitalij Berdinskih
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *	   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.bot_by.aws_lambda.slf4j;
+
+import static java.util.Objects.isNull;
+
+import java.util.Set;
+import java.util.regex.Pattern;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.Marker;
+import org.slf4j.event.Level;
+
+/**
+ * Accepts or rejects events by their message patterns.
+ * <p>
+ * A pattern is looked up as it is, before it is formatted, so a decision costs a hash lookup.
+ * An allowed pattern is accepted even if it is denied, filters after this one do not see it.
+ *
+ * @see AWSLambdaLoggerConfigurationProperty#FilterAllow
+ * @see AWSLambdaLoggerConfigurationProperty#FilterDeny
+ */
+final class AWSLambdaFormatFilter implements AWSLambdaLoggerFilter {
+
+  private static final Pattern FORMAT_SEPARATOR = Pattern.compile("\\|");
+
+  private final Set<String> allowedFormats;
+  private final Set<String> deniedFormats;
+
+  private AWSLambdaFormatFilter(Set<String> allowedFormats, Set<String> deniedFormats) {
+    this.allowedFormats = allowedFormats;
+    this.deniedFormats = deniedFormats;
+  }
+
+  /**
+   * Build the filter.
+   *
+   * @param allowedFormats patterns that are accepted, separated by {@code |}
+   * @param deniedFormats  patterns that are rejected, separated by {@code |}
+   * @return filter, or {@code null} if there are no patterns
+   */
+  @Nullable
+  static AWSLambdaFormatFilter of(@Nullable String allowedFormats,
+      @Nullable String deniedFormats) {
+    if (isNull(allowedFormats) && isNull(deniedFormats)) {
+      return null;
+    }
+
+    return new AWSLambdaFormatFilter(split(allowedFormats), split(deniedFormats));
+  }
+
+  private static Set<String> split(String formats) {
+    if (isNull(formats) || formats.isEmpty()) {
+      return Set.of();
+    }
+
+    return Set.of(FORMAT_SEPARATOR.splitAsStream(formats).distinct().toArray(String[]::new));
+  }
+
+  @Override
+  public @NotNull Decision decide(@NotNull Logger logger, @NotNull Level level,
+      @Nullable Marker marker, @Nullable String format, @Nullable Object[] arguments) {
+    if (isNull(format)) {
+      return Decision.NEUTRAL;
+    }
+    if (allowedFormats.contains(format)) {
+      return Decision.ACCEPT;
+    }
+
+    return deniedFormats.contains(format) ? Decision.DENY : Decision.NEUTRAL;
+  }
+
+}
@@ -0,0 +1,309 @@
+/*
+ * Copyright 2022-2024 Vitalij Berdinskih
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *	   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.bot_by.aws_lambda.slf4j;
+
+import java.util.function.Supplier;
+import org.slf4j.Logger;
+import org.slf4j.Marker;
+
+/**
+ * The logger extension with lazy arguments.
+ * <p>
+ * An argument supplier is called only if the logging level is enabled, so an expensive argument
+ * does not need to be wrapped in {@code isDebugEnabled()}:
+ * <pre><code class="language-java">
+ *   var logger = (AWSLambdaLazyLogger) LoggerFactory.getLogger(BotHandler.class);
+ *
+ *   logger.debugLazy("payload {}", () -{@literal >} summary(payload));
+ * </code></pre>
+ * The methods have their own names, so they do not take part in the overload resolution of
+ * the {@link Logger} methods: a call like {@code debug("message", null, null)} selects the same
+ * method as it does with any SLF4J logger. Any argument of the {@link Logger} methods that is
+ * a {@link Supplier} is resolved in the same way, after the level and marker checks have passed.
+ */
+public interface AWSLambdaLazyLogger extends Logger {
+
+  /**
+   * Log a message at the TRACE level with a lazy argument.
+   *
+   * @param format           the format string
+   * @param argumentSupplier the argument supplier
+   */
+  void traceLazy(String format, Supplier<?> argumentSupplier);
+
+  /**
+   * Log a message at the TRACE level with two lazy arguments.
+   *
+   * @param format            the format string
+   * @param argumentSupplier1 the first argument supplier
+   * @param argumentSupplier2 the second argument supplier
+   */
+  void traceLazy(String format, Supplier<?> argumentSupplier1, Supplier<?> argumentSupplier2);
+
+  /**
+   * Log a message at the TRACE level with lazy arguments.
+   *
+   * @param format            the format string
+   * @param argumentSuppliers the argument suppliers
+   */
+  void traceLazy(String format, Supplier<?>... argumentSuppliers);
+
+  /**
+   * Log a message with the marker at the TRACE level with a lazy argument.
+   *
+   * @param marker           the marker
+   * @param format           the format string
+   * @param argumentSupplier the argument supplier
+   */
+  void traceLazy(Marker marker, String format, Supplier<?> argumentSupplier);
+
+  /**
+   * Log a message with the marker at the TRACE level with two lazy arguments.
+   *
+   * @param marker            the marker
+   * @param format            the format string
+   * @param argumentSupplier1 the first argument supplier
+   * @param argumentSupplier2 the second argument supplier
+   */
+  void traceLazy(Marker marker, String format, Supplier<?> argumentSupplier1,
+      Supplier<?> argumentSupplier2);
+
+  /**
+   * Log a message with the marker at the TRACE level with lazy arguments.
+   *
+   * @param marker            the marker
+   * @param format            the format string
+   * @param argumentSuppliers the argument suppliers
+   */
+  void traceLazy(Marker marker, String format, Supplier<?>... argumentSuppliers);
+
+  /**
+   * Log a message at the DEBUG level with a lazy argument.
+   *
+   * @param format           the format string
+   * @param argumentSupplier the argument supplier
+   */
+  void debugLazy(String format, Supplier<?> argumentSupplier);
+
+  /**
+   * Log a message at the DEBUG level with two lazy arguments.
+   *
+   * @param format            the format string
+   * @param argumentSupplier1 the first argument supplier
+   * @param argumentSupplier2 the second argument supplier
+   */
+  void debugLazy(String format, Supplier<?> argumentSupplier1, Supplier<?> argumentSupplier2);
+
+  /**
+   * Log a message at the DEBUG level with lazy arguments.
+   *
+   * @param format            the format string
+   * @param argumentSuppliers the argument suppliers
+   */
+  void debugLazy(String format, Supplier<?>... argumentSuppliers);
+
+  /**
+   * Log a message with the marker at the DEBUG level with a lazy argument.
+   *
+   * @param marker           the marker
+   * @param format           the format string
+   * @param argumentSupplier the argument supplier
+   */
+  void debugLazy(Marker marker, String format, Supplier<?> argumentSupplier);
+
+  /**
+   * Log a message with the marker at the DEBUG level with two lazy arguments.
+   *
+   * @param marker            the marker
+   * @param format            the format string
+   * @param argumentSupplier1 the first argument supplier
+   * @param argumentSupplier2 the second argument supplier
+   */
+  void debugLazy(Marker marker, String format, Supplier<?> argumentSupplier1,
+      Supplier<?> argumentSupplier2);
+
+  /**
+   * Log a message with the marker at the DEBUG level with lazy arguments.
+   *
+   * @param marker            the marker
+   * @param format            the format string
+   * @param argumentSuppliers the argument suppliers
+   */
+  void debugLazy(Marker marker, String format, Supplier<?>... argumentSuppliers);
+
+  /**
+   * Log a message at the INFO level with a lazy argument.
+   *
+   * @param format           the format string
+   * @param argumentSupplier the argument supplier
+   */
+  void infoLazy(String format, Supplier<?> argumentSupplier);
+
+  /**
+   * Log a message at the INFO level with two lazy arguments.
+   *
+   * @param format            the format string
+   * @param argumentSupplier1 the first argument supplier
+   * @param argumentSupplier2 the second argument supplier
+   */
+  void infoLazy(String format, Supplier<?> argumentSupplier1, Supplier<?> argumentSupplier2);
+
+  /**
+   * Log a message at the INFO level with lazy arguments.
+   *
+   * @param format            the format string
+   * @param argumentSuppliers the argument suppliers
+   */
+  void infoLazy(String format, Supplier<?>... argumentSuppliers);
+
+  /**
+   * Log a message with the marker at the INFO level with a lazy argument.
+   *
+   * @param marker           the marker
+   * @param format           the format string
+   * @param argumentSupplier the argument supplier
+   */
+  void infoLazy(Marker marker, String format, Supplier<?> argumentSupplier);
+
+  /**
+   * Log a message with the marker at the INFO level with two lazy arguments.
+   *
+   * @param marker            the marker
+   * @param format            the format string
+   * @param argumentSupplier1 the first argument supplier
+   * @param argumentSupplier2 the second argument supplier
+   */
+  void infoLazy(Marker marker, String format, Supplier<?> argumentSupplier1,
+      Supplier<?> argumentSupplier2);
+
+  /**
+   * Log a message with the marker at the INFO level with lazy arguments.
+   *
+   * @param marker            the marker
+   * @param format            the format string
+   * @param argumentSuppliers the argument suppliers
+   */
+  void infoLazy(Marker marker, String format, Supplier<?>... argumentSuppliers);
+
+  /**
+   * Log a message at the WARN level with a lazy argument.
+   *
+   * @param format           the format string
+   * @param argumentSupplier the argument supplier
+   */
+  void warnLazy(String format, Supplier<?> argumentSupplier);
+
+  /**
+   * Log a message at the WARN level with two lazy arguments.
+   *
+   * @param format            the format string
+   * @param argumentSupplier1 the first argument supplier
+   * @param argumentSupplier2 the second argument supplier
+   */
+  void warnLazy(String format, Supplier<?> argumentSupplier1, Supplier<?> argumentSupplier2);
+
+  /**
+   * Log a message at the WARN level with lazy arguments.
+   *
+   * @param format            the format string
+   * @param argumentSuppliers the argument suppliers
+   */
+  void warnLazy(String format, Supplier<?>... argumentSuppliers);
+
+  /**
+   * Log a message with the marker at the WARN level with a lazy argument.
+   *
+   * @param marker           the marker
+   * @param format           the format string
+   * @param argumentSupplier the argument supplier
+   */
+  void warnLazy(Marker marker, String format, Supplier<?> argumentSupplier);
+
+  /**
+   * Log a message with the marker at the WARN level with two lazy arguments.
+   *
+   * @param marker            the marker
+   * @param format            the format string
+   * @param argumentSupplier1 the first argument supplier
+   * @param argumentSupplier2 the second argument supplier
+   */
+  void warnLazy(Marker marker, String format, Supplier<?> argumentSupplier1,
+      Supplier<?> argumentSupplier2);
+
+  /**
+   * Log a message with the marker at the WARN level with lazy arguments.
+   *
+   * @param marker            the marker
+   * @param format            the format string
+   * @param argumentSuppliers the argument suppliers
+   */
+  void warnLazy(Marker marker, String format, Supplier<?>... argumentSuppliers);
+
+  /**
+   * Log a message at the ERROR level with a lazy argument.
+   *
+   * @param format           the format string
+   * @param argumentSupplier the argument supplier
+   */
+  void errorLazy(String format, Supplier<?> argumentSupplier);
+
+  /**
+   * Log a message at the ERROR level with two lazy arguments.
+   *
+   * @param format            the format string
+   * @param argumentSupplier1 the first argument supplier
+   * @param argumentSupplier2 the second argument supplier
+   */
+  void errorLazy(String format, Supplier<?> argumentSupplier1, Supplier<?> argumentSupplier2);
+
+  /**
+   * Log a message at the ERROR level with lazy arguments.
+   *
+   * @param format            the format string
+   * @param argumentSuppliers the argument suppliers
+   */
+  void errorLazy(String format, Supplier<?>... argumentSuppliers);
+
+  /**
+   * Log a message with the marker at the ERROR level with a lazy argument.
+   *
+   * @param marker           the marker
+   * @param format           the format string
+   * @param argumentSupplier the argument supplier
+   */
+  void errorLazy(Marker marker, String format, Supplier<?> argumentSupplier);
+
+  /**
+   * Log a message with the marker at the ERROR level with two lazy arguments.
+   *
+   * @param marker            the marker
+   * @param format            the format string
+   * @param argumentSupplier1 the first argument supplier
+   * @param argumentSupplier2 the second argument supplier
+   */
+  void errorLazy(Marker marker, String format, Supplier<?> argumentSupplier1,
+      Supplier<?> argumentSupplier2);
+
+  /**
+   * Log a message with the marker at the ERROR level with lazy arguments.
+   *
+   * @param marker            the marker
+   * @param format            the format string
+   * @param argumentSuppliers the argument suppliers
+   */
+  void errorLazy(Marker marker, String format, Supplier<?>... argumentSuppliers);
+
+}
@@ -15,16 +15,24 @@
  */
 package uk.bot_by.aws_lambda.slf4j;
 
+import static java.util.Objects.isNull;
+import static java.util.Objects.nonNull;
+
 import java.io.ObjectStreamException;
 import java.io.Serializable;
+import java.util.List;
+import java.util.function.Supplier;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.VisibleForTesting;
-import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.slf4j.Marker;
 import org.slf4j.event.Level;
-import org.slf4j.helpers.FormattingTuple;
-import org.slf4j.helpers.MessageFormatter;
+import org.slf4j.event.LoggingEvent;
+import org.slf4j.spi.LoggingEventAware;
+import org.slf4j.spi.LoggingEventBuilder;
+import org.slf4j.spi.NOPLoggingEventBuilder;
+import uk.bot_by.aws_lambda.slf4j.AWSLambdaLoggerFilter.Decision;
+import uk.bot_by.aws_lambda.slf4j.AWSLambdaMessageFormatter.Primitive;
 
 /**
  * An SLF4J {@link org.slf4j.Logger} implementation for <a href="https://aws.amazon.com/lambda/">AWS
@@ -48,16 +56,29 @@ import org.slf4j.helpers.MessageFormatter;
  * cc4eb5aa-66b4-42fc-b27a-138bd672b38a INFO uk.bot_by.bot.slf4j_demo.BotHandler - info message
  * END RequestId: cc4eb5aa-66b4-42fc-b27a-138bd672b38a
  * </code></pre>
+ * <p>
+ * The fluent API is supported natively: a disabled level returns the shared no-op builder, an
+ * enabled level reuses the thread's builder that is the event too, and the event goes straight to
+ * the output. The marker rules are checked when the event is logged, so a marker added to the
+ * builder could enable the level.
+ * <p>
+ * Arguments could be lazy, see {@link AWSLambdaLazyLogger}, or primitive without boxing,
+ * see {@link AWSLambdaPrimitiveLogger}.
+ * <p>
+ * An enabled event goes through the filter chain of the configuration before its message is
+ * formatted, see {@link AWSLambdaLoggerFilter}.
  *
  * @see AWSLambdaLoggerConfiguration AWSLambdaLogger's configuration
  */
-public class AWSLambdaLogger implements Logger, Serializable {
+public class AWSLambdaLogger implements AWSLambdaLazyLogger, AWSLambdaPrimitiveLogger,
+    LoggingEventAware, Serializable {
 
   private static final long serialVersionUID = 7893093825483346807L;
 
-  private final AWSLambdaLoggerConfiguration configuration;
   private final AWSLambdaLoggerOutput output;
 
+  private volatile AWSLambdaLoggerConfiguration configuration;
+
   AWSLambdaLogger(@NotNull AWSLambdaLoggerConfiguration configuration,
       @NotNull AWSLambdaLoggerOutput output) {
     this.configuration = configuration;
@@ -68,6 +89,97 @@ public class AWSLambdaLogger implements Logger, Serializable {
     return configuration.name();
   }
 
+  /**
+   * Replace the configuration, e.g. after the configuration file has been changed.
+   * <p>
+   * The configuration is immutable, so the logger picks up the whole new set of rules at once.
+   *
+   * @param configuration new configuration
+   */
+  void setConfiguration(@NotNull AWSLambdaLoggerConfiguration configuration) {
+    this.configuration = configuration;
+  }
+
+  /**
+   * Replace argument suppliers with their values.
+   * <p>
+   * The array is copied if it contains suppliers, so the caller's array is not changed.
+   *
+   * @param arguments logging arguments
+   * @return arguments without suppliers
+   */
+  static Object[] resolveSuppliers(Object[] arguments) {
+    if (isNull(arguments)) {
+      return null;
+    }
+
+    Object[] resolvedArguments = arguments;
+
+    for (int i = 0; i < arguments.length; i++) {
+      if (arguments[i] instanceof Supplier) {
+        if (resolvedArguments == arguments) {
+          resolvedArguments = arguments.clone();
+        }
+        resolvedArguments[i] = ((Supplier<?>) arguments[i]).get();
+      }
+    }
+
+    return resolvedArguments;
+  }
+
+  @Override
+  public LoggingEventBuilder makeLoggingEventBuilder(Level level) {
+    return AWSLambdaLoggingEventBuilder.getBuilder(this, level);
+  }
+
+  @Override
+  public LoggingEventBuilder atLevel(Level level) {
+    if (configuration.isLevelEnabledWithAnyMarker(level)) {
+      return makeLoggingEventBuilder(level);
+    }
+    return NOPLoggingEventBuilder.singleton();
+  }
+
+  @Override
+  public LoggingEventBuilder atTrace() {
+    return atLevel(Level.TRACE);
+  }
+
+  @Override
+  public LoggingEventBuilder atDebug() {
+    return atLevel(Level.DEBUG);
+  }
+
+  @Override
+  public LoggingEventBuilder atInfo() {
+    return atLevel(Level.INFO);
+  }
+
+  @Override
+  public LoggingEventBuilder atWarn() {
+    return atLevel(Level.WARN);
+  }
+
+  @Override
+  public LoggingEventBuilder atError() {
+    return atLevel(Level.ERROR);
+  }
+
+  /**
+   * Log an event of the fluent API.
+   * <p>
+   * The event is logged if its level is enabled or any of its markers enables the level.
+   *
+   * @param event logging event
+   */
+  @Override
+  public void log(LoggingEvent event) {
+    if (!isLevelEnabled(event.getLevel(), event.getMarkers()) || isRejected(event)) {
+      return;
+    }
+    output.log(configuration, event);
+  }
+
   @Override
   public boolean isTraceEnabled() {
     return isLevelEnabled(Level.TRACE);
@@ -80,12 +192,12 @@ public class AWSLambdaLogger implements Logger, Serializable {
 
   @Override
   public void trace(String message) {
-    log(Level.TRACE, message, null);
+    filterAndLog(Level.TRACE, message, null);
   }
 
   @Override
   public void trace(Marker marker, String message) {
-    log(Level.TRACE, marker, message, null);
+    filterAndLog(Level.TRACE, marker, message, null);
   }
 
   @Override
@@ -118,14 +230,87 @@ public class AWSLambdaLogger implements Logger, Serializable {
     formatAndLog(Level.TRACE, marker, format, arguments);
   }
 
+  @Override
+  public void traceLazy(String format, Supplier<?> argumentSupplier) {
+    formatAndLog(Level.TRACE, format, argumentSupplier, null);
+  }
+
+  @Override
+  public void traceLazy(Marker marker, String format, Supplier<?> argumentSupplier) {
+    formatAndLog(Level.TRACE, marker, format, argumentSupplier, null);
+  }
+
+  @Override
+  public void traceLazy(String format, Supplier<?> argumentSupplier1,
+      Supplier<?> argumentSupplier2) {
+    formatAndLog(Level.TRACE, format, argumentSupplier1, argumentSupplier2);
+  }
+
+  @Override
+  public void traceLazy(Marker marker, String format, Supplier<?> argumentSupplier1,
+      Supplier<?> argumentSupplier2) {
+    formatAndLog(Level.TRACE, marker, format, argumentSupplier1, argumentSupplier2);
+  }
+
+  @Override
+  public void traceLazy(String format, Supplier<?>... argumentSuppliers) {
+    formatAndLog(Level.TRACE, format, (Object[]) argumentSuppliers);
+  }
+
+  @Override
+  public void traceLazy(Marker marker, String format, Supplier<?>... argumentSuppliers) {
+    formatAndLog(Level.TRACE, marker, format, (Object[]) argumentSuppliers);
+  }
+
+  @Override
+  public void tracePrimitive(String format, int argument) {
+    formatAndLog(Level.TRACE, format, Primitive.LONG, argument, 0, 1);
+  }
+
+  @Override
+  public void tracePrimitive(String format, long argument) {
+    formatAndLog(Level.TRACE, format, Primitive.LONG, argument, 0, 1);
+  }
+
+  @Override
+  public void tracePrimitive(String format, double argument) {
+    formatAndLog(Level.TRACE, format, Primitive.DOUBLE, Double.doubleToRawLongBits(argument), 0, 1);
+  }
+
+  @Override
+  public void tracePrimitive(String format, boolean argument) {
+    formatAndLog(Level.TRACE, format, Primitive.BOOLEAN, argument ? 1 : 0, 0, 1);
+  }
+
+  @Override
+  public void tracePrimitive(String format, int argument1, int argument2) {
+    formatAndLog(Level.TRACE, format, Primitive.LONG, argument1, argument2, 2);
+  }
+
+  @Override
+  public void tracePrimitive(String format, long argument1, long argument2) {
+    formatAndLog(Level.TRACE, format, Primitive.LONG, argument1, argument2, 2);
+  }
+
+  @Override
+  public void tracePrimitive(String format, double argument1, double argument2) {
+    formatAndLog(Level.TRACE, format, Primitive.DOUBLE, Double.doubleToRawLongBits(argument1),
+        Double.doubleToRawLongBits(argument2), 2);
+  }
+
+  @Override
+  public void tracePrimitive(String format, boolean argument1, boolean argument2) {
+    formatAndLog(Level.TRACE, format, Primitive.BOOLEAN, argument1 ? 1 : 0, argument2 ? 1 : 0, 2);
+  }
+
   @Override
   public void trace(String message, Throwable throwable) {
-    log(Level.TRACE, message, throwable);
+    filterAndLog(Level.TRACE, message, throwable);
   }
 
   @Override
   public void trace(Marker marker, String message, Throwable throwable) {
-    log(Level.TRACE, marker, message, throwable);
+    filterAndLog(Level.TRACE, marker, message, throwable);
   }
 
   @Override
@@ -140,12 +325,12 @@ public class AWSLambdaLogger implements Logger, Serializable {
 
   @Override
   public void debug(String message) {
-    log(Level.DEBUG, message, null);
+    filterAndLog(Level.DEBUG, message, null);
   }
 
   @Override
   public void debug(Marker marker, String message) {
-    log(Level.DEBUG, marker, message, null);
+    filterAndLog(Level.DEBUG, marker, message, null);
   }
 
   @Override
@@ -178,14 +363,87 @@ public class AWSLambdaLogger implements Logger, Serializable {
     formatAndLog(Level.DEBUG, marker, format, arguments);
   }
 
+  @Override
+  public void debugLazy(String format, Supplier<?> argumentSupplier) {
+    formatAndLog(Level.DEBUG, format, argumentSupplier, null);
+  }
+
+  @Override
+  public void debugLazy(Marker marker, String format, Supplier<?> argumentSupplier) {
+    formatAndLog(Level.DEBUG, marker, format, argumentSupplier, null);
+  }
+
+  @Override
+  public void debugLazy(String format, Supplier<?> argumentSupplier1,
+      Supplier<?> argumentSupplier2) {
+    formatAndLog(Level.DEBUG, format, argumentSupplier1, argumentSupplier2);
+  }
+
+  @Override
+  public void debugLazy(Marker marker, String format, Supplier<?> argumentSupplier1,
+      Supplier<?> argumentSupplier2) {
+    formatAndLog(Level.DEBUG, marker, format, argumentSupplier1, argumentSupplier2);
+  }
+
+  @Override
+  public void debugLazy(String format, Supplier<?>... argumentSuppliers) {
+    formatAndLog(Level.DEBUG, format, (Object[]) argumentSuppliers);
+  }
+
+  @Override
+  public void debugLazy(Marker marker, String format, Supplier<?>... argumentSuppliers) {
+    formatAndLog(Level.DEBUG, marker, format, (Object[]) argumentSuppliers);
+  }
+
+  @Override
+  public void debugPrimitive(String format, int argument) {
+    formatAndLog(Level.DEBUG, format, Primitive.LONG, argument, 0, 1);
+  }
+
+  @Override
+  public void debugPrimitive(String format, long argument) {
+    formatAndLog(Level.DEBUG, format, Primitive.LONG, argument, 0, 1);
+  }
+
+  @Override
+  public void debugPrimitive(String format, double argument) {
+    formatAndLog(Level.DEBUG, format, Primitive.DOUBLE, Double.doubleToRawLongBits(argument), 0, 1);
+  }
+
+  @Override
+  public void debugPrimitive(String format, boolean argument) {
+    formatAndLog(Level.DEBUG, format, Primitive.BOOLEAN, argument ? 1 : 0, 0, 1);
+  }
+
+  @Override
+  public void debugPrimitive(String format, int argument1, int argument2) {
+    formatAndLog(Level.DEBUG, format, Primitive.LONG, argument1, argument2, 2);
+  }
+
+  @Override
+  public void debugPrimitive(String format, long argument1, long argument2) {
+    formatAndLog(Level.DEBUG, format, Primitive.LONG, argument1, argument2, 2);
+  }
+
+  @Override
+  public void debugPrimitive(String format, double argument1, double argument2) {
+    formatAndLog(Level.DEBUG, format, Primitive.DOUBLE, Double.doubleToRawLongBits(argument1),
+        Double.doubleToRawLongBits(argument2), 2);
+  }
+
+  @Override
+  public void debugPrimitive(String format, boolean argument1, boolean argument2) {
+    formatAndLog(Level.DEBUG, format, Primitive.BOOLEAN, argument1 ? 1 : 0, argument2 ? 1 : 0, 2);
+  }
+
   @Override
   public void debug(String message, Throwable throwable) {
-    log(Level.DEBUG, message, throwable);
+    filterAndLog(Level.DEBUG, message, throwable);
   }
 
   @Override
   public void debug(Marker marker, String message, Throwable throwable) {
-    log(Level.DEBUG, marker, message, throwable);
+    filterAndLog(Level.DEBUG, marker, message, throwable);
   }
 
   @Override
@@ -200,12 +458,12 @@ public class AWSLambdaLogger implements Logger, Serializable {
 
   @Override
   public void info(String message) {
-    log(Level.INFO, message, null);
+    filterAndLog(Level.INFO, message, null);
   }
 
   @Override
   public void info(Marker marker, String message) {
-    log(Level.INFO, marker, message, null);
+    filterAndLog(Level.INFO, marker, message, null);
   }
 
   @Override
@@ -238,14 +496,87 @@ public class AWSLambdaLogger implements Logger, Serializable {
     formatAndLog(Level.INFO, marker, format, arguments);
   }
 
+  @Override
+  public void infoLazy(String format, Supplier<?> argumentSupplier) {
+    formatAndLog(Level.INFO, format, argumentSupplier, null);
+  }
+
+  @Override
+  public void infoLazy(Marker marker, String format, Supplier<?> argumentSupplier) {
+    formatAndLog(Level.INFO, marker, format, argumentSupplier, null);
+  }
+
+  @Override
+  public void infoLazy(String format, Supplier<?> argumentSupplier1,
+      Supplier<?> argumentSupplier2) {
+    formatAndLog(Level.INFO, format, argumentSupplier1, argumentSupplier2);
+  }
+
+  @Override
+  public void infoLazy(Marker marker, String format, Supplier<?> argumentSupplier1,
+      Supplier<?> argumentSupplier2) {
+    formatAndLog(Level.INFO, marker, format, argumentSupplier1, argumentSupplier2);
+  }
+
+  @Override
+  public void infoLazy(String format, Supplier<?>... argumentSuppliers) {
+    formatAndLog(Level.INFO, format, (Object[]) argumentSuppliers);
+  }
+
+  @Override
+  public void infoLazy(Marker marker, String format, Supplier<?>... argumentSuppliers) {
+    formatAndLog(Level.INFO, marker, format, (Object[]) argumentSuppliers);
+  }
+
+  @Override
+  public void infoPrimitive(String format, int argument) {
+    formatAndLog(Level.INFO, format, Primitive.LONG, argument, 0, 1);
+  }
+
+  @Override
+  public void infoPrimitive(String format, long argument) {
+    formatAndLog(Level.INFO, format, Primitive.LONG, argument, 0, 1);
+  }
+
+  @Override
+  public void infoPrimitive(String format, double argument) {
+    formatAndLog(Level.INFO, format, Primitive.DOUBLE, Double.doubleToRawLongBits(argument), 0, 1);
+  }
+
+  @Override
+  public void infoPrimitive(String format, boolean argument) {
+    formatAndLog(Level.INFO, format, Primitive.BOOLEAN, argument ? 1 : 0, 0, 1);
+  }
+
+  @Override
+  public void infoPrimitive(String format, int argument1, int argument2) {
+    formatAndLog(Level.INFO, format, Primitive.LONG, argument1, argument2, 2);
+  }
+
+  @Override
+  public void infoPrimitive(String format, long argument1, long argument2) {
+    formatAndLog(Level.INFO, format, Primitive.LONG, argument1, argument2, 2);
+  }
+
+  @Override
+  public void infoPrimitive(String format, double argument1, double argument2) {
+    formatAndLog(Level.INFO, format, Primitive.DOUBLE, Double.doubleToRawLongBits(argument1),
+        Double.doubleToRawLongBits(argument2), 2);
+  }
+
+  @Override
+  public void infoPrimitive(String format, boolean argument1, boolean argument2) {
+    formatAndLog(Level.INFO, format, Primitive.BOOLEAN, argument1 ? 1 : 0, argument2 ? 1 : 0, 2);
+  }
+
   @Override
   public void info(String message, Throwable throwable) {
-    log(Level.INFO, message, throwable);
+    filterAndLog(Level.INFO, message, throwable);
   }
 
   @Override
   public void info(Marker marker, String message, Throwable throwable) {
-    log(Level.INFO, marker, message, throwable);
+    filterAndLog(Level.INFO, marker, message, throwable);
   }
 
   @Override
@@ -260,12 +591,12 @@ public class AWSLambdaLogger implements Logger, Serializable {
 
   @Override
   public void warn(String message) {
-    log(Level.WARN, message, null);
+    filterAndLog(Level.WARN, message, null);
   }
 
   @Override
   public void warn(Marker marker, String message) {
-    log(Level.WARN, marker, message, null);
+    filterAndLog(Level.WARN, marker, message, null);
   }
 
   @Override
@@ -298,14 +629,87 @@ public class AWSLambdaLogger implements Logger, Serializable {
     formatAndLog(Level.WARN, marker, format, arguments);
   }
 
+  @Override
+  public void warnLazy(String format, Supplier<?> argumentSupplier) {
+    formatAndLog(Level.WARN, format, argumentSupplier, null);
+  }
+
+  @Override
+  public void warnLazy(Marker marker, String format, Supplier<?> argumentSupplier) {
+    formatAndLog(Level.WARN, marker, format, argumentSupplier, null);
+  }
+
+  @Override
+  public void warnLazy(String format, Supplier<?> argumentSupplier1,
+      Supplier<?> argumentSupplier2) {
+    formatAndLog(Level.WARN, format, argumentSupplier1, argumentSupplier2);
+  }
+
+  @Override
+  public void warnLazy(Marker marker, String format, Supplier<?> argumentSupplier1,
+      Supplier<?> argumentSupplier2) {
+    formatAndLog(Level.WARN, marker, format, argumentSupplier1, argumentSupplier2);
+  }
+
+  @Override
+  public void warnLazy(String format, Supplier<?>... argumentSuppliers) {
+    formatAndLog(Level.WARN, format, (Object[]) argumentSuppliers);
+  }
+
+  @Override
+  public void warnLazy(Marker marker, String format, Supplier<?>... argumentSuppliers) {
+    formatAndLog(Level.WARN, marker, format, (Object[]) argumentSuppliers);
+  }
+
+  @Override
+  public void warnPrimitive(String format, int argument) {
+    formatAndLog(Level.WARN, format, Primitive.LONG, argument, 0, 1);
+  }
+
+  @Override
+  public void warnPrimitive(String format, long argument) {
+    formatAndLog(Level.WARN, format, Primitive.LONG, argument, 0, 1);
+  }
+
+  @Override
+  public void warnPrimitive(String format, double argument) {
+    formatAndLog(Level.WARN, format, Primitive.DOUBLE, Double.doubleToRawLongBits(argument), 0, 1);
+  }
+
+  @Override
+  public void warnPrimitive(String format, boolean argument) {
+    formatAndLog(Level.WARN, format, Primitive.BOOLEAN, argument ? 1 : 0, 0, 1);
+  }
+
+  @Override
+  public void warnPrimitive(String format, int argument1, int argument2) {
+    formatAndLog(Level.WARN, format, Primitive.LONG, argument1, argument2, 2);
+  }
+
+  @Override
+  public void warnPrimitive(String format, long argument1, long argument2) {
+    formatAndLog(Level.WARN, format, Primitive.LONG, argument1, argument2, 2);
+  }
+
+  @Override
+  public void warnPrimitive(String format, double argument1, double argument2) {
+    formatAndLog(Level.WARN, format, Primitive.DOUBLE, Double.doubleToRawLongBits(argument1),
+        Double.doubleToRawLongBits(argument2), 2);
+  }
+
+  @Override
+  public void warnPrimitive(String format, boolean argument1, boolean argument2) {
+    formatAndLog(Level.WARN, format, Primitive.BOOLEAN, argument1 ? 1 : 0, argument2 ? 1 : 0, 2);
+  }
+
   @Override
   public void warn(String message, Throwable throwable) {
-    log(Level.WARN, message, throwable);
+    filterAndLog(Level.WARN, message, throwable);
   }
 
   @Override
   public void warn(Marker marker, String message, Throwable throwable) {
-    log(Level.WARN, marker, message, throwable);
+    filterAndLog(Level.WARN, marker, message, throwable);
   }
 
   @Override
@@ -320,12 +724,12 @@ public class AWSLambdaLogger implements Logger, Serializable {
 
   @Override
   public void error(String message) {
-    log(Level.ERROR, message, null);
+    filterAndLog(Level.ERROR, message, null);
   }
 
   @Override
   public void error(Marker marker, String message) {
-    log(Level.ERROR, marker, message, null);
+    filterAndLog(Level.ERROR, marker, message, null);
   }
 
   @Override
@@ -358,14 +762,87 @@ public class AWSLambdaLogger implements Logger, Serializable {
     formatAndLog(Level.ERROR, marker, format, arguments);
   }
 
+  @Override
+  public void errorLazy(String format, Supplier<?> argumentSupplier) {
+    formatAndLog(Level.ERROR, format, argumentSupplier, null);
+  }
+
+  @Override
+  public void errorLazy(Marker marker, String format, Supplier<?> argumentSupplier) {
+    formatAndLog(Level.ERROR, marker, format, argumentSupplier, null);
+  }
+
+  @Override
+  public void errorLazy(String format, Supplier<?> argumentSupplier1,
+      Supplier<?> argumentSupplier2) {
+    formatAndLog(Level.ERROR, format, argumentSupplier1, argumentSupplier2);
+  }
+
+  @Override
+  public void errorLazy(Marker marker, String format, Supplier<?> argumentSupplier1,
+      Supplier<?> argumentSupplier2) {
+    formatAndLog(Level.ERROR, marker, format, argumentSupplier1, argumentSupplier2);
+  }
+
+  @Override
+  public void errorLazy(String format, Supplier<?>... argumentSuppliers) {
+    formatAndLog(Level.ERROR, format, (Object[]) argumentSuppliers);
+  }
+
+  @Override
+  public void errorLazy(Marker marker, String format, Supplier<?>... argumentSuppliers) {
+    formatAndLog(Level.ERROR, marker, format, (Object[]) argumentSuppliers);
+  }
+
+  @Override
+  public void errorPrimitive(String format, int argument) {
+    formatAndLog(Level.ERROR, format, Primitive.LONG, argument, 0, 1);
+  }
+
+  @Override
+  public void errorPrimitive(String format, long argument) {
+    formatAndLog(Level.ERROR, format, Primitive.LONG, argument, 0, 1);
+  }
+
+  @Override
+  public void errorPrimitive(String format, double argument) {
+    formatAndLog(Level.ERROR, format, Primitive.DOUBLE, Double.doubleToRawLongBits(argument), 0, 1);
+  }
+
+  @Override
+  public void errorPrimitive(String format, boolean argument) {
+    formatAndLog(Level.ERROR, format, Primitive.BOOLEAN, argument ? 1 : 0, 0, 1);
+  }
+
+  @Override
+  public void errorPrimitive(String format, int argument1, int argument2) {
+    formatAndLog(Level.ERROR, format, Primitive.LONG, argument1, argument2, 2);
+  }
+
+  @Override
+  public void errorPrimitive(String format, long argument1, long argument2) {
+    formatAndLog(Level.ERROR, format, Primitive.LONG, argument1, argument2, 2);
+  }
+
+  @Override
+  public void errorPrimitive(String format, double argument1, double argument2) {
+    formatAndLog(Level.ERROR, format, Primitive.DOUBLE, Double.doubleToRawLongBits(argument1),
+        Double.doubleToRawLongBits(argument2), 2);
+  }
+
+  @Override
+  public void errorPrimitive(String format, boolean argument1, boolean argument2) {
+    formatAndLog(Level.ERROR, format, Primitive.BOOLEAN, argument1 ? 1 : 0, argument2 ? 1 : 0, 2);
+  }
+
   @Override
   public void error(String message, Throwable throwable) {
-    log(Level.ERROR, message, throwable);
+    filterAndLog(Level.ERROR, message, throwable);
   }
 
   @Override
   public void error(Marker marker, String message, Throwable throwable) {
-    log(Level.ERROR, marker, message, throwable);
+    filterAndLog(Level.ERROR, marker, message, throwable);
   }
 
   @VisibleForTesting
@@ -384,20 +861,56 @@ public class AWSLambdaLogger implements Logger, Serializable {
     output.log(configuration, marker, level, message, throwable);
   }
 
+  // the throwable candidate is the last argument, it is not formatted
+  private static int countArguments(Object[] arguments, Throwable throwable) {
+    if (isNull(arguments)) {
+      return 0;
+    }
+    return isNull(throwable) ? arguments.length : arguments.length - 1;
+  }
+
+  // log() checks the level anyway, filters are called only if it is enabled
+  private void filterAndLog(Level level, String message, Throwable throwable) {
+    if (isLevelEnabled(level) && isRejected(level, null, message, null)) {
+      return;
+    }
+    log(level, message, throwable);
+  }
+
+  private void filterAndLog(Level level, Marker marker, String message, Throwable throwable) {
+    if (isLevelEnabled(level, marker) && isRejected(level, marker, message, null)) {
+      return;
+    }
+    log(level, marker, message, throwable);
+  }
+
   private void formatAndLog(Level level, String format, Object... arguments) {
-    if (!isLevelEnabled(level)) {
+    if (!isLevelEnabled(level) || isRejected(level, null, format, arguments)) {
       return;
     }
-    FormattingTuple formattingTuple = MessageFormatter.arrayFormat(format, arguments);
-    log(level, formattingTuple.getMessage(), formattingTuple.getThrowable());
+    writeFormatted(level, null, format, resolveSuppliers(arguments));
   }
 
   private void formatAndLog(Level level, Marker marker, String format, Object... arguments) {
-    if (!isLevelEnabled(level, marker)) {
+    if (!isLevelEnabled(level, marker) || isRejected(level, marker, format, arguments)) {
+      return;
+    }
+    writeFormatted(level, marker, format, resolveSuppliers(arguments));
+  }
+
+  private void formatAndLog(Level level, String format, Primitive type, long first, long second,
+      int count) {
+    if (!isLevelEnabled(level) || isRejected(level, null, format, null)) {
       return;
     }
-    FormattingTuple formattingTuple = MessageFormatter.arrayFormat(format, arguments);
-    log(level, marker, formattingTuple.getMessage(), formattingTuple.getThrowable());
+    if (configuration.messageTemplate()) {
+      var arguments = (count == 1) ? new Object[]{type.box(first)}
+          : new Object[]{type.box(first), type.box(second)};
+
+      writeFormatted(level, null, format, arguments);
+    } else {
+      log(level, AWSLambdaMessageFormatter.format(format, type, first, second, count), null);
+    }
   }
 
   private boolean isLevelEnabled(Level level) {
@@ -408,6 +921,68 @@ public class AWSLambdaLogger implements Logger, Serializable {
     return configuration.isLevelEnabled(level, marker);
   }
 
+  private boolean isLevelEnabled(Level level, List<Marker> markers) {
+    if (isNull(markers) || markers.isEmpty()) {
+      return isLevelEnabled(level);
+    }
+    for (Marker marker : markers) {
+      if (isLevelEnabled(level, marker)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  // the chain runs after the level check, so a disabled level does not pay for it
+  private boolean isRejected(Level level, Marker marker, String format, Object[] arguments) {
+    var filter = configuration.filter();
+
+    return nonNull(filter)
+        && filter.decide(this, level, marker, format, arguments) == Decision.DENY;
+  }
+
+  // suppliers of the fluent builder are passed unresolved, so a rejected event does not call them
+  private boolean isRejected(LoggingEvent event) {
+    var filter = configuration.filter();
+
+    if (isNull(filter)) {
+      return false;
+    }
+
+    var markers = event.getMarkers();
+    var marker = (isNull(markers) || markers.isEmpty()) ? null : markers.get(0);
+
+    if (event instanceof AWSLambdaLoggingEventBuilder) {
+      var builder = (AWSLambdaLoggingEventBuilder) event;
+
+      return filter.decide(this, event.getLevel(), marker, builder.getPattern(),
+          builder.getRawArguments()) == Decision.DENY;
+    }
+
+    return filter.decide(this, event.getLevel(), marker, event.getMessage(),
+        event.getArgumentArray()) == Decision.DENY;
+  }
+
+  private void writeFormatted(Level level, Marker marker, String format, Object[] arguments) {
+    var throwable = AWSLambdaMessageFormatter.getThrowableCandidate(arguments);
+    var count = countArguments(arguments, throwable);
+
+    if (configuration.messageTemplate()) {
+      var placeholders = AWSLambdaMessageTemplate.argumentCount(format, count);
+
+      if (placeholders > 0) {
+        output.logTemplate(configuration, marker, level, format, arguments, placeholders, null,
+            throwable);
+        return;
+      }
+    }
+    if (isNull(marker)) {
+      log(level, AWSLambdaMessageFormatter.format(format, arguments, count), throwable);
+    } else {
+      log(level, marker, AWSLambdaMessageFormatter.format(format, arguments, count), throwable);
+    }
+  }
+
   private Object readResolve() throws ObjectStreamException {
     return LoggerFactory.getLogger(getName());
   }
@@ -0,0 +1,164 @@
+/*
+ * Copyright 2022-2024 Vitalij Berdinskih
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *	   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.bot_by.aws_lambda.slf4j;
+
+import static java.util.Objects.isNull;
+
+import com.amazonaws.services.lambda.runtime.LambdaLogger;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.VisibleForTesting;
+import org.slf4j.event.Level;
+
+/**
+ * Keeps text log entries of the init phase or of an invocation and writes them as one batch.
+ * <p>
+ * Log entries are built by an output at once, so they have their original timestamps, only writing
+ * to the AWS lambda log is postponed. Entries are joined into batches with an entry per line, so
+ * the buffer does not fit JSON entries: CloudWatch parses a log event as one JSON document.
+ * <p>
+ * The init buffer is flushed when the first invocation begins, when the init phase completes
+ * before the SnapStart snapshot, and when the runtime shuts down, e.g. after a failed init.
+ * The buffer of an invocation is flushed when the invocation completes. An <em>error</em> writes
+ * buffered entries immediately. After the flush the buffer writes every entry at once.
+ * <p>
+ * An entry is appended and the batch is written while the lock is held, the lock is not
+ * a monitor, so a virtual thread does not pin its carrier while it waits for the AWS lambda log.
+ *
+ * @see AWSLambdaLoggerConfigurationProperty#InitBuffering
+ * @see AWSLambdaLoggerConfigurationProperty#InvocationBuffering
+ */
+public class AWSLambdaLoggerBuffer {
+
+  /**
+   * The batch is written before it grows beyond this number of bytes in UTF-8, a CloudWatch log
+   * event is limited to 256 KB.
+   */
+  @VisibleForTesting
+  static final int MAX_BATCH_SIZE = 200_000;
+
+  private static final String SEPARATOR = System.lineSeparator();
+
+  private final StringBuilder batch = new StringBuilder();
+  private final Lock lock = new ReentrantLock();
+
+  private int batchSize;
+  private LambdaLogger lambdaLogger;
+
+  private volatile boolean buffering = true;
+
+  AWSLambdaLoggerBuffer() {
+  }
+
+  /**
+   * Keep a log entry while the buffer is not flushed, or write it to the AWS lambda log.
+   *
+   * @param lambdaLogger AWS lambda logger
+   * @param level        logging level
+   * @param entry        log entry
+   */
+  public void log(@NotNull LambdaLogger lambdaLogger, @NotNull Level level,
+      @NotNull String entry) {
+    if (buffering) {
+      lock.lock();
+      try {
+        if (buffering) {
+          append(lambdaLogger, level, entry);
+          return;
+        }
+      } finally {
+        lock.unlock();
+      }
+    }
+    lambdaLogger.log(entry);
+  }
+
+  /**
+   * Write buffered entries and stop buffering.
+   */
+  void flush() {
+    lock.lock();
+    try {
+      buffering = false;
+      writeBatch();
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /**
+   * Does the buffer keep entries, it stops when it is flushed.
+   *
+   * @return {@code true} if the buffer is not flushed yet
+   */
+  public boolean isBuffering() {
+    return buffering;
+  }
+
+  // the length of a string in UTF-8 without encoding it, a lone surrogate is written as '?'
+  @VisibleForTesting
+  static int utf8Size(String text) {
+    var length = text.length();
+    var size = length;
+
+    for (int i = 0; i < length; i++) {
+      var character = text.charAt(i);
+
+      if (character >= 0x800) {
+        if (Character.isHighSurrogate(character) && i + 1 < length
+            && Character.isLowSurrogate(text.charAt(i + 1))) {
+          size += 2;
+          i++;
+        } else if (!Character.isSurrogate(character)) {
+          size += 2;
+        }
+      } else if (character >= 0x80) {
+        size++;
+      }
+    }
+
+    return size;
+  }
+
+  private void append(LambdaLogger lambdaLogger, Level level, String entry) {
+    var size = utf8Size(entry);
+
+    this.lambdaLogger = lambdaLogger;
+    if (batchSize > 0 && batchSize + SEPARATOR.length() + size > MAX_BATCH_SIZE) {
+      writeBatch();
+    }
+    if (batchSize > 0) {
+      batch.append(SEPARATOR);
+      batchSize += SEPARATOR.length();
+    }
+    batch.append(entry);
+    batchSize += size;
+    if (Level.ERROR == level) {
+      writeBatch();
+    }
+  }
+
+  private void writeBatch() {
+    if (isNull(lambdaLogger) || batchSize == 0) {
+      return;
+    }
+    lambdaLogger.log(batch.toString());
+    batch.setLength(0);
+    batchSize = 0;
+  }
+
+}
@@ -16,12 +16,10 @@
 package uk.bot_by.aws_lambda.slf4j;
 
 import static java.util.Objects.isNull;
-import static java.util.Objects.nonNull;
 import static java.util.Objects.requireNonNull;
 
 import java.text.DateFormat;
 import java.util.ArrayList;
-import java.util.Arrays;
 import java.util.List;
 import java.util.function.BiPredicate;
 import org.jetbrains.annotations.NotNull;
@@ -38,20 +36,38 @@ public class AWSLambdaLoggerConfiguration {
 
   private static final String DOT = ".";
 
+  private final AWSLambdaLoggerBuffer buffer;
   private final DateFormat dateTimeFormat;
+  private final AWSLambdaLoggerFilter filter;
+  private final int formattedMessageThreshold;
   private final boolean levelInBrackets;
-  private final List<BiPredicate<Level, Marker>> loggerPredicates;
+  private final int levelThreshold;
+  private final int markerLevelThreshold;
+  private final BiPredicate<Level, Marker>[] markerPredicates;
+  private final AWSLambdaMasker masker;
   private final String logName;
+  private final boolean messageTemplate;
   private final String name;
   private final String requestId;
   private final boolean showDateTime;
   private final boolean showThreadId;
   private final boolean showThreadName;
+  private final long startTime;
+  private final int structuredArgumentDepth;
+  private final int structuredArgumentSize;
 
+  @SuppressWarnings("unchecked")
   private AWSLambdaLoggerConfiguration(Builder builder) {
+    buffer = builder.buffer;
     dateTimeFormat = builder.dateTimeFormat;
+    filter = builder.filter;
+    formattedMessageThreshold = builder.formattedMessageThreshold;
     levelInBrackets = builder.levelInBrackets;
-    loggerPredicates = List.copyOf(builder.loggerPredicates);
+    levelThreshold = builder.levelThreshold;
+    markerLevelThreshold = builder.markerLevelThreshold;
+    markerPredicates = builder.markerPredicates.toArray(BiPredicate[]::new);
+    masker = builder.masker;
+    messageTemplate = builder.messageTemplate;
     name = builder.name;
     if (builder.showShortLogName) {
       logName = name.substring(name.lastIndexOf(DOT) + 1);
@@ -64,12 +80,26 @@ public class AWSLambdaLoggerConfiguration {
     showDateTime = builder.showDateTime;
     showThreadId = builder.showThreadId;
     showThreadName = builder.showThreadName;
+    startTime = builder.startTime;
+    structuredArgumentDepth = builder.structuredArgumentDepth;
+    structuredArgumentSize = builder.structuredArgumentSize;
   }
 
   static Builder builder() {
     return new Builder();
   }
 
+  /**
+   * The buffer of the init phase, an output writes log entries through it if it is set.
+   *
+   * @return init buffer
+   * @see AWSLambdaLoggerConfigurationProperty#InitBuffering
+   */
+  @Nullable
+  public AWSLambdaLoggerBuffer buffer() {
+    return buffer;
+  }
+
   /**
    * The date and time format to be used in the output messages. The pattern describing the date and
    * time format is defined by {@link java.text.SimpleDateFormat}.
@@ -85,14 +115,41 @@ public class AWSLambdaLoggerConfiguration {
     return dateTimeFormat;
   }
 
+  /**
+   * The filter chain that decides on enabled events before their messages are formatted.
+   *
+   * @return filter, or {@code null} if there are no filters
+   * @see AWSLambdaLoggerFilter
+   */
+  @Nullable
+  public AWSLambdaLoggerFilter filter() {
+    return filter;
+  }
+
   /**
    * Test if the logging level is enabled.
+   * <p>
+   * The logger levels are compiled to a threshold when the configuration is built, so it is a
+   * single comparison.
    *
    * @param level logging level
    * @return true if this logging level is enabled
    */
   public boolean isLevelEnabled(Level level) {
-    return isLevelEnabled(level, null);
+    return level.toInt() >= levelThreshold;
+  }
+
+  /**
+   * Test if the logging level is enabled without markers or with some of them.
+   * <p>
+   * The fluent API gets a builder before markers are added, so the builder is created if any marker
+   * could enable the level, and the marker rules are checked when the event is logged.
+   *
+   * @param level logging level
+   * @return true if this logging level could be enabled
+   */
+  boolean isLevelEnabledWithAnyMarker(Level level) {
+    return level.toInt() >= Math.min(levelThreshold, markerLevelThreshold);
   }
 
   /**
@@ -103,8 +160,29 @@ public class AWSLambdaLoggerConfiguration {
    * @return true if this logging level with the marker is enabled
    */
   public boolean isLevelEnabled(Level level, Marker marker) {
-    return loggerPredicates.stream()
-        .anyMatch(loggerPredicate -> loggerPredicate.test(level, marker));
+    if (level.toInt() >= levelThreshold) {
+      return true;
+    }
+    if (isNull(marker) || level.toInt() < markerLevelThreshold) {
+      return false;
+    }
+    for (BiPredicate<Level, Marker> markerPredicate : markerPredicates) {
+      if (markerPredicate.test(level, marker)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Test if an output that writes the message template should write the formatted message too.
+   *
+   * @param level logging level
+   * @return true if the formatted message should be written
+   * @see AWSLambdaLoggerConfigurationProperty#FormattedMessage
+   */
+  public boolean isMessageFormatted(Level level) {
+    return level.toInt() >= formattedMessageThreshold;
   }
 
   /**
@@ -125,6 +203,27 @@ public class AWSLambdaLoggerConfiguration {
     return logName;
   }
 
+  /**
+   * The masker of sensitive data, an output applies it to an entry before the entry is written.
+   *
+   * @return masker, or {@code null} if nothing is masked
+   * @see AWSLambdaLoggerConfigurationProperty#Masking
+   */
+  @Nullable
+  public AWSLambdaMasker masker() {
+    return masker;
+  }
+
+  /**
+   * Should an output write the message pattern and arguments?
+   *
+   * @return true if the message template should be written
+   * @see AWSLambdaLoggerConfigurationProperty#MessageTemplate
+   */
+  public boolean messageTemplate() {
+    return messageTemplate;
+  }
+
   /**
    * The full logger name.
    *
@@ -171,11 +270,52 @@ public class AWSLambdaLoggerConfiguration {
     return showThreadName;
   }
 
+  /**
+   * The start time in milliseconds, the relative timestamp is counted from it.
+   * <p>
+   * It is the time when the logger factory was created, or when the execution environment was
+   * restored from a SnapStart snapshot.
+   *
+   * @return start time
+   * @see #showDateTime()
+   */
+  public long startTime() {
+    return startTime;
+  }
+
+  /**
+   * How deep an output that supports structured arguments goes into nested objects.
+   *
+   * @return maximum depth, {@code 0} if arguments are not structured
+   * @see AWSLambdaLoggerConfigurationProperty#StructuredArguments
+   */
+  public int structuredArgumentDepth() {
+    return structuredArgumentDepth;
+  }
+
+  /**
+   * How many fields, elements or entries of a structured argument are written.
+   *
+   * @return maximum size of an object, a collection or a map
+   * @see AWSLambdaLoggerConfigurationProperty#StructuredArgumentSize
+   */
+  public int structuredArgumentSize() {
+    return structuredArgumentSize;
+  }
+
   static class Builder {
 
+    private final List<BiPredicate<Level, Marker>> markerPredicates = new ArrayList<>();
+
+    private AWSLambdaLoggerBuffer buffer;
     private DateFormat dateTimeFormat;
+    private AWSLambdaLoggerFilter filter;
+    private int formattedMessageThreshold;
     private boolean levelInBrackets;
-    private List<BiPredicate<Level, Marker>> loggerPredicates;
+    private int levelThreshold = Integer.MAX_VALUE;
+    private int markerLevelThreshold = Integer.MAX_VALUE;
+    private AWSLambdaMasker masker;
+    private boolean messageTemplate;
     private String name;
     private String requestId;
     private boolean showDateTime;
@@ -183,46 +323,63 @@ public class AWSLambdaLoggerConfiguration {
     private boolean showShortLogName;
     private boolean showThreadId;
     private boolean showThreadName;
+    private long startTime;
+    private int structuredArgumentDepth;
+    private int structuredArgumentSize;
 
     private Builder() {
     }
 
     AWSLambdaLoggerConfiguration build() {
-      requireNonNull(loggerPredicates, "Logger level is null");
+      if (levelThreshold == Integer.MAX_VALUE && markerPredicates.isEmpty()) {
+        throw new NullPointerException("Logger level is null");
+      }
       requireNonNull(name, "Logger name is null");
       requireNonNull(requestId, "AWS request ID is null");
       return new AWSLambdaLoggerConfiguration(this);
     }
 
+    Builder buffer(@Nullable AWSLambdaLoggerBuffer buffer) {
+      this.buffer = buffer;
+      return this;
+    }
+
     Builder dateTimeFormat(@Nullable DateFormat dateTimeFormat) {
       this.dateTimeFormat = dateTimeFormat;
       return this;
     }
 
+    Builder filter(@Nullable AWSLambdaLoggerFilter filter) {
+      this.filter = filter;
+      return this;
+    }
+
+    Builder formattedMessageThreshold(int formattedMessageThreshold) {
+      this.formattedMessageThreshold = formattedMessageThreshold;
+      return this;
+    }
+
     Builder levelInBrackets(boolean levelInBrackets) {
       this.levelInBrackets = levelInBrackets;
       return this;
     }
 
     Builder loggerLevel(@NotNull Level loggerLevel) {
-      if (isNull(loggerPredicates)) {
-        loggerPredicates = new ArrayList<>();
-      }
-      loggerPredicates.add((level, marker) -> level.toInt() >= loggerLevel.toInt());
+      levelThreshold = Math.min(levelThreshold, loggerLevel.toInt());
       return this;
     }
 
     Builder loggerLevel(@NotNull Level loggerLevel, @NotNull Marker... loggerMarkers) {
-      if (isNull(loggerPredicates)) {
-        loggerPredicates = new ArrayList<>();
+      if (loggerMarkers.length == 0) {
+        return loggerLevel(loggerLevel);
       }
-      this.loggerPredicates.add((level, marker) -> {
+      markerLevelThreshold = Math.min(markerLevelThreshold, loggerLevel.toInt());
+      markerPredicates.add((level, marker) -> {
         if (level.toInt() >= loggerLevel.toInt()) {
-          if (loggerMarkers.length == 0) {
-            return true;
-          }
-          if (nonNull(marker)) {
-            return Arrays.stream(loggerMarkers).anyMatch(marker::contains);
+          for (Marker loggerMarker : loggerMarkers) {
+            if (marker.contains(loggerMarker)) {
+              return true;
+            }
           }
         }
         return false;
@@ -230,6 +387,16 @@ public class AWSLambdaLoggerConfiguration {
       return this;
     }
 
+    Builder masker(@Nullable AWSLambdaMasker masker) {
+      this.masker = masker;
+      return this;
+    }
+
+    Builder messageTemplate(boolean messageTemplate) {
+      this.messageTemplate = messageTemplate;
+      return this;
+    }
+
     Builder name(@NotNull String name) {
       this.name = name;
       return this;
@@ -265,6 +432,21 @@ public class AWSLambdaLoggerConfiguration {
       return this;
     }
 
+    Builder startTime(long startTime) {
+      this.startTime = startTime;
+      return this;
+    }
+
+    Builder structuredArgumentDepth(int structuredArgumentDepth) {
+      this.structuredArgumentDepth = structuredArgumentDepth;
+      return this;
+    }
+
+    Builder structuredArgumentSize(int structuredArgumentSize) {
+      this.structuredArgumentSize = structuredArgumentSize;
+      return this;
+    }
+
   }
 
 }
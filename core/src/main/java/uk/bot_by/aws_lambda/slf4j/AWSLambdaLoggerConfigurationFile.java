@@ -0,0 +1,136 @@
+/*
+ * Copyright 2022-2024 Vitalij Berdinskih
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *	   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.bot_by.aws_lambda.slf4j;
+
+import static java.util.Objects.isNull;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.util.Properties;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.slf4j.helpers.Reporter;
+
+/**
+ * The external configuration file that could be changed while the execution environment is alive.
+ * <p>
+ * The file is not checked more often than the check interval, so it is cheap to call
+ * {@link #loadIfModified(Properties)} on every invocation.
+ */
+class AWSLambdaLoggerConfigurationFile {
+
+  private final long checkInterval;
+  private final Lock lock = new ReentrantLock();
+  private final Path path;
+
+  private FileTime lastModified;
+  private volatile long nextCheck;
+
+  AWSLambdaLoggerConfigurationFile(@NotNull Path path, @NotNull Duration checkInterval) {
+    this.checkInterval = checkInterval.toNanos();
+    this.path = path;
+    nextCheck = System.nanoTime();
+  }
+
+  Path getPath() {
+    return path;
+  }
+
+  /**
+   * Load properties if the check interval is elapsed and the file has been changed since the last
+   * load.
+   * <p>
+   * The file's properties override the default ones. If the file was removed, the default
+   * properties are returned.
+   *
+   * @param defaults default properties
+   * @return properties, or {@code null} if the file is not changed or is not checked yet
+   */
+  @Nullable
+  Properties loadIfModified(@NotNull Properties defaults) {
+    if (System.nanoTime() - nextCheck < 0) {
+      return null;
+    }
+    lock.lock();
+    try {
+      var now = System.nanoTime();
+
+      if (now - nextCheck < 0) {
+        return null;
+      }
+      nextCheck = now + checkInterval;
+
+      return load(defaults);
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /**
+   * Forget the last load, so the file is checked and loaded at the next call of
+   * {@link #loadIfModified(Properties)}, e.g. after the execution environment has been restored
+   * from a snapshot.
+   */
+  void reset() {
+    lock.lock();
+    try {
+      lastModified = null;
+      nextCheck = System.nanoTime();
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  private Properties load(Properties defaults) {
+    FileTime modified;
+
+    try {
+      modified = Files.getLastModifiedTime(path);
+    } catch (IOException exception) {
+      modified = null;
+    }
+    if (isNull(modified)) {
+      if (isNull(lastModified)) {
+        return null;
+      }
+      lastModified = null;
+      return new Properties(defaults);
+    }
+    if (modified.equals(lastModified)) {
+      return null;
+    }
+
+    var properties = new Properties(defaults);
+
+    try (Reader reader = Files.newBufferedReader(path, StandardCharsets.ISO_8859_1)) {
+      properties.load(reader);
+      lastModified = modified;
+    } catch (IOException | IllegalArgumentException exception) {
+      Reporter.warn("Could not read the configuration file " + path + ": " + exception.getMessage());
+      return null;
+    }
+
+    return properties;
+  }
+
+}
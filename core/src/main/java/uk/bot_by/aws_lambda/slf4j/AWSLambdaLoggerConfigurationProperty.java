@@ -7,6 +7,25 @@ package uk.bot_by.aws_lambda.slf4j;
  */
 public enum AWSLambdaLoggerConfigurationProperty {
 
+  /**
+   * <strong>configurationCheckInterval</strong> - How often, in seconds, the configuration file is
+   * checked for changes. Defaults to {@code 60}.
+   * <p>
+   * The environment variable is <strong>LOG_CONFIGURATION_CHECK_INTERVAL</strong>.
+   *
+   * @see #ConfigurationFile
+   */
+  ConfigurationCheckInterval("configurationCheckInterval", "LOG_CONFIGURATION_CHECK_INTERVAL",
+      "60"),
+  /**
+   * <strong>configurationFile</strong> - The path to an additional properties file, e.g. in
+   * <em>/tmp</em> or shipped by a Lambda extension. Its properties override the bundled
+   * {@code lambda-logger.properties}, the file is checked for changes on invocation boundaries, and
+   * the loggers are reconfigured without restarting the execution environment.
+   * <p>
+   * The environment variable is <strong>LOG_CONFIGURATION_FILE</strong>.
+   */
+  ConfigurationFile("configurationFile", "LOG_CONFIGURATION_FILE", null),
   /**
    * <strong>dateTimeFormat</strong> - The date and time format to be used in the output messages.
    * The pattern describing the date and time format is defined by
@@ -26,6 +45,63 @@ public enum AWSLambdaLoggerConfigurationProperty {
    * The environment variable is <strong>LOG_DEFAULT_LEVEL</strong>.
    */
   DefaultLogLevel("defaultLogLevel", "LOG_DEFAULT_LEVEL", "INFO"),
+  /**
+   * <strong>filterAllow</strong> - Message patterns that are always logged if their level is
+   * enabled, separated by {@code |}. Patterns are matched as they are, before formatting.
+   * <p>
+   * The environment variable is <strong>LOG_FILTER_ALLOW</strong>.
+   *
+   * @see AWSLambdaLoggerFilter
+   */
+  FilterAllow("filterAllow", "LOG_FILTER_ALLOW", null),
+  /**
+   * <strong>filterDeny</strong> - Message patterns that are rejected before formatting, separated
+   * by {@code |}, e.g. noisy messages of a library.
+   * <p>
+   * The environment variable is <strong>LOG_FILTER_DENY</strong>.
+   *
+   * @see AWSLambdaLoggerFilter
+   */
+  FilterDeny("filterDeny", "LOG_FILTER_DENY", null),
+  /**
+   * <strong>filterMdcThreshold</strong> - Comma-separated thresholds <em>level@key=value</em>:
+   * while the context field or the MDC value <em>key</em> is <em>value</em>, events below
+   * <em>level</em> are rejected, e.g. {@code warn@source=healthcheck}.
+   * <p>
+   * The environment variable is <strong>LOG_FILTER_MDC_THRESHOLD</strong>.
+   *
+   * @see AWSLambdaLoggerFilter
+   */
+  FilterMDCThreshold("filterMdcThreshold", "LOG_FILTER_MDC_THRESHOLD", null),
+  /**
+   * <strong>formattedMessage</strong> - When an output that supports message templates should
+   * write the formatted message: <em>always</em>, <em>never</em> or for <em>warn</em> and above.
+   * A value is case-insensitive. Defaults to <em>always</em>.
+   * <p>
+   * The environment variable is <strong>LOG_FORMATTED_MESSAGE</strong>.
+   *
+   * @see #MessageTemplate
+   */
+  FormattedMessage("formattedMessage", "LOG_FORMATTED_MESSAGE", "always"),
+  /**
+   * <strong>initBuffering</strong> - Set to {@code true} if you want to keep log entries of the
+   * init phase in memory and write them as one batch when the first invocation begins or the init
+   * phase completes. An <em>error</em> flushes the buffer immediately. JSON output does not
+   * buffer entries. Defaults to {@code false}.
+   * <p>
+   * The environment variable is <strong>LOG_INIT_BUFFERING</strong>.
+   */
+  InitBuffering("initBuffering", "LOG_INIT_BUFFERING", "false"),
+  /**
+   * <strong>invocationBuffering</strong> - Set to {@code true} if you want to keep log entries of
+   * an invocation bound by {@link AWSLambdaRequestContext} in memory of its context and write them
+   * as one batch when the invocation completes, so entries of concurrent invocations do not
+   * interleave. An <em>error</em> flushes the buffer immediately. JSON output does not buffer
+   * entries. Defaults to {@code false}.
+   * <p>
+   * The environment variable is <strong>LOG_INVOCATION_BUFFERING</strong>.
+   */
+  InvocationBuffering("invocationBuffering", "LOG_INVOCATION_BUFFERING", "false"),
   /**
    * <strong>levelInBrackets</strong> - Should the level string be output in brackets? Defaults to
    * {@code false}.
@@ -50,6 +126,27 @@ public enum AWSLambdaLoggerConfigurationProperty {
    * The environment variable is <strong>LOG_MARKER_SEPARATOR</strong>
    */
   MarkerSeparator("markerSeparator", "LOG_MARKER_SEPARATOR", ":"),
+  /**
+   * <strong>masking</strong> - Comma-separated rules of sensitive data that is masked before
+   * an entry is written: {@code card} for payment card numbers, {@code email} for email
+   * addresses, {@code literal*} for the value after a literal, e.g. {@code password=*},
+   * and {@code literal} for the literal itself. Nothing is masked by default.
+   * <p>
+   * The environment variable is <strong>LOG_MASKING</strong>.
+   *
+   * @see AWSLambdaMasker
+   */
+  Masking("masking", "LOG_MASKING", null),
+  /**
+   * <strong>messageTemplate</strong> - Set to {@code true} if you want an output that supports
+   * message templates, e.g. the JSON one, to write the message pattern, its hash and arguments
+   * instead of or besides the formatted message. Defaults to {@code false}.
+   * <p>
+   * The environment variable is <strong>LOG_MESSAGE_TEMPLATE</strong>.
+   *
+   * @see #FormattedMessage
+   */
+  MessageTemplate("messageTemplate", "LOG_MESSAGE_TEMPLATE", "false"),
   /**
    * <strong>requestId</strong> - Set the context name of <strong>AWS request ID</strong>.
    * Defaults to {@code AWS_REQUEST_ID}.
@@ -91,7 +188,38 @@ public enum AWSLambdaLoggerConfigurationProperty {
    * <p>
    * The environment variable is <strong>LOG_SHOW_THREAD_NAME</strong>.
    */
-  ShowThreadName("showThreadName", "LOG_SHOW_THREAD_NAME", "false");
+  ShowThreadName("showThreadName", "LOG_SHOW_THREAD_NAME", "false"),
+  /**
+   * <strong>structuredArgumentDepth</strong> - How deep an output that supports structured
+   * arguments goes into nested objects, collections and maps. Defaults to {@code 3}.
+   * <p>
+   * The environment variable is <strong>LOG_STRUCTURED_ARGUMENT_DEPTH</strong>.
+   *
+   * @see #StructuredArguments
+   */
+  StructuredArgumentDepth("structuredArgumentDepth", "LOG_STRUCTURED_ARGUMENT_DEPTH", "3"),
+  /**
+   * <strong>structuredArgumentSize</strong> - How many fields, elements or entries of an object,
+   * a collection or a map an output that supports structured arguments writes. Defaults to
+   * {@code 32}.
+   * <p>
+   * The environment variable is <strong>LOG_STRUCTURED_ARGUMENT_SIZE</strong>.
+   *
+   * @see #StructuredArguments
+   */
+  StructuredArgumentSize("structuredArgumentSize", "LOG_STRUCTURED_ARGUMENT_SIZE", "32"),
+  /**
+   * <strong>structuredArguments</strong> - Set to {@code true} if you want an output that supports
+   * structured arguments, e.g. the JSON one, to write beans, records, collections and maps of
+   * message arguments and key-value pairs as nested structures instead of their
+   * {@code toString()}. Defaults to {@code false}.
+   * <p>
+   * The environment variable is <strong>LOG_STRUCTURED_ARGUMENTS</strong>.
+   *
+   * @see #StructuredArgumentDepth
+   * @see #StructuredArgumentSize
+   */
+  StructuredArguments("structuredArguments", "LOG_STRUCTURED_ARGUMENTS", "false");
 
   /**
    * Default value of the property.
@@ -0,0 +1,96 @@
+/*
+ * Copyright 2022-2024 Vitalij Berdinskih
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *	   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.bot_by.aws_lambda.slf4j;
+
+import static java.util.Objects.isNull;
+
+import java.util.List;
+import java.util.function.Supplier;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.slf4j.Marker;
+import org.slf4j.event.KeyValuePair;
+import org.slf4j.event.Level;
+import org.slf4j.event.LoggingEvent;
+
+/**
+ * The output that is looked up on the first enabled event.
+ * <p>
+ * Loggers of the factory share it, so the output service provider is looked up once, and its
+ * classes are not loaded while nothing is logged.
+ */
+class AWSLambdaLoggerDeferredOutput implements AWSLambdaLoggerOutput {
+
+  private final Supplier<AWSLambdaLoggerOutput> outputSupplier;
+
+  private volatile AWSLambdaLoggerOutput output;
+
+  AWSLambdaLoggerDeferredOutput(@NotNull Supplier<AWSLambdaLoggerOutput> outputSupplier) {
+    this.outputSupplier = outputSupplier;
+  }
+
+  @Override
+  public void log(@NotNull AWSLambdaLoggerConfiguration configuration,
+      @NotNull LoggingEvent event) {
+    getOutput().log(configuration, event);
+  }
+
+  @Override
+  public void log(@NotNull AWSLambdaLoggerConfiguration configuration, @Nullable Marker marker,
+      @NotNull Level level, @NotNull String message, @Nullable List<KeyValuePair> keyValuePairs,
+      @Nullable Throwable throwable) {
+    getOutput().log(configuration, marker, level, message, keyValuePairs, throwable);
+  }
+
+  @Override
+  public void log(@NotNull AWSLambdaLoggerConfiguration configuration, @Nullable Marker marker,
+      @NotNull Level level, @NotNull String message, @Nullable Throwable throwable) {
+    getOutput().log(configuration, marker, level, message, throwable);
+  }
+
+  @Override
+  public void logTemplate(@NotNull AWSLambdaLoggerConfiguration configuration,
+      @Nullable Marker marker, @NotNull Level level, @NotNull String pattern,
+      @NotNull Object[] arguments, int count, @Nullable List<KeyValuePair> keyValuePairs,
+      @Nullable Throwable throwable) {
+    getOutput().logTemplate(configuration, marker, level, pattern, arguments, count,
+        keyValuePairs, throwable);
+  }
+
+  @Override
+  public void prime(@NotNull AWSLambdaLoggerConfiguration configuration, @Nullable Marker marker,
+      @NotNull Level level, @NotNull String message, @Nullable List<KeyValuePair> keyValuePairs,
+      @Nullable Throwable throwable) {
+    getOutput().prime(configuration, marker, level, message, keyValuePairs, throwable);
+  }
+
+  private AWSLambdaLoggerOutput getOutput() {
+    var output = this.output;
+
+    if (isNull(output)) {
+      synchronized (this) {
+        output = this.output;
+        if (isNull(output)) {
+          output = outputSupplier.get();
+          this.output = output;
+        }
+      }
+    }
+
+    return output;
+  }
+
+}
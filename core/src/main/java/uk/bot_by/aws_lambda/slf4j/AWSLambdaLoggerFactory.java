@@ -20,15 +20,21 @@ import static java.util.Objects.nonNull;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.file.InvalidPathException;
+import java.nio.file.Path;
 import java.text.DateFormat;
 import java.text.SimpleDateFormat;
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Properties;
 import java.util.ServiceLoader;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import org.crac.Core;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 import org.jetbrains.annotations.VisibleForTesting;
 import org.slf4j.ILoggerFactory;
 import org.slf4j.Logger;
@@ -43,6 +49,10 @@ import org.slf4j.helpers.Reporter;
  * <p>
  * It looks for the {@code lambda-logger.properties} resource and read properties:
  * <ul>
+ * <li><strong>configurationCheckInterval</strong> - How often, in seconds, the configuration file
+ * is checked for changes. Defaults to {@code 60}.</li>
+ * <li><strong>configurationFile</strong> - The path to an additional properties file that
+ * overrides the bundled properties and is checked for changes on invocation boundaries.</li>
  * <li><strong>dateTimeFormat</strong> - The date and time format to be used in the output messages.
  * The pattern describing the date and time format is defined by {@link java.text.SimpleDateFormat}.
  * If the format is not specified or is invalid, the number of milliseconds since start up
@@ -50,9 +60,29 @@ import org.slf4j.helpers.Reporter;
  * <li><strong>defaultLogLevel</strong> - Default log level for all instances of LambdaLogger.
  * Must be one of (<em>trace</em>, <em>debug</em>, <em>info</em>, <em>warn</em>, <em>error</em>),
  * a value is case-insensitive. If not specified, defaults to <em>info</em>.</li>
+ * <li><strong>filterAllow</strong> - Message patterns that are always logged if their level is
+ * enabled, separated by {@code |}.</li>
+ * <li><strong>filterDeny</strong> - Message patterns that are rejected before formatting,
+ * separated by {@code |}.</li>
+ * <li><strong>filterMdcThreshold</strong> - Comma-separated thresholds <em>level@key=value</em>,
+ * events below the level are rejected while the MDC value is set.</li>
+ * <li><strong>formattedMessage</strong> - When an output that supports message templates should
+ * write the formatted message: <em>always</em>, <em>never</em> or for <em>warn</em> and above.
+ * Defaults to <em>always</em>.</li>
+ * <li><strong>initBuffering</strong> - Set to {@code true} if you want to keep log entries of the
+ * init phase in memory and write them as one batch. Defaults to {@code false}.</li>
+ * <li><strong>invocationBuffering</strong> - Set to {@code true} if you want to keep log entries
+ * of an invocation bound by {@link AWSLambdaRequestContext} in memory and write them as one batch
+ * when the invocation completes. Defaults to {@code false}.</li>
  * <li><strong>levelInBrackets</strong> - Should the level string be output in brackets?
  * Defaults to {@code false}.</li>
  * <li><strong>log.a.b.c</strong> - Logging detail level for a LambdaLogger instance named <em>a.b.c</em></li>
+ * <li><strong>masking</strong> - Comma-separated rules of sensitive data that is masked before
+ * an entry is written: {@code card}, {@code email}, {@code literal*} for the value after
+ * a literal and {@code literal} for the literal itself.</li>
+ * <li><strong>messageTemplate</strong> - Set to {@code true} if you want an output that supports
+ * message templates to write the message pattern, its hash and arguments.
+ * Defaults to {@code false}.</li>
  * <li><strong>requestId</strong> - Set the context name of <strong>AWS request ID</strong>.
  * Defaults to {@code AWS_REQUEST_ID}.</li>
  * <li><strong>showDateTime</strong> - Set to {@code true} if you want the current date and time
@@ -65,13 +95,28 @@ import org.slf4j.helpers.Reporter;
  * then set to {@code true}. Defaults to {@code false}.</li>
  * <li><strong>showThreadName</strong> - Set to {@code true} if you want to output
  * the current thread name. Defaults to {@code false}.</li>
+ * <li><strong>structuredArgumentDepth</strong> - How deep structured arguments go into nested
+ * objects. Defaults to {@code 3}.</li>
+ * <li><strong>structuredArgumentSize</strong> - How many fields, elements or entries
+ * of a structured argument are written. Defaults to {@code 32}.</li>
+ * <li><strong>structuredArguments</strong> - Set to {@code true} if you want an output that
+ * supports structured arguments to write beans, records, collections and maps as nested
+ * structures. Defaults to {@code false}.</li>
  * </ul>
  * <p>
  * The environment variables overrides the properties: <strong>LOG_AWS_REQUEST_ID</strong>,
+ * <strong>LOG_CONFIGURATION_CHECK_INTERVAL</strong>, <strong>LOG_CONFIGURATION_FILE</strong>,
  * <strong>LOG_DATE_TIME_FORMAT</strong>, <strong>LOG_DEFAULT_LEVEL</strong>,
- * <strong>LOG_LEVEL_IN_BRACKETS</strong>, <strong>LOG_SHOW_DATE_TIME</strong>,
+ * <strong>LOG_FILTER_ALLOW</strong>, <strong>LOG_FILTER_DENY</strong>,
+ * <strong>LOG_FILTER_MDC_THRESHOLD</strong>,
+ * <strong>LOG_FORMATTED_MESSAGE</strong>, <strong>LOG_INIT_BUFFERING</strong>,
+ * <strong>LOG_INVOCATION_BUFFERING</strong>, <strong>LOG_LEVEL_IN_BRACKETS</strong>,
+ * <strong>LOG_MASKING</strong>, <strong>LOG_MESSAGE_TEMPLATE</strong>,
+ * <strong>LOG_SHOW_DATE_TIME</strong>,
  * <strong>LOG_SHOW_NAME</strong>, <strong>LOG_SHOW_SHORT_NAME</strong>,
- * <strong>LOG_SHOW_THREAD_ID</strong>, <strong>LOG_SHOW_THREAD_NAME</strong>.
+ * <strong>LOG_SHOW_THREAD_ID</strong>, <strong>LOG_SHOW_THREAD_NAME</strong>,
+ * <strong>LOG_STRUCTURED_ARGUMENT_DEPTH</strong>, <strong>LOG_STRUCTURED_ARGUMENT_SIZE</strong>,
+ * <strong>LOG_STRUCTURED_ARGUMENTS</strong>.
  * <p>
  * <strong>Fine-grained configuration with markers</strong>
  * <p>
@@ -99,6 +144,53 @@ import org.slf4j.helpers.Reporter;
  * # single pipe symbol
  * markerSeparator=\\|
  * </code></pre>
+ * <p>
+ * <strong>Reloading the configuration</strong>
+ * <p>
+ * Set <strong>LOG_CONFIGURATION_FILE</strong> to a properties file outside the deployment package,
+ * e.g. {@code /tmp/lambda-logger.properties}, to change log levels without a redeployment and a
+ * cold start. The file is checked when the AWS request ID is put to MDC, at most once per
+ * <strong>configurationCheckInterval</strong> seconds. When the file is changed, all existing
+ * loggers get a rebuilt configuration at once. The environment variables still override the file.
+ * <p>
+ * Log levels could be changed at run time too, see {@link #setLevel(String, Level)}.
+ * <p>
+ * <strong>Filters</strong>
+ * <p>
+ * Enabled events go through the chain of filters before their messages are formatted: the
+ * built-in ones are set by <strong>filterAllow</strong>, <strong>filterDeny</strong> and
+ * <strong>filterMdcThreshold</strong>, custom ones are added by
+ * {@link #addFilter(AWSLambdaLoggerFilter)}.
+ * <p>
+ * <strong>SnapStart</strong>
+ * <p>
+ * The factory registers a <a href="https://github.com/CRaC/org.crac">CRaC</a> resource. After the
+ * execution environment has been restored from a snapshot, the relative timestamp starts from the
+ * restore time, and the environment variables, the configuration file and the date-time format are
+ * read again. Before the snapshot is taken, the factory warms logging hot paths up, see
+ * {@link #prime()}.
+ * <p>
+ * <strong>Lazy initialization</strong>
+ * <p>
+ * The date-time format is built only if <strong>showDateTime</strong> is set, logger levels are
+ * resolved when a logger is requested, and the output service provider is looked up once, on the
+ * first enabled event.
+ * <p>
+ * <strong>Init buffering</strong>
+ * <p>
+ * Every log entry is a synchronous write to the runtime. Set <strong>LOG_INIT_BUFFERING</strong>
+ * to {@code true} to keep entries of the init phase in memory and write them as one batch when the
+ * AWS request ID is put to MDC the first time, before the SnapStart snapshot, or on
+ * {@link #flush()}. Entries keep their original timestamps, an <em>error</em> flushes the buffer
+ * immediately. Text entries are joined into batches, JSON entries are written at once because
+ * CloudWatch parses a log event as one JSON document.
+ * <p>
+ * <strong>Concurrent invocations</strong>
+ * <p>
+ * When an execution environment handles several invocations at once, bind each of them by
+ * {@link AWSLambdaRequestContext}: the request ID belongs to the invocation, not to a thread. Set
+ * <strong>LOG_INVOCATION_BUFFERING</strong> to {@code true} to give every invocation its own
+ * buffer, so its entries are written as one batch that does not interleave with other invocations.
  *
  * @see AWSLambdaLoggerConfigurationProperty
  */
@@ -109,22 +201,40 @@ public class AWSLambdaLoggerFactory implements ILoggerFactory {
   private static final char DOT = '.';
   private static final String DOTS = "\\.+";
   private static final String NONE = "";
+  private static final int PRIMING_ITERATIONS = 1_000;
+  private static final String PRIMING_LOGGER_NAME = "uk.bot_by.aws_lambda.slf4j.priming";
   private static final String UNDERSCORE = "_";
   private static final String SPACES = "\\s+";
 
-  private final ConcurrentMap<String, Logger> loggers;
-  private final DateFormat dateTimeFormat;
-  private final List<AWSLambdaLoggerLevel> defaultLoggerLevel;
-  private final boolean levelInBrackets;
-  private final String logLevelSeparator;
-  private final String markerSeparator;
-  private final Properties properties;
-  private final String requestId;
-  private final boolean showDateTime;
-  private final boolean showLogName;
-  private final boolean showShortLogName;
-  private final boolean showThreadId;
-  private final boolean showThreadName;
+  private final AWSLambdaLoggerBuffer buffer;
+  private final AWSLambdaLoggerConfigurationFile configurationFile;
+  private final ConcurrentMap<String, AWSLambdaLogger> loggers;
+  private final Properties resourceProperties;
+  private final AWSLambdaLoggerResource resource;
+  private final List<AWSLambdaLoggerFilter> runtimeFilters;
+  private final ConcurrentMap<String, List<AWSLambdaLoggerLevel>> runtimeLoggerLevels;
+
+  private DateFormat dateTimeFormat;
+  private List<AWSLambdaLoggerLevel> defaultLoggerLevel;
+  private AWSLambdaLoggerFilter filter;
+  private int formattedMessageThreshold;
+  private volatile boolean invocationBuffering;
+  private boolean levelInBrackets;
+  private String logLevelSeparator;
+  private AWSLambdaLoggerOutput loggerOutput;
+  private String markerSeparator;
+  private AWSLambdaMasker masker;
+  private boolean messageTemplate;
+  private Properties properties;
+  private volatile String requestId;
+  private boolean showDateTime;
+  private boolean showLogName;
+  private boolean showShortLogName;
+  private boolean showThreadId;
+  private boolean showThreadName;
+  private long startTime;
+  private int structuredArgumentDepth;
+  private int structuredArgumentSize;
 
   /**
    * AWS Lambda Logger Factory.
@@ -138,19 +248,24 @@ public class AWSLambdaLoggerFactory implements ILoggerFactory {
   @VisibleForTesting
   AWSLambdaLoggerFactory(String configurationFile) {
     loggers = new ConcurrentHashMap<>();
-    properties = loadProperties(configurationFile);
-    dateTimeFormat = getDateTimeFormat();
-    // logLevelSeparator and markerSeparator should be resolved before defaultLoggerLevel
-    logLevelSeparator = getStringProperty(AWSLambdaLoggerConfigurationProperty.LogLevelSeparator);
-    markerSeparator = getStringProperty(AWSLambdaLoggerConfigurationProperty.MarkerSeparator);
-    defaultLoggerLevel = getLoggerLevelProperty();
-    levelInBrackets = getBooleanProperty(AWSLambdaLoggerConfigurationProperty.LevelInBrackets);
-    requestId = getStringProperty(AWSLambdaLoggerConfigurationProperty.RequestId);
-    showDateTime = getBooleanProperty(AWSLambdaLoggerConfigurationProperty.ShowDateTime);
-    showLogName = getBooleanProperty(AWSLambdaLoggerConfigurationProperty.ShowLogName);
-    showShortLogName = getBooleanProperty(AWSLambdaLoggerConfigurationProperty.ShowShortLogName);
-    showThreadId = getBooleanProperty(AWSLambdaLoggerConfigurationProperty.ShowThreadId);
-    showThreadName = getBooleanProperty(AWSLambdaLoggerConfigurationProperty.ShowThreadName);
+    runtimeFilters = new CopyOnWriteArrayList<>();
+    runtimeLoggerLevels = new ConcurrentHashMap<>();
+    resourceProperties = loadProperties(configurationFile);
+    properties = resourceProperties;
+    this.configurationFile = getConfigurationFile();
+    if (nonNull(this.configurationFile)) {
+      var fileProperties = this.configurationFile.loadIfModified(resourceProperties);
+
+      if (nonNull(fileProperties)) {
+        properties = fileProperties;
+      }
+    }
+    configure(properties);
+    startTime = System.currentTimeMillis();
+    buffer = getBuffer();
+    // the global context keeps weak references
+    resource = new AWSLambdaLoggerResource(this);
+    Core.getGlobalContext().register(resource);
   }
 
   @VisibleForTesting
@@ -171,20 +286,53 @@ public class AWSLambdaLoggerFactory implements ILoggerFactory {
     }
   }
 
+  /**
+   * Add a filter to the end of the chain, existing loggers get it at once.
+   * <p>
+   * Filters added at run time go after the built-in ones and survive reloading of
+   * the configuration file.
+   *
+   * @param filter filter
+   * @see AWSLambdaLoggerFilter
+   */
+  public synchronized void addFilter(@NotNull AWSLambdaLoggerFilter filter) {
+    runtimeFilters.add(filter);
+    updateFilter();
+  }
+
+  /**
+   * Check the configuration file and reconfigure all loggers if the file has been changed.
+   * <p>
+   * It is called on invocation boundaries when the AWS request ID is put to MDC, the file is not
+   * checked more often than <strong>configurationCheckInterval</strong>. Does nothing if
+   * <strong>configurationFile</strong> is not set.
+   *
+   * @see AWSLambdaLoggerConfigurationProperty#ConfigurationFile
+   */
+  public void checkConfiguration() {
+    if (isNull(configurationFile)) {
+      return;
+    }
+
+    var fileProperties = configurationFile.loadIfModified(resourceProperties);
+
+    if (nonNull(fileProperties)) {
+      reconfigure(fileProperties);
+    }
+  }
+
   @Override
   public Logger getLogger(@NotNull String name) {
-    return loggers.computeIfAbsent(name, loggerName -> {
-      var configuration = AWSLambdaLoggerConfiguration.builder().name(loggerName)
-          .dateTimeFormat(dateTimeFormat).levelInBrackets(levelInBrackets).requestId(requestId)
-          .showDateTime(showDateTime).showLogName(showLogName).showShortLogName(showShortLogName)
-          .showThreadId(showThreadId).showThreadName(showThreadName);
-
-      for (AWSLambdaLoggerLevel loggerLevel : getLoggerLevels(name)) {
-        configuration.loggerLevel(loggerLevel.getLevel(), loggerLevel.getMarkers());
+    var logger = loggers.get(name);
+
+    if (isNull(logger)) {
+      synchronized (this) {
+        logger = loggers.computeIfAbsent(name,
+            loggerName -> new AWSLambdaLogger(getConfiguration(loggerName), getLoggerOutput()));
       }
+    }
 
-      return new AWSLambdaLogger(configuration.build(), getOutput());
-    });
+    return logger;
   }
 
   @VisibleForTesting
@@ -192,10 +340,239 @@ public class AWSLambdaLoggerFactory implements ILoggerFactory {
     return getOutputServiceProvider();
   }
 
+  /**
+   * Remove a filter that has been added at run time.
+   *
+   * @param filter filter
+   */
+  public synchronized void removeFilter(@NotNull AWSLambdaLoggerFilter filter) {
+    runtimeFilters.remove(filter);
+    updateFilter();
+  }
+
+  /**
+   * Change the log level of a logger or of a group of loggers at run time.
+   * <p>
+   * The name is a logger name or its prefix, e.g. {@code org.example} changes levels of
+   * {@code org.example}, {@code org.example.Service}, {@code org.example.dao.Repository} and so
+   * on. The root logger name {@value Logger#ROOT_LOGGER_NAME} changes levels of all loggers. A
+   * level set for a longer name takes precedence.
+   * <p>
+   * The level set at run time overrides properties and environment variables, and survives
+   * reloading of the configuration file. Existing loggers get the new configuration at once.
+   *
+   * @param name  logger name or prefix
+   * @param level new logger level, {@code null} to remove the level set at run time
+   */
+  public synchronized void setLevel(@NotNull String name, @Nullable Level level) {
+    if (isNull(level)) {
+      runtimeLoggerLevels.remove(name);
+    } else {
+      runtimeLoggerLevels.put(name, List.of(AWSLambdaLoggerLevel.builder().level(level).build()));
+    }
+    loggers.forEach((loggerName, logger) -> {
+      if (isDescendant(loggerName, name)) {
+        logger.setConfiguration(getConfiguration(loggerName));
+      }
+    });
+  }
+
+  /**
+   * Write log entries kept in the init phase as one batch, and stop buffering.
+   * <p>
+   * It is called when the AWS request ID is put to MDC and before the SnapStart snapshot. Does
+   * nothing if <strong>initBuffering</strong> is not set.
+   *
+   * @see AWSLambdaLoggerConfigurationProperty#InitBuffering
+   */
+  public void flush() {
+    if (nonNull(buffer)) {
+      buffer.flush();
+    }
+  }
+
+  /**
+   * Warm up logging hot paths without writing anything to the log.
+   * <p>
+   * Events of all levels, with arguments, markers, key-value pairs and a throwable go through
+   * a logger and the output with the current settings, e.g. the date-time format, so classes are
+   * loaded and the code is compiled. The output builds log entries and discards them.
+   * <p>
+   * It is called before the SnapStart snapshot is taken. Without SnapStart, call it in the init
+   * phase, e.g. from a static initializer of the handler.
+   *
+   * @see AWSLambdaLoggerOutput#prime(AWSLambdaLoggerConfiguration, org.slf4j.Marker, Level, String,
+   * List, Throwable)
+   */
+  public void prime() {
+    prime(PRIMING_ITERATIONS);
+  }
+
+  @VisibleForTesting
+  void prime(int iterations) {
+    AWSLambdaLoggerConfiguration configuration;
+
+    synchronized (this) {
+      // primed entries must not get to the buffer
+      configuration = getConfigurationBuilder(PRIMING_LOGGER_NAME).buffer(null)
+          .loggerLevel(Level.TRACE).build();
+    }
+
+    // nor to the buffer of an invocation
+    var context = AWSLambdaRequestContext.swap(null);
+
+    try {
+      new AWSLambdaLoggerPrimer(getLoggerOutput()).prime(configuration, iterations);
+    } finally {
+      AWSLambdaRequestContext.swap(context);
+    }
+  }
+
+  /**
+   * Reset the time base and reconfigure all loggers after the execution environment has been
+   * restored from a snapshot.
+   * <p>
+   * Environment variables, the configuration file and the date-time format are read again, levels
+   * set at run time are kept.
+   */
+  synchronized void restore() {
+    var properties = resourceProperties;
+
+    if (nonNull(configurationFile)) {
+      configurationFile.reset();
+
+      var fileProperties = configurationFile.loadIfModified(resourceProperties);
+
+      if (nonNull(fileProperties)) {
+        properties = fileProperties;
+      }
+    }
+    startTime = System.currentTimeMillis();
+    reconfigure(properties);
+  }
+
+  @VisibleForTesting
+  AWSLambdaLoggerResource getResource() {
+    return resource;
+  }
+
+  boolean isInvocationBuffering() {
+    return invocationBuffering;
+  }
+
+  boolean isRequestIdKey(String key) {
+    return requestId.equals(key);
+  }
+
+  private void configure(Properties properties) {
+    this.properties = properties;
+    showDateTime = getBooleanProperty(AWSLambdaLoggerConfigurationProperty.ShowDateTime);
+    // SimpleDateFormat is expensive to build, the relative time does not need it
+    dateTimeFormat = (showDateTime) ? getDateTimeFormat() : null;
+    // logLevelSeparator and markerSeparator should be resolved before defaultLoggerLevel
+    logLevelSeparator = getStringProperty(AWSLambdaLoggerConfigurationProperty.LogLevelSeparator);
+    markerSeparator = getStringProperty(AWSLambdaLoggerConfigurationProperty.MarkerSeparator);
+    defaultLoggerLevel = getLoggerLevelProperty();
+    filter = getFilter();
+    formattedMessageThreshold = getFormattedMessageThreshold();
+    invocationBuffering = getBooleanProperty(
+        AWSLambdaLoggerConfigurationProperty.InvocationBuffering);
+    levelInBrackets = getBooleanProperty(AWSLambdaLoggerConfigurationProperty.LevelInBrackets);
+    masker = AWSLambdaMasker.compile(
+        getStringProperty(AWSLambdaLoggerConfigurationProperty.Masking));
+    messageTemplate = getBooleanProperty(AWSLambdaLoggerConfigurationProperty.MessageTemplate);
+    requestId = getStringProperty(AWSLambdaLoggerConfigurationProperty.RequestId);
+    showLogName = getBooleanProperty(AWSLambdaLoggerConfigurationProperty.ShowLogName);
+    showShortLogName = getBooleanProperty(AWSLambdaLoggerConfigurationProperty.ShowShortLogName);
+    showThreadId = getBooleanProperty(AWSLambdaLoggerConfigurationProperty.ShowThreadId);
+    showThreadName = getBooleanProperty(AWSLambdaLoggerConfigurationProperty.ShowThreadName);
+    // the depth is zero if arguments are not structured
+    structuredArgumentDepth = getBooleanProperty(
+        AWSLambdaLoggerConfigurationProperty.StructuredArguments) ? getPositiveIntProperty(
+        AWSLambdaLoggerConfigurationProperty.StructuredArgumentDepth) : 0;
+    structuredArgumentSize = getPositiveIntProperty(
+        AWSLambdaLoggerConfigurationProperty.StructuredArgumentSize);
+  }
+
+  private synchronized void reconfigure(Properties properties) {
+    configure(properties);
+    loggers.forEach((name, logger) -> logger.setConfiguration(getConfiguration(name)));
+  }
+
+  private AWSLambdaLoggerConfiguration getConfiguration(String loggerName) {
+    var configuration = getConfigurationBuilder(loggerName);
+
+    for (AWSLambdaLoggerLevel loggerLevel : getLoggerLevels(loggerName)) {
+      configuration.loggerLevel(loggerLevel.getLevel(), loggerLevel.getMarkers());
+    }
+
+    return configuration.build();
+  }
+
+  private synchronized AWSLambdaLoggerOutput getLoggerOutput() {
+    if (isNull(loggerOutput)) {
+      loggerOutput = new AWSLambdaLoggerDeferredOutput(this::getOutput);
+    }
+
+    return loggerOutput;
+  }
+
+  private AWSLambdaLoggerConfiguration.Builder getConfigurationBuilder(String loggerName) {
+    return AWSLambdaLoggerConfiguration.builder().name(loggerName).buffer(buffer)
+        .dateTimeFormat(dateTimeFormat).filter(filter)
+        .formattedMessageThreshold(formattedMessageThreshold)
+        .levelInBrackets(levelInBrackets).masker(masker).messageTemplate(messageTemplate)
+        .requestId(requestId)
+        .showDateTime(showDateTime).showLogName(showLogName).showShortLogName(showShortLogName)
+        .showThreadId(showThreadId).showThreadName(showThreadName).startTime(startTime)
+        .structuredArgumentDepth(structuredArgumentDepth)
+        .structuredArgumentSize(structuredArgumentSize);
+  }
+
   private boolean getBooleanProperty(AWSLambdaLoggerConfigurationProperty configurationProperty) {
     return Boolean.parseBoolean(getStringProperty(configurationProperty));
   }
 
+  private AWSLambdaLoggerBuffer getBuffer() {
+    if (!getBooleanProperty(AWSLambdaLoggerConfigurationProperty.InitBuffering)) {
+      return null;
+    }
+
+    var buffer = new AWSLambdaLoggerBuffer();
+
+    // write entries of a failed init
+    Runtime.getRuntime().addShutdownHook(new Thread(buffer::flush, "lambda-logger-buffer"));
+
+    return buffer;
+  }
+
+  private AWSLambdaLoggerConfigurationFile getConfigurationFile() {
+    var fileName = getStringProperty(AWSLambdaLoggerConfigurationProperty.ConfigurationFile);
+
+    if (isNull(fileName)) {
+      return null;
+    }
+
+    var checkIntervalProperty = AWSLambdaLoggerConfigurationProperty.ConfigurationCheckInterval;
+    var checkInterval = Long.parseLong(checkIntervalProperty.defaultValue);
+
+    try {
+      checkInterval = Long.parseLong(getStringProperty(checkIntervalProperty));
+    } catch (NumberFormatException exception) {
+      Reporter.warn("Bad configuration check interval, will check every " + checkInterval
+          + " seconds");
+    }
+
+    try {
+      return new AWSLambdaLoggerConfigurationFile(Path.of(fileName),
+          Duration.ofSeconds(checkInterval));
+    } catch (InvalidPathException exception) {
+      Reporter.warn("Bad configuration file path " + fileName);
+    }
+
+    return null;
+  }
+
   private DateFormat getDateTimeFormat() {
     var dateTimeFormatString = getStringProperty(
         AWSLambdaLoggerConfigurationProperty.DateTimeFormat);
@@ -212,6 +589,43 @@ public class AWSLambdaLoggerFactory implements ILoggerFactory {
     return null;
   }
 
+  private AWSLambdaLoggerFilter getFilter() {
+    var filters = new ArrayList<AWSLambdaLoggerFilter>();
+    var formatFilter = AWSLambdaFormatFilter.of(
+        getStringProperty(AWSLambdaLoggerConfigurationProperty.FilterAllow),
+        getStringProperty(AWSLambdaLoggerConfigurationProperty.FilterDeny));
+    var mdcThresholdFilter = AWSLambdaMDCThresholdFilter.of(
+        getStringProperty(AWSLambdaLoggerConfigurationProperty.FilterMDCThreshold));
+
+    if (nonNull(formatFilter)) {
+      filters.add(formatFilter);
+    }
+    if (nonNull(mdcThresholdFilter)) {
+      filters.add(mdcThresholdFilter);
+    }
+    filters.addAll(runtimeFilters);
+
+    return AWSLambdaLoggerFilterChain.of(filters);
+  }
+
+  private int getFormattedMessageThreshold() {
+    var formattedMessage = getStringProperty(
+        AWSLambdaLoggerConfigurationProperty.FormattedMessage);
+
+    switch (formattedMessage.toLowerCase()) {
+      case "always":
+        return Level.TRACE.toInt();
+      case "never":
+        return Integer.MAX_VALUE;
+      case "warn":
+        return Level.WARN.toInt();
+      default:
+        Reporter.warn("Bad formatted message option " + formattedMessage
+            + ", the message is always formatted");
+        return Level.TRACE.toInt();
+    }
+  }
+
   private List<AWSLambdaLoggerLevel> getLoggerLevelProperty() {
     var defaultLogLevelProperty = AWSLambdaLoggerConfigurationProperty.DefaultLogLevel;
     var value = System.getenv(defaultLogLevelProperty.variableName);
@@ -241,6 +655,12 @@ public class AWSLambdaLoggerFactory implements ILoggerFactory {
   }
 
   private List<AWSLambdaLoggerLevel> getLoggerLevels(String loggerName) {
+    var runtimeLoggerLevel = getRuntimeLoggerLevel(loggerName);
+
+    if (nonNull(runtimeLoggerLevel)) {
+      return runtimeLoggerLevel;
+    }
+
     var name = loggerName;
     int indexOfLastDot = name.length();
     String loggerLevelString = null;
@@ -268,6 +688,45 @@ public class AWSLambdaLoggerFactory implements ILoggerFactory {
     return loggerLevels;
   }
 
+  private int getPositiveIntProperty(AWSLambdaLoggerConfigurationProperty configurationProperty) {
+    var defaultValue = Integer.parseInt(configurationProperty.defaultValue);
+
+    try {
+      var value = Integer.parseInt(getStringProperty(configurationProperty));
+
+      if (value > 0) {
+        return value;
+      }
+    } catch (NumberFormatException exception) {
+      // ignored
+    }
+    Reporter.warn("Bad value of " + configurationProperty.propertyName + ", will use "
+        + defaultValue);
+
+    return defaultValue;
+  }
+
+  private List<AWSLambdaLoggerLevel> getRuntimeLoggerLevel(String loggerName) {
+    if (runtimeLoggerLevels.isEmpty()) {
+      return null;
+    }
+
+    var name = loggerName;
+    int indexOfLastDot = name.length();
+    List<AWSLambdaLoggerLevel> loggerLevels = null;
+
+    while (isNull(loggerLevels) && indexOfLastDot > -1) {
+      name = name.substring(0, indexOfLastDot);
+      loggerLevels = runtimeLoggerLevels.get(name);
+      indexOfLastDot = name.lastIndexOf(DOT);
+    }
+    if (isNull(loggerLevels)) {
+      loggerLevels = runtimeLoggerLevels.get(Logger.ROOT_LOGGER_NAME);
+    }
+
+    return loggerLevels;
+  }
+
   private String getStringProperty(AWSLambdaLoggerConfigurationProperty configurationProperty) {
     String value = System.getenv(configurationProperty.variableName);
 
@@ -301,6 +760,11 @@ public class AWSLambdaLoggerFactory implements ILoggerFactory {
     return properties;
   }
 
+  private boolean isDescendant(String loggerName, String name) {
+    return Logger.ROOT_LOGGER_NAME.equals(name) || loggerName.equals(name) || (
+        loggerName.startsWith(name) && loggerName.charAt(name.length()) == DOT);
+  }
+
   private Properties loadProperties(String configurationFile) {
     var properties = new Properties();
 
@@ -335,4 +799,9 @@ public class AWSLambdaLoggerFactory implements ILoggerFactory {
     return loggerLevels;
   }
 
+  private void updateFilter() {
+    filter = getFilter();
+    loggers.forEach((name, logger) -> logger.setConfiguration(getConfiguration(name)));
+  }
+
 }
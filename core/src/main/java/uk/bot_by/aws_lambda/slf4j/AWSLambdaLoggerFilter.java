@@ -0,0 +1,81 @@
+/*
+ * Copyright 2022-2024 Vitalij Berdinskih
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *	   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.bot_by.aws_lambda.slf4j;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.Marker;
+import org.slf4j.event.Level;
+
+/**
+ * A filter that decides on an event before its message is formatted.
+ * <p>
+ * Filters are chained: the first decision that is not {@link Decision#NEUTRAL neutral} wins, an
+ * event is logged if all filters are neutral. The chain runs after the level and marker rules have
+ * enabled the event, so a disabled level does not pay for it, and a rejected event is neither
+ * formatted nor encoded.
+ * <p>
+ * The built-in filters are set by properties, see
+ * {@link AWSLambdaLoggerConfigurationProperty#FilterAllow},
+ * {@link AWSLambdaLoggerConfigurationProperty#FilterDeny} and
+ * {@link AWSLambdaLoggerConfigurationProperty#FilterMDCThreshold}. Custom filters are added
+ * by {@link AWSLambdaLoggerFactory#addFilter(AWSLambdaLoggerFilter)}. A filter is called
+ * on every enabled event, it should be fast and thread-safe.
+ */
+@FunctionalInterface
+public interface AWSLambdaLoggerFilter {
+
+  /**
+   * Decide on an event.
+   * <p>
+   * Arguments are raw: suppliers are not resolved yet, the throwable candidate is the last one.
+   * They are {@code null} if there are no arguments, or they are primitive, see
+   * {@link AWSLambdaPrimitiveLogger}. The format of a fluent event is {@code null} if it is set by
+   * a supplier, the supplier is called only if the event is logged.
+   *
+   * @param logger    logger
+   * @param level     logging level
+   * @param marker    logging marker, the first one of a fluent event
+   * @param format    message or message pattern
+   * @param arguments raw arguments
+   * @return decision
+   */
+  @NotNull
+  Decision decide(@NotNull Logger logger, @NotNull Level level, @Nullable Marker marker,
+      @Nullable String format, @Nullable Object[] arguments);
+
+  /**
+   * The decision of a filter.
+   */
+  enum Decision {
+
+    /**
+     * Log the event, the rest of the chain is skipped.
+     */
+    ACCEPT,
+    /**
+     * Reject the event.
+     */
+    DENY,
+    /**
+     * Let the next filter decide.
+     */
+    NEUTRAL
+
+  }
+
+}
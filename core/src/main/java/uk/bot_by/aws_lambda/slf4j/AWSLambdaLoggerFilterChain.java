@@ -0,0 +1,68 @@
+/*
+ * Copyright 2022-2024 Vitalij Berdinskih
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *	   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.bot_by.aws_lambda.slf4j;
+
+import java.util.List;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.Marker;
+import org.slf4j.event.Level;
+
+/**
+ * Filters in order, the first decision that is not neutral wins.
+ */
+final class AWSLambdaLoggerFilterChain implements AWSLambdaLoggerFilter {
+
+  private final AWSLambdaLoggerFilter[] filters;
+
+  private AWSLambdaLoggerFilterChain(AWSLambdaLoggerFilter[] filters) {
+    this.filters = filters;
+  }
+
+  /**
+   * Chain filters.
+   *
+   * @param filters filters in order
+   * @return the chain, the filter itself if it is alone, or {@code null} if there are no filters
+   */
+  @Nullable
+  static AWSLambdaLoggerFilter of(@NotNull List<AWSLambdaLoggerFilter> filters) {
+    switch (filters.size()) {
+      case 0:
+        return null;
+      case 1:
+        return filters.get(0);
+      default:
+        return new AWSLambdaLoggerFilterChain(filters.toArray(AWSLambdaLoggerFilter[]::new));
+    }
+  }
+
+  @Override
+  public @NotNull Decision decide(@NotNull Logger logger, @NotNull Level level,
+      @Nullable Marker marker, @Nullable String format, @Nullable Object[] arguments) {
+    for (AWSLambdaLoggerFilter filter : filters) {
+      var decision = filter.decide(logger, level, marker, format, arguments);
+
+      if (decision != Decision.NEUTRAL) {
+        return decision;
+      }
+    }
+
+    return Decision.NEUTRAL;
+  }
+
+}
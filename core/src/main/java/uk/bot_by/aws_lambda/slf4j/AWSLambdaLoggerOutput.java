@@ -15,16 +15,91 @@
  */
 package uk.bot_by.aws_lambda.slf4j;
 
+import static java.util.Objects.isNull;
+import static java.util.Objects.nonNull;
+
+import java.util.List;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 import org.slf4j.Marker;
+import org.slf4j.event.KeyValuePair;
 import org.slf4j.event.Level;
+import org.slf4j.event.LoggingEvent;
 
 /**
  * The logger output.
  */
 public interface AWSLambdaLoggerOutput {
 
+  /**
+   * Write an event of the fluent API to the log.
+   * <p>
+   * The event has already passed the level and marker checks. The default implementation formats
+   * the message and writes it with the first marker by
+   * {@link #log(AWSLambdaLoggerConfiguration, Marker, Level, String, List, Throwable)}, or passes
+   * the pattern and arguments to
+   * {@link #logTemplate(AWSLambdaLoggerConfiguration, Marker, Level, String, Object[], int, List,
+   * Throwable)} if message templates are enabled and the pattern has placeholders.
+   *
+   * @param configuration logging configuration
+   * @param event         logging event
+   */
+  default void log(@NotNull AWSLambdaLoggerConfiguration configuration,
+      @NotNull LoggingEvent event) {
+    var arguments = event.getArgumentArray();
+    var count = isNull(arguments) ? 0 : arguments.length;
+    var throwable = event.getThrowable();
+
+    if (isNull(throwable)) {
+      throwable = AWSLambdaMessageFormatter.getThrowableCandidate(arguments);
+      if (nonNull(throwable)) {
+        count--;
+      }
+    }
+    var message = event.getMessage();
+
+    if (configuration.messageTemplate()) {
+      var placeholders = AWSLambdaMessageTemplate.argumentCount(message, count);
+
+      if (placeholders > 0) {
+        logTemplate(configuration, firstMarker(event.getMarkers()), event.getLevel(), message,
+            arguments, placeholders, event.getKeyValuePairs(), throwable);
+        return;
+      }
+    }
+    log(configuration, firstMarker(event.getMarkers()), event.getLevel(),
+        AWSLambdaMessageFormatter.format(message, arguments, count), event.getKeyValuePairs(),
+        throwable);
+  }
+
+  /**
+   * Write a message with key-value pairs to the log.
+   * <p>
+   * The default implementation puts key-value pairs in front of the message like SLF4J does for
+   * loggers without the fluent API, and writes it by
+   * {@link #log(AWSLambdaLoggerConfiguration, Marker, Level, String, Throwable)}.
+   *
+   * @param configuration logging configuration
+   * @param marker        logging marker
+   * @param level         logging level
+   * @param message       logging message
+   * @param keyValuePairs key-value pairs
+   * @param throwable     exception
+   */
+  default void log(@NotNull AWSLambdaLoggerConfiguration configuration, @Nullable Marker marker,
+      @NotNull Level level, @NotNull String message, @Nullable List<KeyValuePair> keyValuePairs,
+      @Nullable Throwable throwable) {
+    if (nonNull(keyValuePairs) && !keyValuePairs.isEmpty()) {
+      var builder = new StringBuilder();
+
+      for (KeyValuePair keyValuePair : keyValuePairs) {
+        builder.append(keyValuePair.key).append('=').append(keyValuePair.value).append(' ');
+      }
+      message = builder.append(message).toString();
+    }
+    log(configuration, marker, level, message, throwable);
+  }
+
   /**
    * Write a message to the log.
    *
@@ -37,4 +112,55 @@ public interface AWSLambdaLoggerOutput {
   void log(@NotNull AWSLambdaLoggerConfiguration configuration, @Nullable Marker marker,
       @NotNull Level level, @NotNull String message, @Nullable Throwable throwable);
 
+  /**
+   * Write a message pattern with its arguments to the log.
+   * <p>
+   * It is called instead of formatting the message if message templates are enabled, see
+   * {@link AWSLambdaLoggerConfiguration#messageTemplate()}. The default implementation formats
+   * the message and writes it by
+   * {@link #log(AWSLambdaLoggerConfiguration, Marker, Level, String, List, Throwable)}.
+   *
+   * @param configuration logging configuration
+   * @param marker        logging marker
+   * @param level         logging level
+   * @param pattern       message pattern
+   * @param arguments     arguments
+   * @param count         number of arguments to format, the throwable is not counted
+   * @param keyValuePairs key-value pairs
+   * @param throwable     exception
+   */
+  default void logTemplate(@NotNull AWSLambdaLoggerConfiguration configuration,
+      @Nullable Marker marker, @NotNull Level level, @NotNull String pattern,
+      @NotNull Object[] arguments, int count, @Nullable List<KeyValuePair> keyValuePairs,
+      @Nullable Throwable throwable) {
+    log(configuration, marker, level, AWSLambdaMessageFormatter.format(pattern, arguments, count),
+        keyValuePairs, throwable);
+  }
+
+  /**
+   * Build a log entry like {@link #log(AWSLambdaLoggerConfiguration, Marker, Level, String, List,
+   * Throwable)} does, and discard it.
+   * <p>
+   * It is used to warm up the output before the SnapStart snapshot, so it must not write anything
+   * to the log. The default implementation does nothing.
+   *
+   * @param configuration logging configuration
+   * @param marker        logging marker
+   * @param level         logging level
+   * @param message       logging message
+   * @param keyValuePairs key-value pairs
+   * @param throwable     exception
+   * @see AWSLambdaLoggerFactory#prime()
+   */
+  default void prime(@NotNull AWSLambdaLoggerConfiguration configuration, @Nullable Marker marker,
+      @NotNull Level level, @NotNull String message, @Nullable List<KeyValuePair> keyValuePairs,
+      @Nullable Throwable throwable) {
+    // nothing to do
+  }
+
+  @Nullable
+  private static Marker firstMarker(@Nullable List<Marker> markers) {
+    return (isNull(markers) || markers.isEmpty()) ? null : markers.get(0);
+  }
+
 }
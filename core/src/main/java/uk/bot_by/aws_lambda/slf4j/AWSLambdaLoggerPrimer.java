@@ -0,0 +1,81 @@
+/*
+ * Copyright 2022-2024 Vitalij Berdinskih
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *	   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.bot_by.aws_lambda.slf4j;
+
+import java.util.List;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.slf4j.Marker;
+import org.slf4j.event.KeyValuePair;
+import org.slf4j.event.Level;
+import org.slf4j.helpers.BasicMarkerFactory;
+
+/**
+ * Warms up logging hot paths before the
+ * <a href="https://docs.aws.amazon.com/lambda/latest/dg/snapstart.html">SnapStart</a> snapshot.
+ * <p>
+ * The primer logs all kinds of events: with arguments, markers, lazy arguments, key-value pairs and
+ * a throwable, so the logger, the message formatter and the output load their classes and get
+ * compiled. Events go to {@link AWSLambdaLoggerOutput#prime(AWSLambdaLoggerConfiguration, Marker,
+ * Level, String, List, Throwable)} of the output, nothing is written to the log.
+ */
+class AWSLambdaLoggerPrimer implements AWSLambdaLoggerOutput {
+
+  private static final String ARGUMENT = "argument";
+  private static final String KEY = "key";
+  private static final Marker MARKER = new BasicMarkerFactory().getMarker("priming");
+  private static final Throwable THROWABLE = new Throwable("priming");
+
+  private final AWSLambdaLoggerOutput output;
+
+  AWSLambdaLoggerPrimer(@NotNull AWSLambdaLoggerOutput output) {
+    this.output = output;
+  }
+
+  /**
+   * Log events a number of times.
+   *
+   * @param configuration logging configuration, all levels should be enabled
+   * @param iterations    how many times every kind of event is logged
+   */
+  void prime(@NotNull AWSLambdaLoggerConfiguration configuration, int iterations) {
+    var logger = new AWSLambdaLogger(configuration, this);
+
+    for (int i = 0; i < iterations; i++) {
+      logger.trace("priming");
+      logger.debug("priming {}", i);
+      logger.info("priming {} {}", ARGUMENT, i);
+      logger.info(MARKER, "priming {} {} {}", ARGUMENT, i, true);
+      logger.warnLazy("priming {}", () -> ARGUMENT);
+      logger.error("priming", THROWABLE);
+      logger.atInfo().addKeyValue(KEY, i).log("priming {}", ARGUMENT);
+    }
+  }
+
+  @Override
+  public void log(@NotNull AWSLambdaLoggerConfiguration configuration, @Nullable Marker marker,
+      @NotNull Level level, @NotNull String message, @Nullable List<KeyValuePair> keyValuePairs,
+      @Nullable Throwable throwable) {
+    output.prime(configuration, marker, level, message, keyValuePairs, throwable);
+  }
+
+  @Override
+  public void log(@NotNull AWSLambdaLoggerConfiguration configuration, @Nullable Marker marker,
+      @NotNull Level level, @NotNull String message, @Nullable Throwable throwable) {
+    output.prime(configuration, marker, level, message, null, throwable);
+  }
+
+}
@@ -0,0 +1,49 @@
+/*
+ * Copyright 2022-2024 Vitalij Berdinskih
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *	   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.bot_by.aws_lambda.slf4j;
+
+import org.crac.Context;
+import org.crac.Resource;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * The <a href="https://docs.aws.amazon.com/lambda/latest/dg/snapstart.html">SnapStart</a> and
+ * <a href="https://crac.org/">CRaC</a> hooks of the logger factory.
+ * <p>
+ * The execution environment could be restored from a snapshot long after it was created, maybe on
+ * another host, so the factory resets the time base and reconfigures loggers after restore. Before
+ * checkpoint, the factory warms logging hot paths up and writes log entries of the init phase.
+ */
+class AWSLambdaLoggerResource implements Resource {
+
+  private final AWSLambdaLoggerFactory loggerFactory;
+
+  AWSLambdaLoggerResource(@NotNull AWSLambdaLoggerFactory loggerFactory) {
+    this.loggerFactory = loggerFactory;
+  }
+
+  @Override
+  public void beforeCheckpoint(Context<? extends Resource> context) {
+    loggerFactory.prime();
+    loggerFactory.flush();
+  }
+
+  @Override
+  public void afterRestore(Context<? extends Resource> context) {
+    loggerFactory.restore();
+  }
+
+}
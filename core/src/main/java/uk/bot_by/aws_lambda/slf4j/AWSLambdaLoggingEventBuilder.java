@@ -0,0 +1,309 @@
+/*
+ * Copyright 2022-2024 Vitalij Berdinskih
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *	   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.bot_by.aws_lambda.slf4j;
+
+import static java.util.Objects.isNull;
+import static java.util.Objects.nonNull;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Supplier;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.VisibleForTesting;
+import org.slf4j.Marker;
+import org.slf4j.event.KeyValuePair;
+import org.slf4j.event.Level;
+import org.slf4j.event.LoggingEvent;
+import org.slf4j.spi.CallerBoundaryAware;
+import org.slf4j.spi.LoggingEventBuilder;
+
+/**
+ * The reusable builder of logging events, it is the event itself too.
+ * <p>
+ * Each thread has its own builder that is reset and reused for every event, so the fluent API does
+ * not allocate a builder and an event per call. If the builder is still in use, e.g. an argument's
+ * {@code toString()} logs something else, or it was abandoned without {@link #log()}, a new builder
+ * replaces it as the thread's one. The busy builder is not reused anymore, so an abandoned one is
+ * dropped and costs one allocation only.
+ * <p>
+ * The level check and filters consider all markers of the event, but the output gets the first
+ * one only: like the classic {@code Logger} methods, the output writes one marker with its
+ * references. Add other markers as references of the first one to have them written.
+ * <p>
+ * Argument and value suppliers are called when the output asks for arguments and key-value pairs,
+ * i.e. after the level and marker checks have passed. The event is logged synchronously, so the
+ * timestamp and the thread name are taken when the output asks for them too. Like any SLF4J
+ * builder, it must not be kept and used after {@link #log()}.
+ */
+class AWSLambdaLoggingEventBuilder implements LoggingEventBuilder, LoggingEvent,
+    CallerBoundaryAware {
+
+  private static final ThreadLocal<AWSLambdaLoggingEventBuilder> builders = ThreadLocal.withInitial(
+      AWSLambdaLoggingEventBuilder::new);
+
+  private final List<Object> arguments = new ArrayList<>();
+  private final List<KeyValuePair> keyValuePairs = new ArrayList<>();
+  private final List<Marker> markers = new ArrayList<>();
+
+  private Object[] argumentArray;
+  private String callerBoundary;
+  private boolean inUse;
+  private Level level;
+  private AWSLambdaLogger logger;
+  private String message;
+  private Supplier<String> messageSupplier;
+  private Throwable throwable;
+  private long timeStamp;
+
+  @VisibleForTesting
+  AWSLambdaLoggingEventBuilder() {
+  }
+
+  static AWSLambdaLoggingEventBuilder getBuilder(@NotNull AWSLambdaLogger logger,
+      @NotNull Level level) {
+    var builder = builders.get();
+
+    if (builder.inUse) {
+      builder = new AWSLambdaLoggingEventBuilder();
+      builders.set(builder);
+    }
+    builder.inUse = true;
+    builder.level = level;
+    builder.logger = logger;
+
+    return builder;
+  }
+
+  @Override
+  public LoggingEventBuilder setCause(Throwable cause) {
+    throwable = cause;
+    return this;
+  }
+
+  @Override
+  public LoggingEventBuilder addMarker(Marker marker) {
+    markers.add(marker);
+    return this;
+  }
+
+  @Override
+  public LoggingEventBuilder addArgument(Object argument) {
+    arguments.add(argument);
+    return this;
+  }
+
+  @Override
+  public LoggingEventBuilder addArgument(Supplier<?> argumentSupplier) {
+    arguments.add(argumentSupplier);
+    return this;
+  }
+
+  @Override
+  public LoggingEventBuilder addKeyValue(String key, Object value) {
+    keyValuePairs.add(new KeyValuePair(key, value));
+    return this;
+  }
+
+  @Override
+  public LoggingEventBuilder addKeyValue(String key, Supplier<Object> valueSupplier) {
+    keyValuePairs.add(new KeyValuePair(key, valueSupplier));
+    return this;
+  }
+
+  @Override
+  public LoggingEventBuilder setMessage(String message) {
+    this.message = message;
+    messageSupplier = null;
+    return this;
+  }
+
+  @Override
+  public LoggingEventBuilder setMessage(Supplier<String> messageSupplier) {
+    message = null;
+    this.messageSupplier = messageSupplier;
+    return this;
+  }
+
+  @Override
+  public void log() {
+    if (!inUse) {
+      return;
+    }
+    try {
+      logger.log(this);
+    } finally {
+      reset();
+    }
+  }
+
+  @Override
+  public void log(String message) {
+    setMessage(message);
+    log();
+  }
+
+  @Override
+  public void log(String message, Object argument) {
+    setMessage(message);
+    addArgument(argument);
+    log();
+  }
+
+  @Override
+  public void log(String message, Object argument1, Object argument2) {
+    setMessage(message);
+    addArgument(argument1);
+    addArgument(argument2);
+    log();
+  }
+
+  @Override
+  public void log(String message, Object... arguments) {
+    setMessage(message);
+    if (nonNull(arguments)) {
+      Collections.addAll(this.arguments, arguments);
+    }
+    log();
+  }
+
+  @Override
+  public void log(Supplier<String> messageSupplier) {
+    setMessage(messageSupplier);
+    log();
+  }
+
+  @Override
+  public Level getLevel() {
+    return level;
+  }
+
+  @Override
+  public String getLoggerName() {
+    return logger.getName();
+  }
+
+  @Override
+  public String getMessage() {
+    if (isNull(message) && nonNull(messageSupplier)) {
+      message = messageSupplier.get();
+    }
+    return message;
+  }
+
+  @Override
+  public List<Object> getArguments() {
+    resolveArguments();
+    return arguments;
+  }
+
+  @Override
+  public Object[] getArgumentArray() {
+    resolveArguments();
+    return getRawArguments();
+  }
+
+  @Override
+  public List<Marker> getMarkers() {
+    return markers;
+  }
+
+  @Override
+  public List<KeyValuePair> getKeyValuePairs() {
+    for (int i = 0; i < keyValuePairs.size(); i++) {
+      var keyValuePair = keyValuePairs.get(i);
+
+      if (keyValuePair.value instanceof Supplier) {
+        keyValuePairs.set(i,
+            new KeyValuePair(keyValuePair.key, ((Supplier<?>) keyValuePair.value).get()));
+      }
+    }
+    return keyValuePairs;
+  }
+
+  @Override
+  public Throwable getThrowable() {
+    return throwable;
+  }
+
+  @Override
+  public long getTimeStamp() {
+    if (timeStamp == 0) {
+      timeStamp = System.currentTimeMillis();
+    }
+    return timeStamp;
+  }
+
+  @Override
+  public String getThreadName() {
+    return Thread.currentThread().getName();
+  }
+
+  @Override
+  public String getCallerBoundary() {
+    return callerBoundary;
+  }
+
+  @Override
+  public void setCallerBoundary(String fqcn) {
+    callerBoundary = fqcn;
+  }
+
+  // the pattern and arguments without calling their suppliers, used by filters
+  String getPattern() {
+    return message;
+  }
+
+  // the filter and the output share one array, suppliers are replaced when it is resolved
+  Object[] getRawArguments() {
+    if (arguments.isEmpty()) {
+      return null;
+    }
+    if (isNull(argumentArray) || argumentArray.length != arguments.size()) {
+      argumentArray = new Object[arguments.size()];
+    }
+    return arguments.toArray(argumentArray);
+  }
+
+  @VisibleForTesting
+  boolean isInUse() {
+    return inUse;
+  }
+
+  private void resolveArguments() {
+    for (int i = 0; i < arguments.size(); i++) {
+      if (arguments.get(i) instanceof Supplier) {
+        arguments.set(i, ((Supplier<?>) arguments.get(i)).get());
+      }
+    }
+  }
+
+  private void reset() {
+    argumentArray = null;
+    arguments.clear();
+    callerBoundary = null;
+    keyValuePairs.clear();
+    level = null;
+    logger = null;
+    markers.clear();
+    message = null;
+    messageSupplier = null;
+    throwable = null;
+    timeStamp = 0;
+    inUse = false;
+  }
+
+}
@@ -0,0 +1,48 @@
+/*
+ * Copyright 2022-2024 Vitalij Berdinskih
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *	   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.bot_by.aws_lambda.slf4j;
+
+import static java.util.Objects.nonNull;
+
+import org.jetbrains.annotations.NotNull;
+import org.slf4j.helpers.BasicMDCAdapter;
+
+/**
+ * The {@link BasicMDCAdapter} that recognizes invocation boundaries.
+ * <p>
+ * A handler puts the AWS request ID to MDC at the start of each invocation, so that is the moment
+ * when the logger factory checks its configuration.
+ *
+ * @see AWSLambdaLoggerFactory#checkConfiguration()
+ */
+class AWSLambdaMDCAdapter extends BasicMDCAdapter {
+
+  private final AWSLambdaLoggerFactory loggerFactory;
+
+  AWSLambdaMDCAdapter(@NotNull AWSLambdaLoggerFactory loggerFactory) {
+    this.loggerFactory = loggerFactory;
+  }
+
+  @Override
+  public void put(String key, String value) {
+    super.put(key, value);
+    if (nonNull(key) && loggerFactory.isRequestIdKey(key)) {
+      loggerFactory.flush();
+      loggerFactory.checkConfiguration();
+    }
+  }
+
+}
@@ -0,0 +1,125 @@
+/*
+ * Copyright 2022-2024 Vitalij Berdinskih
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *	   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.bot_by.aws_lambda.slf4j;
+
+import static java.util.Objects.isNull;
+import static java.util.Objects.nonNull;
+
+import java.util.ArrayList;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.MDC;
+import org.slf4j.Marker;
+import org.slf4j.event.Level;
+import org.slf4j.helpers.Reporter;
+
+/**
+ * Rejects events below a threshold while a context field or an MDC value is set,
+ * e.g. {@code warn@source=healthcheck} keeps only warnings and errors of health checks.
+ * <p>
+ * A field of the bound {@link AWSLambdaRequestContext} takes precedence over MDC.
+ *
+ * @see AWSLambdaLoggerConfigurationProperty#FilterMDCThreshold
+ */
+final class AWSLambdaMDCThresholdFilter implements AWSLambdaLoggerFilter {
+
+  private static final char AT = '@';
+  private static final char EQUALS = '=';
+  private static final String RULE_SEPARATOR = ",";
+
+  private final String[] keys;
+  private final int[] thresholds;
+  private final String[] values;
+
+  private AWSLambdaMDCThresholdFilter(String[] keys, String[] values, int[] thresholds) {
+    this.keys = keys;
+    this.thresholds = thresholds;
+    this.values = values;
+  }
+
+  /**
+   * Parse rules.
+   *
+   * @param rules comma-separated rules <em>level@key=value</em>
+   * @return filter, or {@code null} if there are no valid rules
+   */
+  @Nullable
+  static AWSLambdaMDCThresholdFilter of(@Nullable String rules) {
+    if (isNull(rules)) {
+      return null;
+    }
+
+    var keys = new ArrayList<String>();
+    var thresholds = new ArrayList<Integer>();
+    var values = new ArrayList<String>();
+
+    for (String rule : rules.split(RULE_SEPARATOR)) {
+      var trimmedRule = rule.trim();
+      var at = trimmedRule.indexOf(AT);
+      var equals = trimmedRule.indexOf(EQUALS, at + 1);
+
+      if (trimmedRule.isEmpty()) {
+        continue;
+      }
+      if (at < 1 || equals < at + 2) {
+        Reporter.warn("Bad MDC threshold " + trimmedRule);
+        continue;
+      }
+      try {
+        thresholds.add(Level.valueOf(trimmedRule.substring(0, at).toUpperCase()).toInt());
+      } catch (IllegalArgumentException exception) {
+        Reporter.warn("Bad level of the MDC threshold " + trimmedRule);
+        continue;
+      }
+      keys.add(trimmedRule.substring(at + 1, equals));
+      values.add(trimmedRule.substring(equals + 1));
+    }
+    if (keys.isEmpty()) {
+      return null;
+    }
+
+    return new AWSLambdaMDCThresholdFilter(keys.toArray(String[]::new),
+        values.toArray(String[]::new), thresholds.stream().mapToInt(Integer::intValue).toArray());
+  }
+
+  private static String getValue(String key) {
+    var context = AWSLambdaRequestContext.current();
+
+    if (nonNull(context)) {
+      var value = context.fields().get(key);
+
+      if (nonNull(value)) {
+        return value;
+      }
+    }
+
+    return MDC.get(key);
+  }
+
+  @Override
+  public @NotNull Decision decide(@NotNull Logger logger, @NotNull Level level,
+      @Nullable Marker marker, @Nullable String format, @Nullable Object[] arguments) {
+    for (int i = 0; i < keys.length; i++) {
+      if (level.toInt() < thresholds[i] && values[i].equals(getValue(keys[i]))) {
+        return Decision.DENY;
+      }
+    }
+
+    return Decision.NEUTRAL;
+  }
+
+}
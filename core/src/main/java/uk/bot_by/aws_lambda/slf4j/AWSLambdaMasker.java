@@ -0,0 +1,413 @@
+/*
+ * Copyright 2022-2024 Vitalij Berdinskih
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *	   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.bot_by.aws_lambda.slf4j;
+
+import static java.util.Objects.isNull;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.TreeSet;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.slf4j.helpers.Reporter;
+
+/**
+ * Masks sensitive data of a log entry before it is written.
+ * <p>
+ * Rules are compiled once: all literals to one Aho-Corasick automaton with a dense table of
+ * transitions, card numbers and email addresses are recognized by the same pass over the entry.
+ * Characters are replaced by {@code *} in place, so the entry keeps its length, and an entry
+ * without sensitive data is only read.
+ * <p>
+ * Rules are separated by commas:
+ * <ul>
+ * <li>{@code card} - a payment card number, 13 to 19 digits that could be grouped by spaces
+ * or dashes, starts with 2-6 and passes the Luhn check. All digits but the last four
+ * are masked.</li>
+ * <li>{@code email} - the local part of an email address but its first character.</li>
+ * <li>{@code literal*} - the value after the literal up to a whitespace, a quote, a backslash
+ * or one of <code>,;&amp;&lt;&gt;)]}</code>, e.g. {@code password=*} or {@code Bearer *}.</li>
+ * <li>{@code literal} - the literal itself, e.g. a known secret.</li>
+ * </ul>
+ * Literals ignore the case of ASCII letters.
+ *
+ * @see AWSLambdaLoggerConfigurationProperty#Masking
+ */
+public final class AWSLambdaMasker {
+
+  private static final int ASCII = 128;
+  private static final String CARD = "card";
+  private static final String EMAIL = "email";
+  private static final char MASK = '*';
+  private static final int MAX_CARD_DIGITS = 19;
+  private static final int MIN_CARD_DIGITS = 13;
+  private static final String RULE_SEPARATOR = ",";
+  private static final int VISIBLE_CARD_DIGITS = 4;
+  private static final char WILDCARD = '*';
+
+  private final int[] asciiClasses;
+  private final boolean card;
+  private final int classCount;
+  private final boolean email;
+  // the length of the longest literal that ends in a state, zero if there is no one
+  private final int[] matchLengths;
+  private final boolean[] matchValues;
+  private final char[] otherCharacters;
+  private final int[] otherClasses;
+  private final int[] transitions;
+
+  private AWSLambdaMasker(boolean card, boolean email, List<String> literals,
+      List<Boolean> values) {
+    this.card = card;
+    this.email = email;
+
+    var alphabet = new TreeSet<Character>();
+
+    literals.forEach(literal -> literal.chars().forEach(character -> alphabet.add(
+        (char) character)));
+    // the class 0 is any character that is not in literals
+    asciiClasses = new int[ASCII];
+    classCount = alphabet.size() + 1;
+    otherCharacters = new char[alphabet.tailSet((char) ASCII).size()];
+    otherClasses = new int[otherCharacters.length];
+
+    var characterClass = 1;
+    var other = 0;
+
+    for (char character : alphabet) {
+      if (character < ASCII) {
+        asciiClasses[character] = characterClass;
+        asciiClasses[Character.toUpperCase(character)] = characterClass;
+      } else {
+        otherCharacters[other] = character;
+        otherClasses[other++] = characterClass;
+      }
+      characterClass++;
+    }
+
+    var lengths = new ArrayList<Integer>();
+    var rows = new ArrayList<int[]>();
+    var valueStates = new ArrayList<Boolean>();
+
+    addState(rows, classCount, lengths, valueStates);
+    for (int i = 0; i < literals.size(); i++) {
+      var literal = literals.get(i);
+      var state = 0;
+
+      for (int j = 0; j < literal.length(); j++) {
+        var next = rows.get(state)[classOf(literal.charAt(j))];
+
+        if (next == 0) {
+          next = addState(rows, classCount, lengths, valueStates);
+          rows.get(state)[classOf(literal.charAt(j))] = next;
+        }
+        state = next;
+      }
+      lengths.set(state, literal.length());
+      valueStates.set(state, valueStates.get(state) || values.get(i));
+    }
+    matchLengths = new int[rows.size()];
+    matchValues = new boolean[rows.size()];
+    transitions = new int[rows.size() * classCount];
+    buildTransitions(rows, lengths, valueStates);
+  }
+
+  /**
+   * Compile masking rules.
+   *
+   * @param rules comma-separated rules
+   * @return masker, or {@code null} if there are no rules
+   */
+  @Nullable
+  static AWSLambdaMasker compile(@Nullable String rules) {
+    if (isNull(rules)) {
+      return null;
+    }
+
+    var card = false;
+    var email = false;
+    var literals = new ArrayList<String>();
+    var values = new ArrayList<Boolean>();
+
+    for (String rule : rules.split(RULE_SEPARATOR)) {
+      var trimmedRule = rule.trim();
+
+      if (trimmedRule.isEmpty()) {
+        continue;
+      }
+      if (CARD.equalsIgnoreCase(trimmedRule)) {
+        card = true;
+      } else if (EMAIL.equalsIgnoreCase(trimmedRule)) {
+        email = true;
+      } else {
+        var value = trimmedRule.charAt(trimmedRule.length() - 1) == WILDCARD;
+        var literal = (value) ? trimmedRule.substring(0, trimmedRule.length() - 1) : trimmedRule;
+
+        if (literal.isBlank()) {
+          Reporter.warn("Bad masking rule " + trimmedRule);
+          continue;
+        }
+        literals.add(fold(literal));
+        values.add(value);
+      }
+    }
+    if (!card && !email && literals.isEmpty()) {
+      return null;
+    }
+
+    return new AWSLambdaMasker(card, email, literals, values);
+  }
+
+  // zero is the root, it is not a transition of any state
+  private static int addState(List<int[]> rows, int classCount, List<Integer> lengths,
+      List<Boolean> values) {
+    rows.add(new int[classCount]);
+    lengths.add(0);
+    values.add(false);
+
+    return rows.size() - 1;
+  }
+
+  private static String fold(String literal) {
+    var characters = literal.toCharArray();
+
+    for (int i = 0; i < characters.length; i++) {
+      if (characters[i] < ASCII) {
+        characters[i] = Character.toLowerCase(characters[i]);
+      }
+    }
+
+    return new String(characters);
+  }
+
+  private static boolean isCardNumber(StringBuilder builder, int start, int end, int digits) {
+    if (digits < MIN_CARD_DIGITS || digits > MAX_CARD_DIGITS || builder.charAt(start) < '2'
+        || builder.charAt(start) > '6' || (start > 0 && Character.isLetterOrDigit(
+        builder.charAt(start - 1))) || (end < builder.length() && Character.isLetterOrDigit(
+        builder.charAt(end)))) {
+      return false;
+    }
+
+    var doubled = false;
+    var sum = 0;
+
+    for (int i = end - 1; i >= start; i--) {
+      var character = builder.charAt(i);
+
+      if (isDigit(character)) {
+        var digit = character - '0';
+
+        if (doubled) {
+          digit *= 2;
+          if (digit > 9) {
+            digit -= 9;
+          }
+        }
+        sum += digit;
+        doubled = !doubled;
+      }
+    }
+
+    return sum % 10 == 0;
+  }
+
+  private static boolean isDigit(char character) {
+    return character >= '0' && character <= '9';
+  }
+
+  private static boolean isDomain(StringBuilder builder, int start) {
+    var dot = false;
+    var end = start;
+
+    while (end < builder.length() && isDomainCharacter(builder.charAt(end))) {
+      if (builder.charAt(end) == '.' && end > start) {
+        dot = true;
+      }
+      end++;
+    }
+
+    return dot && builder.charAt(end - 1) != '.';
+  }
+
+  private static boolean isDomainCharacter(char character) {
+    return character < ASCII && (Character.isLetterOrDigit(character) || character == '-'
+        || character == '.');
+  }
+
+  private static boolean isLocalCharacter(char character) {
+    return character < ASCII && (Character.isLetterOrDigit(character) || character == '.'
+        || character == '_' || character == '%' || character == '+' || character == '-');
+  }
+
+  private static boolean isValueDelimiter(char character) {
+    switch (character) {
+      case '"':
+      case '\'':
+      case '\\':
+      case ',':
+      case ';':
+      case '&':
+      case '<':
+      case '>':
+      case ')':
+      case ']':
+      case '}':
+        return true;
+      default:
+        return Character.isWhitespace(character);
+    }
+  }
+
+  private static void maskCardNumber(StringBuilder builder, int start, int end, int digits) {
+    var masked = digits - VISIBLE_CARD_DIGITS;
+
+    for (int i = start; i < end && masked > 0; i++) {
+      if (isDigit(builder.charAt(i))) {
+        builder.setCharAt(i, MASK);
+        masked--;
+      }
+    }
+  }
+
+  private static int maskValue(StringBuilder builder, int start) {
+    var end = start;
+
+    while (end < builder.length() && !isValueDelimiter(builder.charAt(end))) {
+      builder.setCharAt(end++, MASK);
+    }
+
+    return end;
+  }
+
+  /**
+   * Mask sensitive data of the entry in place.
+   *
+   * @param builder log entry
+   * @return true if something is masked
+   */
+  public boolean mask(@NotNull StringBuilder builder) {
+    var cardDigits = 0;
+    var cardEnd = 0;
+    var cardStart = 0;
+    var localStart = 0;
+    var masked = false;
+    var state = 0;
+
+    for (int i = 0; i < builder.length(); i++) {
+      var character = builder.charAt(i);
+
+      if (card) {
+        if (isDigit(character)) {
+          if (cardDigits == 0) {
+            cardStart = i;
+          }
+          cardDigits++;
+          cardEnd = i + 1;
+        } else if (cardDigits > 0 && (cardEnd < i || (character != ' ' && character != '-'))) {
+          // a single space or dash could group digits
+          if (isCardNumber(builder, cardStart, cardEnd, cardDigits)) {
+            maskCardNumber(builder, cardStart, cardEnd, cardDigits);
+            masked = true;
+          }
+          cardDigits = 0;
+        }
+      }
+      if (email) {
+        if (character == '@' && localStart < i && isDomain(builder, i + 1)) {
+          for (int j = localStart + 1; j < i; j++) {
+            builder.setCharAt(j, MASK);
+          }
+          masked = true;
+        }
+        if (!isLocalCharacter(character)) {
+          localStart = i + 1;
+        }
+      }
+      // there are no literals if there is the class 0 only
+      if (classCount > 1) {
+        state = transitions[state * classCount + classOf(character)];
+        if (matchLengths[state] > 0) {
+          if (matchValues[state]) {
+            var end = maskValue(builder, i + 1);
+
+            masked |= end > i + 1;
+            // the value could not contain a literal, a card number or an email address
+            i = end - 1;
+            cardDigits = 0;
+            localStart = end;
+          } else {
+            for (int j = i - matchLengths[state] + 1; j <= i; j++) {
+              builder.setCharAt(j, MASK);
+            }
+            masked = true;
+          }
+          state = 0;
+        }
+      }
+    }
+    if (cardDigits > 0 && isCardNumber(builder, cardStart, cardEnd, cardDigits)) {
+      maskCardNumber(builder, cardStart, cardEnd, cardDigits);
+      masked = true;
+    }
+
+    return masked;
+  }
+
+  // breadth-first: a failure state is shallower, its transitions are ready
+  private void buildTransitions(List<int[]> rows, List<Integer> lengths, List<Boolean> values) {
+    var failures = new int[rows.size()];
+    var queue = new ArrayDeque<Integer>();
+
+    queue.add(0);
+    while (!queue.isEmpty()) {
+      int state = queue.poll();
+      var failure = failures[state];
+
+      if (lengths.get(state) > 0) {
+        matchLengths[state] = lengths.get(state);
+        matchValues[state] = values.get(state);
+      } else {
+        matchLengths[state] = matchLengths[failure];
+        matchValues[state] = matchValues[failure];
+      }
+      for (int i = 0; i < classCount; i++) {
+        var next = rows.get(state)[i];
+        var fallback = (state == 0) ? 0 : transitions[failure * classCount + i];
+
+        if (next == 0) {
+          transitions[state * classCount + i] = fallback;
+        } else {
+          transitions[state * classCount + i] = next;
+          failures[next] = fallback;
+          queue.add(next);
+        }
+      }
+    }
+  }
+
+  private int classOf(char character) {
+    if (character < ASCII) {
+      return asciiClasses[character];
+    }
+
+    var index = Arrays.binarySearch(otherCharacters, character);
+
+    return (index < 0) ? 0 : otherClasses[index];
+  }
+
+}
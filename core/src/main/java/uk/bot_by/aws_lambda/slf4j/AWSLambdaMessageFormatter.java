@@ -0,0 +1,302 @@
+/*
+ * Copyright 2022-2024 Vitalij Berdinskih
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *	   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.bot_by.aws_lambda.slf4j;
+
+import static java.util.Objects.isNull;
+
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Set;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.slf4j.helpers.MessageFormatter;
+import org.slf4j.helpers.Reporter;
+
+/**
+ * Formats messages like {@link MessageFormatter#arrayFormat(String, Object[], Throwable)} does.
+ * <p>
+ * The message is built by the thread's {@link AWSLambdaEntryBuilder}, there is no formatting
+ * tuple, and a message without arguments or placeholders is returned as it is. A pattern is parsed
+ * once and cached, see {@link AWSLambdaMessageTemplate}, formatting only fills in arguments.
+ * The last argument that is a throwable is not cut off the array, the number of arguments to
+ * format is passed instead. Escaping is the same: <code>\{}</code> is a literal <code>{}</code>,
+ * <code>\\{}</code> is a backslash and a placeholder. Arrays are formatted deeply, an array that
+ * contains itself is printed out as <code>[...]</code>.
+ */
+public final class AWSLambdaMessageFormatter {
+
+  private static final String ARRAY_SEPARATOR = ", ";
+
+  private AWSLambdaMessageFormatter() {
+  }
+
+  /**
+   * Format a message.
+   *
+   * @param pattern   message pattern
+   * @param arguments arguments
+   * @param count     number of arguments to format, e.g. without the throwable
+   * @return formatted message
+   */
+  public static String format(@Nullable String pattern, @Nullable Object[] arguments, int count) {
+    if (isNull(pattern) || isNull(arguments) || count == 0) {
+      return pattern;
+    }
+
+    var template = AWSLambdaMessageTemplate.of(pattern);
+
+    if (template.isLiteral()) {
+      return pattern;
+    }
+
+    var entryBuilder = AWSLambdaEntryBuilder.get();
+    var builder = entryBuilder.acquire();
+
+    try {
+      var placeholders = Math.min(count, template.placeholderCount());
+
+      for (int i = 0; i < placeholders; i++) {
+        builder.append(template.literal(i));
+        appendArgument(builder, arguments[i], null);
+      }
+      appendRest(builder, pattern, template, count);
+
+      return builder.toString();
+    } finally {
+      entryBuilder.release();
+    }
+  }
+
+  /**
+   * Format a message with one or two primitive arguments, their digits are appended to
+   * the message without boxing.
+   *
+   * @param pattern message pattern
+   * @param type    type of arguments
+   * @param first   the first argument's bits
+   * @param second  the second argument's bits
+   * @param count   number of arguments, one or two
+   * @return formatted message
+   */
+  static String format(@Nullable String pattern, @NotNull Primitive type, long first,
+      long second, int count) {
+    if (isNull(pattern)) {
+      return null;
+    }
+
+    var template = AWSLambdaMessageTemplate.of(pattern);
+
+    if (template.isLiteral()) {
+      return pattern;
+    }
+
+    var entryBuilder = AWSLambdaEntryBuilder.get();
+    var builder = entryBuilder.acquire();
+
+    try {
+      var placeholders = Math.min(count, template.placeholderCount());
+
+      for (int i = 0; i < placeholders; i++) {
+        builder.append(template.literal(i));
+        type.append(builder, (i == 0) ? first : second);
+      }
+      appendRest(builder, pattern, template, count);
+
+      return builder.toString();
+    } finally {
+      entryBuilder.release();
+    }
+  }
+
+  /**
+   * Get the last argument if it is a throwable.
+   *
+   * @param arguments arguments
+   * @return throwable or {@code null}
+   */
+  @Nullable
+  public static Throwable getThrowableCandidate(@Nullable Object[] arguments) {
+    if (isNull(arguments) || arguments.length == 0) {
+      return null;
+    }
+
+    var lastArgument = arguments[arguments.length - 1];
+
+    return (lastArgument instanceof Throwable) ? (Throwable) lastArgument : null;
+  }
+
+  private static void appendArgument(StringBuilder builder, Object argument,
+      Set<Object[]> seenArrays) {
+    if (isNull(argument)) {
+      builder.append("null");
+    } else if (!argument.getClass().isArray()) {
+      appendObject(builder, argument);
+    } else if (argument instanceof Object[]) {
+      appendObjectArray(builder, (Object[]) argument, seenArrays);
+    } else {
+      appendPrimitiveArray(builder, argument);
+    }
+  }
+
+  private static void appendRest(StringBuilder builder, String pattern,
+      AWSLambdaMessageTemplate template, int count) {
+    if (count > template.placeholderCount()) {
+      builder.append(template.literal(template.placeholderCount()));
+    } else {
+      // there are no more arguments, the rest is not processed
+      builder.append(pattern, template.placeholderEnd(count - 1), pattern.length());
+    }
+  }
+
+  private static void appendObject(StringBuilder builder, Object argument) {
+    try {
+      builder.append(argument);
+    } catch (Throwable exception) {
+      Reporter.error("Failed toString() invocation on an object of type ["
+          + argument.getClass().getName() + "]", exception);
+      builder.append("[FAILED toString()]");
+    }
+  }
+
+  private static void appendObjectArray(StringBuilder builder, Object[] array,
+      Set<Object[]> seenArrays) {
+    if (isNull(seenArrays)) {
+      seenArrays = Collections.newSetFromMap(new IdentityHashMap<>());
+    }
+    builder.append('[');
+    if (seenArrays.add(array)) {
+      for (int i = 0; i < array.length; i++) {
+        if (i > 0) {
+          builder.append(ARRAY_SEPARATOR);
+        }
+        appendArgument(builder, array[i], seenArrays);
+      }
+      seenArrays.remove(array);
+    } else {
+      builder.append("...");
+    }
+    builder.append(']');
+  }
+
+  @SuppressWarnings("DuplicatedCode")
+  private static void appendPrimitiveArray(StringBuilder builder, Object array) {
+    builder.append('[');
+    if (array instanceof boolean[]) {
+      var values = (boolean[]) array;
+
+      for (int i = 0; i < values.length; i++) {
+        appendSeparator(builder, i).append(values[i]);
+      }
+    } else if (array instanceof byte[]) {
+      var values = (byte[]) array;
+
+      for (int i = 0; i < values.length; i++) {
+        appendSeparator(builder, i).append(values[i]);
+      }
+    } else if (array instanceof char[]) {
+      var values = (char[]) array;
+
+      for (int i = 0; i < values.length; i++) {
+        appendSeparator(builder, i).append(values[i]);
+      }
+    } else if (array instanceof short[]) {
+      var values = (short[]) array;
+
+      for (int i = 0; i < values.length; i++) {
+        appendSeparator(builder, i).append(values[i]);
+      }
+    } else if (array instanceof int[]) {
+      var values = (int[]) array;
+
+      for (int i = 0; i < values.length; i++) {
+        appendSeparator(builder, i).append(values[i]);
+      }
+    } else if (array instanceof long[]) {
+      var values = (long[]) array;
+
+      for (int i = 0; i < values.length; i++) {
+        appendSeparator(builder, i).append(values[i]);
+      }
+    } else if (array instanceof float[]) {
+      var values = (float[]) array;
+
+      for (int i = 0; i < values.length; i++) {
+        appendSeparator(builder, i).append(values[i]);
+      }
+    } else {
+      var values = (double[]) array;
+
+      for (int i = 0; i < values.length; i++) {
+        appendSeparator(builder, i).append(values[i]);
+      }
+    }
+    builder.append(']');
+  }
+
+  private static StringBuilder appendSeparator(StringBuilder builder, int index) {
+    return (index > 0) ? builder.append(ARRAY_SEPARATOR) : builder;
+  }
+
+  /**
+   * Type of primitive arguments that are passed as bits of a {@code long}: an {@code int} is
+   * widened, a {@code double} is passed by its raw bits, a {@code boolean} is {@code 1} or
+   * {@code 0}.
+   */
+  enum Primitive {
+
+    BOOLEAN {
+      @Override
+      void append(StringBuilder builder, long bits) {
+        builder.append(bits != 0);
+      }
+
+      @Override
+      Object box(long bits) {
+        return bits != 0;
+      }
+    },
+
+    DOUBLE {
+      @Override
+      void append(StringBuilder builder, long bits) {
+        builder.append(Double.longBitsToDouble(bits));
+      }
+
+      @Override
+      Object box(long bits) {
+        return Double.longBitsToDouble(bits);
+      }
+    },
+
+    LONG {
+      @Override
+      void append(StringBuilder builder, long bits) {
+        builder.append(bits);
+      }
+
+      @Override
+      Object box(long bits) {
+        return bits;
+      }
+    };
+
+    abstract void append(StringBuilder builder, long bits);
+
+    abstract Object box(long bits);
+
+  }
+
+}
@@ -0,0 +1,299 @@
+/*
+ * Copyright 2022-2024 Vitalij Berdinskih
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *	   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.bot_by.aws_lambda.slf4j;
+
+import static java.util.Objects.isNull;
+import static java.util.Objects.nonNull;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.jetbrains.annotations.VisibleForTesting;
+import org.slf4j.helpers.Reporter;
+
+/**
+ * A parsed message pattern: literals between placeholders, escapes are already processed.
+ * <p>
+ * Templates are cached by a direct-mapped table: a pattern takes the slot by its hash code and
+ * replaces the previous template there, so the cache does not grow, and dynamically built patterns
+ * just evict each other. A cached template is found by the identity of the pattern first, which is
+ * the usual case for compile-time constants, then by equality. The table is read and written
+ * without locks, templates are immutable, a stale read is a miss and the pattern is parsed again.
+ * Long patterns are not cached.
+ * <p>
+ * The template processor writes constant patterns of a compilation unit to the
+ * {@value #TEMPLATE_INDEX} resource, one pattern per line, a backslash, a line feed and
+ * a carriage return are escaped by a backslash. Indexes are read on the first cache miss, their
+ * templates are kept in a map of their own, so dynamic patterns do not evict them and they are
+ * never parsed again. Concurrent first misses could read indexes twice, the result is the same.
+ */
+final class AWSLambdaMessageTemplate {
+
+  @VisibleForTesting
+  static final int CACHE_SIZE = 512;
+  @VisibleForTesting
+  static final int MAX_PATTERN_LENGTH = 1024;
+  static final String TEMPLATE_INDEX = "META-INF/slf4j-aws-lambda/message-templates";
+
+  private static final AWSLambdaMessageTemplate[] CACHE = new AWSLambdaMessageTemplate[CACHE_SIZE];
+  private static final char DELIMITER_START = '{';
+  private static final String DELIMITER = "{}";
+  private static final char ESCAPE = '\\';
+  private static final int[] NO_PLACEHOLDERS = new int[0];
+
+  private static volatile Map<String, AWSLambdaMessageTemplate> index;
+
+  private final String[] literals;
+  private final String pattern;
+  private final int[] placeholderEnds;
+
+  private AWSLambdaMessageTemplate(String pattern, String[] literals, int[] placeholderEnds) {
+    this.literals = literals;
+    this.pattern = pattern;
+    this.placeholderEnds = placeholderEnds;
+  }
+
+  /**
+   * Count arguments that are written with the template: arguments without placeholders, e.g. the
+   * {@code null} of one-argument methods, are not written.
+   *
+   * @param pattern message pattern
+   * @param count   number of arguments without the throwable
+   * @return number of arguments, zero if the message should be formatted as usual
+   */
+  static int argumentCount(@Nullable String pattern, int count) {
+    if (isNull(pattern) || count <= 0) {
+      return 0;
+    }
+
+    return Math.min(count, of(pattern).placeholderCount());
+  }
+
+  /**
+   * Get the template of a pattern.
+   *
+   * @param pattern message pattern
+   * @return cached or parsed template
+   */
+  @NotNull
+  static AWSLambdaMessageTemplate of(@NotNull String pattern) {
+    if (pattern.length() > MAX_PATTERN_LENGTH) {
+      return parse(pattern);
+    }
+
+    var slot = slot(pattern);
+    var template = CACHE[slot];
+
+    if (isNull(template) || template.pattern != pattern && !template.pattern.equals(pattern)) {
+      template = index().get(pattern);
+      if (isNull(template)) {
+        template = parse(pattern);
+      }
+      CACHE[slot] = template;
+    }
+
+    return template;
+  }
+
+  @VisibleForTesting
+  static void clearCache() {
+    for (int i = 0; i < CACHE_SIZE; i++) {
+      CACHE[i] = null;
+    }
+    index = null;
+  }
+
+  @VisibleForTesting
+  static boolean isCached(@NotNull String pattern) {
+    var template = CACHE[slot(pattern)];
+
+    return nonNull(template) && template.pattern.equals(pattern);
+  }
+
+  /**
+   * Parse patterns of all template indexes that the class loader can find.
+   *
+   * @param classLoader class loader, nothing is loaded if it is {@code null}
+   * @return unmodifiable map of indexed templates by their patterns
+   */
+  @VisibleForTesting
+  static Map<String, AWSLambdaMessageTemplate> loadIndex(@Nullable ClassLoader classLoader) {
+    if (isNull(classLoader)) {
+      return Map.of();
+    }
+
+    var templates = new HashMap<String, AWSLambdaMessageTemplate>();
+
+    try {
+      var indexes = classLoader.getResources(TEMPLATE_INDEX);
+
+      while (indexes.hasMoreElements()) {
+        loadIndex(indexes.nextElement(), templates);
+      }
+    } catch (IOException exception) {
+      Reporter.warn("could not read template indexes: " + exception.getMessage());
+    }
+
+    return Collections.unmodifiableMap(templates);
+  }
+
+  // the same rules as MessageFormatter has, for any number of arguments
+  @VisibleForTesting
+  static AWSLambdaMessageTemplate parse(String pattern) {
+    var index = pattern.indexOf(DELIMITER);
+
+    if (index == -1) {
+      return new AWSLambdaMessageTemplate(pattern, new String[]{pattern}, NO_PLACEHOLDERS);
+    }
+
+    var builder = new StringBuilder(pattern.length());
+    var literals = new ArrayList<String>();
+    var placeholderEnds = new ArrayList<Integer>();
+    var start = 0;
+
+    while (index != -1) {
+      if (isEscapedDelimiter(pattern, index) && !isDoubleEscaped(pattern, index)) {
+        builder.append(pattern, start, index - 1).append(DELIMITER_START);
+        start = index + 1;
+      } else {
+        var end = isEscapedDelimiter(pattern, index) ? index - 1 : index;
+
+        literals.add(builder.append(pattern, start, end).toString());
+        builder.setLength(0);
+        start = index + 2;
+        placeholderEnds.add(start);
+      }
+      index = pattern.indexOf(DELIMITER, start);
+    }
+    literals.add(builder.append(pattern, start, pattern.length()).toString());
+
+    return new AWSLambdaMessageTemplate(pattern, literals.toArray(new String[0]),
+        placeholderEnds.stream().mapToInt(Integer::intValue).toArray());
+  }
+
+  private static Map<String, AWSLambdaMessageTemplate> index() {
+    var index = AWSLambdaMessageTemplate.index;
+
+    if (isNull(index)) {
+      var classLoader = Thread.currentThread().getContextClassLoader();
+
+      if (isNull(classLoader)) {
+        classLoader = AWSLambdaMessageTemplate.class.getClassLoader();
+      }
+      index = loadIndex(classLoader);
+      AWSLambdaMessageTemplate.index = index;
+    }
+
+    return index;
+  }
+
+  private static boolean isDoubleEscaped(String pattern, int index) {
+    return index >= 2 && pattern.charAt(index - 2) == ESCAPE;
+  }
+
+  private static boolean isEscapedDelimiter(String pattern, int index) {
+    return index >= 1 && pattern.charAt(index - 1) == ESCAPE;
+  }
+
+  private static void loadIndex(URL resource, Map<String, AWSLambdaMessageTemplate> templates)
+      throws IOException {
+    try (var reader = new BufferedReader(
+        new InputStreamReader(resource.openStream(), StandardCharsets.UTF_8))) {
+      String line;
+
+      while (nonNull(line = reader.readLine())) {
+        var pattern = unescape(line);
+
+        if (!pattern.isEmpty() && pattern.length() <= MAX_PATTERN_LENGTH) {
+          templates.computeIfAbsent(pattern, AWSLambdaMessageTemplate::parse);
+        }
+      }
+    }
+  }
+
+  private static int slot(String pattern) {
+    var hash = pattern.hashCode();
+
+    return (hash ^ (hash >>> 16)) & (CACHE_SIZE - 1);
+  }
+
+  private static String unescape(String line) {
+    if (line.indexOf(ESCAPE) == -1) {
+      return line;
+    }
+
+    var builder = new StringBuilder(line.length());
+
+    for (int i = 0; i < line.length(); i++) {
+      var character = line.charAt(i);
+
+      if (character == ESCAPE && i + 1 < line.length()) {
+        character = line.charAt(++i);
+        if (character == 'n') {
+          character = '\n';
+        } else if (character == 'r') {
+          character = '\r';
+        }
+      }
+      builder.append(character);
+    }
+
+    return builder.toString();
+  }
+
+  /**
+   * Check if the pattern has neither placeholders nor escaped delimiters.
+   *
+   * @return {@code true} if the message is the pattern itself
+   */
+  boolean isLiteral() {
+    return literals[0] == pattern;
+  }
+
+  /**
+   * Literal before a placeholder or the processed rest of the pattern after the last one.
+   *
+   * @param index placeholder index
+   * @return literal
+   */
+  String literal(int index) {
+    return literals[index];
+  }
+
+  int placeholderCount() {
+    return placeholderEnds.length;
+  }
+
+  /**
+   * The pattern's index after a placeholder: if there are no more arguments, the rest of
+   * the pattern is appended as it is, like MessageFormatter does.
+   *
+   * @param index placeholder index
+   * @return index in the pattern
+   */
+  int placeholderEnd(int index) {
+    return placeholderEnds[index];
+  }
+
+}
@@ -0,0 +1,380 @@
+/*
+ * Copyright 2022-2024 Vitalij Berdinskih
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *	   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.bot_by.aws_lambda.slf4j;
+
+import org.slf4j.Logger;
+
+/**
+ * The logger extension with primitive arguments.
+ * <p>
+ * An {@code int}, {@code long}, {@code double} or {@code boolean} argument is not boxed, its
+ * digits are appended to the message directly, and nothing is done if the level is disabled:
+ * <pre><code class="language-java">
+ *   var logger = (AWSLambdaPrimitiveLogger) LoggerFactory.getLogger(BotHandler.class);
+ *
+ *   logger.debugPrimitive("took {} ms", elapsedMillis);
+ * </code></pre>
+ * The methods have their own names: overloads of {@link Logger} methods would take over calls with
+ * a {@code char} or {@code float} argument, which Java widens to {@code int} and {@code double}.
+ * The widening applies to these methods too, so a {@code char} is printed out as its code and
+ * a {@code float} as a {@code double}: pass them to the {@link Logger} methods. In the message
+ * template mode arguments are boxed, so the JSON output writes them as numbers and booleans.
+ *
+ * @see AWSLambdaLoggerConfigurationProperty#MessageTemplate
+ */
+public interface AWSLambdaPrimitiveLogger extends Logger {
+
+  /**
+   * Log a message at the TRACE level with an {@code int} argument.
+   *
+   * @param format   the format string
+   * @param argument the argument
+   */
+  void tracePrimitive(String format, int argument);
+
+  /**
+   * Log a message at the TRACE level with a {@code long} argument.
+   *
+   * @param format   the format string
+   * @param argument the argument
+   */
+  void tracePrimitive(String format, long argument);
+
+  /**
+   * Log a message at the TRACE level with a {@code double} argument.
+   *
+   * @param format   the format string
+   * @param argument the argument
+   */
+  void tracePrimitive(String format, double argument);
+
+  /**
+   * Log a message at the TRACE level with a {@code boolean} argument.
+   *
+   * @param format   the format string
+   * @param argument the argument
+   */
+  void tracePrimitive(String format, boolean argument);
+
+  /**
+   * Log a message at the TRACE level with two {@code int} arguments.
+   *
+   * @param format    the format string
+   * @param argument1 the first argument
+   * @param argument2 the second argument
+   */
+  void tracePrimitive(String format, int argument1, int argument2);
+
+  /**
+   * Log a message at the TRACE level with two {@code long} arguments.
+   *
+   * @param format    the format string
+   * @param argument1 the first argument
+   * @param argument2 the second argument
+   */
+  void tracePrimitive(String format, long argument1, long argument2);
+
+  /**
+   * Log a message at the TRACE level with two {@code double} arguments.
+   *
+   * @param format    the format string
+   * @param argument1 the first argument
+   * @param argument2 the second argument
+   */
+  void tracePrimitive(String format, double argument1, double argument2);
+
+  /**
+   * Log a message at the TRACE level with two {@code boolean} arguments.
+   *
+   * @param format    the format string
+   * @param argument1 the first argument
+   * @param argument2 the second argument
+   */
+  void tracePrimitive(String format, boolean argument1, boolean argument2);
+
+  /**
+   * Log a message at the DEBUG level with an {@code int} argument.
+   *
+   * @param format   the format string
+   * @param argument the argument
+   */
+  void debugPrimitive(String format, int argument);
+
+  /**
+   * Log a message at the DEBUG level with a {@code long} argument.
+   *
+   * @param format   the format string
+   * @param argument the argument
+   */
+  void debugPrimitive(String format, long argument);
+
+  /**
+   * Log a message at the DEBUG level with a {@code double} argument.
+   *
+   * @param format   the format string
+   * @param argument the argument
+   */
+  void debugPrimitive(String format, double argument);
+
+  /**
+   * Log a message at the DEBUG level with a {@code boolean} argument.
+   *
+   * @param format   the format string
+   * @param argument the argument
+   */
+  void debugPrimitive(String format, boolean argument);
+
+  /**
+   * Log a message at the DEBUG level with two {@code int} arguments.
+   *
+   * @param format    the format string
+   * @param argument1 the first argument
+   * @param argument2 the second argument
+   */
+  void debugPrimitive(String format, int argument1, int argument2);
+
+  /**
+   * Log a message at the DEBUG level with two {@code long} arguments.
+   *
+   * @param format    the format string
+   * @param argument1 the first argument
+   * @param argument2 the second argument
+   */
+  void debugPrimitive(String format, long argument1, long argument2);
+
+  /**
+   * Log a message at the DEBUG level with two {@code double} arguments.
+   *
+   * @param format    the format string
+   * @param argument1 the first argument
+   * @param argument2 the second argument
+   */
+  void debugPrimitive(String format, double argument1, double argument2);
+
+  /**
+   * Log a message at the DEBUG level with two {@code boolean} arguments.
+   *
+   * @param format    the format string
+   * @param argument1 the first argument
+   * @param argument2 the second argument
+   */
+  void debugPrimitive(String format, boolean argument1, boolean argument2);
+
+  /**
+   * Log a message at the INFO level with an {@code int} argument.
+   *
+   * @param format   the format string
+   * @param argument the argument
+   */
+  void infoPrimitive(String format, int argument);
+
+  /**
+   * Log a message at the INFO level with a {@code long} argument.
+   *
+   * @param format   the format string
+   * @param argument the argument
+   */
+  void infoPrimitive(String format, long argument);
+
+  /**
+   * Log a message at the INFO level with a {@code double} argument.
+   *
+   * @param format   the format string
+   * @param argument the argument
+   */
+  void infoPrimitive(String format, double argument);
+
+  /**
+   * Log a message at the INFO level with a {@code boolean} argument.
+   *
+   * @param format   the format string
+   * @param argument the argument
+   */
+  void infoPrimitive(String format, boolean argument);
+
+  /**
+   * Log a message at the INFO level with two {@code int} arguments.
+   *
+   * @param format    the format string
+   * @param argument1 the first argument
+   * @param argument2 the second argument
+   */
+  void infoPrimitive(String format, int argument1, int argument2);
+
+  /**
+   * Log a message at the INFO level with two {@code long} arguments.
+   *
+   * @param format    the format string
+   * @param argument1 the first argument
+   * @param argument2 the second argument
+   */
+  void infoPrimitive(String format, long argument1, long argument2);
+
+  /**
+   * Log a message at the INFO level with two {@code double} arguments.
+   *
+   * @param format    the format string
+   * @param argument1 the first argument
+   * @param argument2 the second argument
+   */
+  void infoPrimitive(String format, double argument1, double argument2);
+
+  /**
+   * Log a message at the INFO level with two {@code boolean} arguments.
+   *
+   * @param format    the format string
+   * @param argument1 the first argument
+   * @param argument2 the second argument
+   */
+  void infoPrimitive(String format, boolean argument1, boolean argument2);
+
+  /**
+   * Log a message at the WARN level with an {@code int} argument.
+   *
+   * @param format   the format string
+   * @param argument the argument
+   */
+  void warnPrimitive(String format, int argument);
+
+  /**
+   * Log a message at the WARN level with a {@code long} argument.
+   *
+   * @param format   the format string
+   * @param argument the argument
+   */
+  void warnPrimitive(String format, long argument);
+
+  /**
+   * Log a message at the WARN level with a {@code double} argument.
+   *
+   * @param format   the format string
+   * @param argument the argument
+   */
+  void warnPrimitive(String format, double argument);
+
+  /**
+   * Log a message at the WARN level with a {@code boolean} argument.
+   *
+   * @param format   the format string
+   * @param argument the argument
+   */
+  void warnPrimitive(String format, boolean argument);
+
+  /**
+   * Log a message at the WARN level with two {@code int} arguments.
+   *
+   * @param format    the format string
+   * @param argument1 the first argument
+   * @param argument2 the second argument
+   */
+  void warnPrimitive(String format, int argument1, int argument2);
+
+  /**
+   * Log a message at the WARN level with two {@code long} arguments.
+   *
+   * @param format    the format string
+   * @param argument1 the first argument
+   * @param argument2 the second argument
+   */
+  void warnPrimitive(String format, long argument1, long argument2);
+
+  /**
+   * Log a message at the WARN level with two {@code double} arguments.
+   *
+   * @param format    the format string
+   * @param argument1 the first argument
+   * @param argument2 the second argument
+   */
+  void warnPrimitive(String format, double argument1, double argument2);
+
+  /**
+   * Log a message at the WARN level with two {@code boolean} arguments.
+   *
+   * @param format    the format string
+   * @param argument1 the first argument
+   * @param argument2 the second argument
+   */
+  void warnPrimitive(String format, boolean argument1, boolean argument2);
+
+  /**
+   * Log a message at the ERROR level with an {@code int} argument.
+   *
+   * @param format   the format string
+   * @param argument the argument
+   */
+  void errorPrimitive(String format, int argument);
+
+  /**
+   * Log a message at the ERROR level with a {@code long} argument.
+   *
+   * @param format   the format string
+   * @param argument the argument
+   */
+  void errorPrimitive(String format, long argument);
+
+  /**
+   * Log a message at the ERROR level with a {@code double} argument.
+   *
+   * @param format   the format string
+   * @param argument the argument
+   */
+  void errorPrimitive(String format, double argument);
+
+  /**
+   * Log a message at the ERROR level with a {@code boolean} argument.
+   *
+   * @param format   the format string
+   * @param argument the argument
+   */
+  void errorPrimitive(String format, boolean argument);
+
+  /**
+   * Log a message at the ERROR level with two {@code int} arguments.
+   *
+   * @param format    the format string
+   * @param argument1 the first argument
+   * @param argument2 the second argument
+   */
+  void errorPrimitive(String format, int argument1, int argument2);
+
+  /**
+   * Log a message at the ERROR level with two {@code long} arguments.
+   *
+   * @param format    the format string
+   * @param argument1 the first argument
+   * @param argument2 the second argument
+   */
+  void errorPrimitive(String format, long argument1, long argument2);
+
+  /**
+   * Log a message at the ERROR level with two {@code double} arguments.
+   *
+   * @param format    the format string
+   * @param argument1 the first argument
+   * @param argument2 the second argument
+   */
+  void errorPrimitive(String format, double argument1, double argument2);
+
+  /**
+   * Log a message at the ERROR level with two {@code boolean} arguments.
+   *
+   * @param format    the format string
+   * @param argument1 the first argument
+   * @param argument2 the second argument
+   */
+  void errorPrimitive(String format, boolean argument1, boolean argument2);
+
+}
@@ -0,0 +1,319 @@
+/*
+ * Copyright 2022-2024 Vitalij Berdinskih
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *	   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.bot_by.aws_lambda.slf4j;
+
+import static java.util.Objects.isNull;
+import static java.util.Objects.nonNull;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.jetbrains.annotations.VisibleForTesting;
+import org.slf4j.LoggerFactory;
+import org.slf4j.MDC;
+
+/**
+ * The immutable request context that is bound to a thread while an invocation is handled.
+ * <p>
+ * It is an alternative to MDC: the AWS request ID and context fields are bound once per invocation,
+ * outputs read them from the current context. A task of the invocation binds the reference to
+ * the same context, there is no copy of a map per thread.
+ * <pre><code class="language-java">
+ * &#064;Override
+ * public String handleRequest(Map&lt;String, Object&gt; input, Context context) {
+ *   return AWSLambdaRequestContext.call(context.getAwsRequestId(), Map.of("tenant", tenant),
+ *       () -&gt; handle(input));
+ * }
+ * </code></pre>
+ * Binding a context is an invocation boundary like putting the AWS request ID to MDC: the logger
+ * factory flushes the init buffer and checks its configuration. When the task completes, the
+ * previous context is restored.
+ * <p>
+ * A thread does not inherit the context, a pooled one would keep it after the invocation has
+ * completed, and pass it to tasks of other invocations. The {@code wrap} methods take a snapshot
+ * instead: a task captures the current context reference and binds it while it runs, a new thread
+ * gets a wrapped task too.
+ * <pre><code class="language-java">
+ * var executor = AWSLambdaRequestContext.wrap(ForkJoinPool.commonPool());
+ *
+ * CompletableFuture.supplyAsync(() -&gt; fetch(item), executor);
+ * </code></pre>
+ * Structured concurrency is no exception: {@code StructuredTaskScope.fork} runs a subtask in a new
+ * thread, so the subtask sees the context only if the callable is wrapped.
+ * <pre><code class="language-java">
+ * scope.fork(AWSLambdaRequestContext.wrap(() -&gt; fetch(item)));
+ * </code></pre>
+ * The context is keyed by the request, not by a thread, so several invocations could be handled
+ * at once in one execution environment. If <strong>invocationBuffering</strong> is set, every
+ * context has its own buffer: entries of the invocation and its tasks are written as one batch
+ * when {@code run} or {@code call} completes.
+ *
+ * @see AWSLambdaLoggerConfigurationProperty#InvocationBuffering
+ */
+public final class AWSLambdaRequestContext {
+
+  private static final ThreadLocal<AWSLambdaRequestContext> CURRENT = new ThreadLocal<>();
+
+  private final Map<String, String> fields;
+  private final String requestId;
+
+  // it is released when the invocation completes, a task that runs later writes at once
+  private volatile AWSLambdaLoggerBuffer buffer;
+
+  @VisibleForTesting
+  AWSLambdaRequestContext(String requestId, Map<String, String> fields,
+      AWSLambdaLoggerBuffer buffer) {
+    this.buffer = buffer;
+    this.fields = Collections.unmodifiableMap(new LinkedHashMap<>(fields));
+    this.requestId = requestId;
+  }
+
+  /**
+   * Bind a context to the current thread and call the task.
+   *
+   * @param requestId AWS request ID
+   * @param fields    context fields
+   * @param task      the task
+   * @param <T>       the result type
+   * @return the result of the task
+   * @throws Exception if the task throws an exception
+   */
+  public static <T> T call(@NotNull String requestId, @NotNull Map<String, String> fields,
+      @NotNull Callable<T> task) throws Exception {
+    var context = open(requestId, fields);
+    var previous = swap(context);
+
+    try {
+      return task.call();
+    } finally {
+      swap(previous);
+      context.flush();
+    }
+  }
+
+  /**
+   * Get the context that is bound to the current thread.
+   *
+   * @return the current context, or {@code null} if it is not bound
+   */
+  @Nullable
+  public static AWSLambdaRequestContext current() {
+    return CURRENT.get();
+  }
+
+  /**
+   * Get the buffer of the current context, or the init buffer of the configuration if there is no
+   * bound context, it does not buffer or its invocation has completed.
+   * <p>
+   * The init buffer is returned only until it is flushed, later entries are written at once by
+   * the output.
+   *
+   * @param configuration logger configuration
+   * @return the buffer, or {@code null} if entries are written at once
+   */
+  @Nullable
+  public static AWSLambdaLoggerBuffer getBuffer(
+      @NotNull AWSLambdaLoggerConfiguration configuration) {
+    var context = CURRENT.get();
+
+    if (nonNull(context)) {
+      var buffer = context.buffer;
+
+      if (nonNull(buffer)) {
+        return buffer;
+      }
+    }
+
+    var initBuffer = configuration.buffer();
+
+    if (nonNull(initBuffer) && initBuffer.isBuffering()) {
+      return initBuffer;
+    }
+
+    return null;
+  }
+
+  /**
+   * Get AWS request ID from the current context, or from MDC if there is no bound context.
+   *
+   * @param contextKey the MDC key of AWS request ID
+   * @return AWS request ID, or {@code null}
+   */
+  @Nullable
+  public static String getRequestId(@NotNull String contextKey) {
+    var context = CURRENT.get();
+
+    if (nonNull(context)) {
+      return context.requestId;
+    }
+
+    return MDC.get(contextKey);
+  }
+
+  /**
+   * Bind a context to the current thread and run the task.
+   *
+   * @param requestId AWS request ID
+   * @param fields    context fields
+   * @param task      the task
+   */
+  public static void run(@NotNull String requestId, @NotNull Map<String, String> fields,
+      @NotNull Runnable task) {
+    var context = open(requestId, fields);
+    var previous = swap(context);
+
+    try {
+      task.run();
+    } finally {
+      swap(previous);
+      context.flush();
+    }
+  }
+
+  /**
+   * Wrap a task, it runs with the context that is current now.
+   *
+   * @param task the task
+   * @param <T>  the result type
+   * @return the wrapped task
+   */
+  @NotNull
+  public static <T> Callable<T> wrap(@NotNull Callable<T> task) {
+    var context = CURRENT.get();
+
+    return () -> {
+      var previous = swap(context);
+
+      try {
+        return task.call();
+      } finally {
+        swap(previous);
+      }
+    };
+  }
+
+  /**
+   * Wrap an executor, every task runs with the context that is current when the task is
+   * submitted.
+   *
+   * @param executor the executor
+   * @return the wrapped executor
+   */
+  @NotNull
+  public static Executor wrap(@NotNull Executor executor) {
+    return task -> executor.execute(wrap(task));
+  }
+
+  /**
+   * Wrap an executor service, every task runs with the context that is current when the task is
+   * submitted.
+   *
+   * @param executorService the executor service
+   * @return the wrapped executor service
+   */
+  @NotNull
+  public static ExecutorService wrap(@NotNull ExecutorService executorService) {
+    return new AWSLambdaContextExecutorService(executorService);
+  }
+
+  /**
+   * Wrap a task, it runs with the context that is current now.
+   *
+   * @param task the task
+   * @return the wrapped task
+   */
+  @NotNull
+  public static Runnable wrap(@NotNull Runnable task) {
+    var context = CURRENT.get();
+
+    return () -> {
+      var previous = swap(context);
+
+      try {
+        task.run();
+      } finally {
+        swap(previous);
+      }
+    };
+  }
+
+  private static AWSLambdaRequestContext open(String requestId, Map<String, String> fields) {
+    var loggerFactory = LoggerFactory.getILoggerFactory();
+    AWSLambdaLoggerBuffer buffer = null;
+
+    if (loggerFactory instanceof AWSLambdaLoggerFactory) {
+      ((AWSLambdaLoggerFactory) loggerFactory).flush();
+      ((AWSLambdaLoggerFactory) loggerFactory).checkConfiguration();
+      if (((AWSLambdaLoggerFactory) loggerFactory).isInvocationBuffering()) {
+        buffer = new AWSLambdaLoggerBuffer();
+      }
+    }
+
+    return new AWSLambdaRequestContext(requestId, fields, buffer);
+  }
+
+  @VisibleForTesting
+  static AWSLambdaRequestContext swap(@Nullable AWSLambdaRequestContext context) {
+    var previous = CURRENT.get();
+
+    if (isNull(context)) {
+      CURRENT.remove();
+    } else {
+      CURRENT.set(context);
+    }
+
+    return previous;
+  }
+
+  /**
+   * Write entries of the invocation and release the buffer, later entries of its tasks are written
+   * at once.
+   */
+  void flush() {
+    var buffer = this.buffer;
+
+    if (nonNull(buffer)) {
+      this.buffer = null;
+      buffer.flush();
+    }
+  }
+
+  /**
+   * Context fields.
+   *
+   * @return unmodifiable fields in the order they were given
+   */
+  @NotNull
+  public Map<String, String> fields() {
+    return fields;
+  }
+
+  /**
+   * AWS request ID.
+   *
+   * @return the request ID
+   */
+  @NotNull
+  public String requestId() {
+    return requestId;
+  }
+
+}
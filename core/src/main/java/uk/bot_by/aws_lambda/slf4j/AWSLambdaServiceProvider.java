@@ -24,16 +24,14 @@ import org.slf4j.spi.SLF4JServiceProvider;
 
 /**
  * Responsible for binding the {@link AWSLambdaLoggerFactory}, the {@link BasicMarkerFactory} and
- * the {@link BasicMDCAdapter}. This is used by the SLF4J API.
+ * the {@link BasicMDCAdapter} that notifies the logger factory about invocations. This is used by
+ * the SLF4J API.
  *
  * @author Vitalij Berdinskih
  * @since 3.0.0
  */
 public class AWSLambdaServiceProvider implements SLF4JServiceProvider {
 
-  private static final ILoggerFactory loggerFactory = new AWSLambdaLoggerFactory();
-  private static final IMarkerFactory markerFactory = new BasicMarkerFactory();
-  private static final MDCAdapter contextMapAdapter = new BasicMDCAdapter();
   /**
    * Declare the version of the SLF4J API this implementation is compiled against. The value of this
    * field is modified with each major release.
@@ -41,6 +39,10 @@ public class AWSLambdaServiceProvider implements SLF4JServiceProvider {
   // to avoid constant folding by the compiler, this field must *not* be final
   public static String REQUESTED_API_VERSION = "2.0.99"; // !final
 
+  private MDCAdapter contextMapAdapter;
+  private AWSLambdaLoggerFactory loggerFactory;
+  private IMarkerFactory markerFactory;
+
   @Override
   public ILoggerFactory getLoggerFactory() {
     return loggerFactory;
@@ -63,7 +65,10 @@ public class AWSLambdaServiceProvider implements SLF4JServiceProvider {
 
   @Override
   public void initialize() {
-    // initialized by static fields
+    // SLF4J calls it when the provider is chosen, not when it is found
+    loggerFactory = new AWSLambdaLoggerFactory();
+    markerFactory = new BasicMarkerFactory();
+    contextMapAdapter = new AWSLambdaMDCAdapter(loggerFactory);
   }
 
 }
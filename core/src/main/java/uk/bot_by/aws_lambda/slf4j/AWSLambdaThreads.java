@@ -0,0 +1,38 @@
+/*
+ * Copyright 2022-2024 Vitalij Berdinskih
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *	   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.bot_by.aws_lambda.slf4j;
+
+/**
+ * Thread helpers of outputs.
+ * <p>
+ * The JAR is multi-release: Java 21 and later use the variant from {@code META-INF/versions/21}.
+ */
+public final class AWSLambdaThreads {
+
+  private AWSLambdaThreads() {
+  }
+
+  /**
+   * Get the identifier of the current thread.
+   *
+   * @return the thread ID
+   */
+  @SuppressWarnings("deprecation")
+  public static long currentThreadId() {
+    return Thread.currentThread().getId();
+  }
+
+}
@@ -0,0 +1,76 @@
+package uk.bot_by.aws_lambda.slf4j;
+
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+@Tag("fast")
+class AWSLambdaContextExecutorServiceTest {
+
+  @Mock
+  private ExecutorService delegate;
+  @Captor
+  private ArgumentCaptor<Runnable> runnableCaptor;
+
+  private AWSLambdaContextExecutorService executorService;
+
+  @BeforeEach
+  void setUp() {
+    executorService = new AWSLambdaContextExecutorService(delegate);
+  }
+
+  @DisplayName("Wrap a task")
+  @Test
+  void execute() {
+    // given
+    Runnable task = () -> {
+    };
+
+    // when
+    executorService.execute(task);
+
+    // then
+    verify(delegate).execute(runnableCaptor.capture());
+
+    assertNotSame(task, runnableCaptor.getValue());
+  }
+
+  @DisplayName("Delegate the lifecycle")
+  @Test
+  void lifecycle() throws InterruptedException {
+    // given
+    when(delegate.awaitTermination(1, TimeUnit.SECONDS)).thenReturn(true);
+    when(delegate.isShutdown()).thenReturn(true);
+    when(delegate.isTerminated()).thenReturn(true);
+    when(delegate.shutdownNow()).thenReturn(List.of());
+
+    // when
+    executorService.shutdown();
+
+    // then
+    verify(delegate).shutdown();
+    assertAll("Lifecycle",
+        () -> assertTrue(executorService.awaitTermination(1, TimeUnit.SECONDS), "awaited"),
+        () -> assertTrue(executorService.isShutdown(), "shutdown"),
+        () -> assertTrue(executorService.isTerminated(), "terminated"),
+        () -> assertEquals(List.of(), executorService.shutdownNow(), "not executed tasks"));
+  }
+
+}
@@ -0,0 +1,146 @@
+package uk.bot_by.aws_lambda.slf4j;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+@Tag("fast")
+class AWSLambdaEntryBuilderTest {
+
+  @DisplayName("A builder is reused and cleared")
+  @Test
+  void reuse() {
+    // given
+    var entryBuilder = new AWSLambdaEntryBuilder();
+    var builder = entryBuilder.acquire();
+
+    builder.append("test entry");
+    entryBuilder.release();
+
+    // when
+    var nextBuilder = entryBuilder.acquire();
+
+    // then
+    assertAll("Builder is reused",
+        () -> assertSame(builder, nextBuilder),
+        () -> assertEquals(0, nextBuilder.length()),
+        () -> assertTrue(entryBuilder.isBusy()));
+  }
+
+  @DisplayName("A builder is dropped after a huge entry")
+  @Test
+  void dropHugeBuilder() {
+    // given
+    var entryBuilder = new AWSLambdaEntryBuilder();
+    var builder = entryBuilder.acquire();
+
+    builder.append("*".repeat(AWSLambdaEntryBuilder.MAX_CAPACITY + 1));
+    entryBuilder.release();
+
+    // when
+    var nextBuilder = entryBuilder.acquire();
+
+    // then
+    assertAll("Builder is replaced",
+        () -> assertNotSame(builder, nextBuilder),
+        () -> assertTrue(nextBuilder.capacity() <= AWSLambdaEntryBuilder.MAX_CAPACITY));
+  }
+
+  @DisplayName("The capacity follows the average length of entries")
+  @Test
+  void adaptiveCapacity() {
+    // given
+    var entryBuilder = new AWSLambdaEntryBuilder();
+
+    // when
+    for (int i = 0; i < 50; i++) {
+      entryBuilder.acquire().append("*".repeat(1000));
+      entryBuilder.release();
+    }
+
+    // then
+    assertAll("Capacity is adapted",
+        () -> assertTrue(entryBuilder.capacity() > AWSLambdaEntryBuilder.INITIAL_CAPACITY),
+        () -> assertTrue(entryBuilder.capacity() <= 2000));
+  }
+
+  @DisplayName("A disposable builder is returned while the thread's builder is in use")
+  @Test
+  void busyBuilder() {
+    // given
+    var entryBuilder = AWSLambdaEntryBuilder.get();
+
+    entryBuilder.acquire();
+
+    // when
+    var nestedBuilder = AWSLambdaEntryBuilder.get();
+
+    // then
+    entryBuilder.release();
+    assertAll("Nested builder",
+        () -> assertNotSame(entryBuilder, nestedBuilder),
+        () -> assertFalse(nestedBuilder.isBusy()),
+        () -> assertSame(entryBuilder, AWSLambdaEntryBuilder.get()));
+  }
+
+  @DisplayName("A print writer appends to the builder")
+  @Test
+  void printWriter() {
+    // given
+    var entryBuilder = new AWSLambdaEntryBuilder();
+    var builder = entryBuilder.acquire();
+
+    builder.append("entry ");
+
+    // when
+    entryBuilder.printWriter().print("stack trace");
+
+    // then
+    assertEquals("entry stack trace", builder.toString());
+  }
+
+  @DisplayName("Encode to UTF-8")
+  @ParameterizedTest
+  @ValueSource(strings = {"", "ascii entry", "£ and €", "запис", "\uD83D\uDE00 emoji",
+      "ascii then \uD83D\uDE00"})
+  void encode(String entry) {
+    // given
+    var entryBuilder = new AWSLambdaEntryBuilder();
+
+    entryBuilder.acquire().append(entry);
+
+    // when
+    var bytes = entryBuilder.encode();
+
+    // then
+    assertArrayEquals(entry.getBytes(UTF_8), bytes);
+  }
+
+  @DisplayName("A lone surrogate is replaced")
+  @ParameterizedTest
+  @ValueSource(strings = {"\uD83D", "\uD83D entry", "\uDE00 entry"})
+  void loneSurrogate(String entry) {
+    // given
+    var entryBuilder = new AWSLambdaEntryBuilder();
+
+    entryBuilder.acquire().append(entry);
+
+    // when
+    var bytes = entryBuilder.encode();
+
+    // then
+    assertArrayEquals(entry.getBytes(UTF_8), bytes);
+  }
+
+}
@@ -0,0 +1,179 @@
+package uk.bot_by.aws_lambda.slf4j;
+
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+
+import com.amazonaws.services.lambda.runtime.LambdaLogger;
+import java.nio.charset.StandardCharsets;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.slf4j.event.Level;
+
+@ExtendWith(MockitoExtension.class)
+@Tag("fast")
+class AWSLambdaLoggerBufferTest {
+
+  @Mock
+  private LambdaLogger lambdaLogger;
+  @Captor
+  private ArgumentCaptor<String> stringCaptor;
+
+  private AWSLambdaLoggerBuffer buffer;
+
+  @BeforeEach
+  void setUp() {
+    buffer = new AWSLambdaLoggerBuffer();
+  }
+
+  @DisplayName("Entries are kept until flush")
+  @Test
+  void keepEntries() {
+    // when
+    buffer.log(lambdaLogger, Level.INFO, "first entry");
+    buffer.log(lambdaLogger, Level.WARN, "second entry");
+
+    // then
+    verifyNoInteractions(lambdaLogger);
+    assertTrue(buffer.isBuffering());
+  }
+
+  @DisplayName("Flush writes one batch")
+  @Test
+  void flush() {
+    // given
+    buffer.log(lambdaLogger, Level.INFO, "first entry");
+    buffer.log(lambdaLogger, Level.WARN, "second entry");
+
+    // when
+    buffer.flush();
+
+    // then
+    verify(lambdaLogger).log(stringCaptor.capture());
+
+    assertAll("Batch",
+        () -> assertEquals("first entry" + System.lineSeparator() + "second entry",
+            stringCaptor.getValue(), "entries"),
+        () -> assertFalse(buffer.isBuffering(), "buffering is stopped"));
+  }
+
+  @DisplayName("Nothing to flush")
+  @Test
+  void flushNothing() {
+    // when
+    buffer.flush();
+
+    // then
+    verifyNoInteractions(lambdaLogger);
+  }
+
+  @DisplayName("An error flushes the buffer immediately")
+  @Test
+  void error() {
+    // given
+    buffer.log(lambdaLogger, Level.INFO, "info entry");
+
+    // when
+    buffer.log(lambdaLogger, Level.ERROR, "error entry");
+
+    // then
+    verify(lambdaLogger).log(stringCaptor.capture());
+
+    assertAll("Error",
+        () -> assertEquals("info entry" + System.lineSeparator() + "error entry",
+            stringCaptor.getValue(), "entries"),
+        () -> assertTrue(buffer.isBuffering(), "still buffering"));
+  }
+
+  @DisplayName("A long batch is written before it exceeds the limit")
+  @Test
+  void longBatch() {
+    // given
+    var entry = "*".repeat(AWSLambdaLoggerBuffer.MAX_BATCH_SIZE / 2);
+
+    // when
+    buffer.log(lambdaLogger, Level.INFO, entry);
+    buffer.log(lambdaLogger, Level.INFO, entry);
+    buffer.flush();
+
+    // then
+    verify(lambdaLogger, times(2)).log(entry);
+  }
+
+  @DisplayName("The batch limit counts bytes in UTF-8")
+  @Test
+  void multiByteBatch() {
+    // given
+    // three bytes per character, two entries are shorter than the limit in characters
+    var entry = "\u20ac".repeat(AWSLambdaLoggerBuffer.MAX_BATCH_SIZE / 5);
+    var fitting = "*".repeat(AWSLambdaLoggerBuffer.MAX_BATCH_SIZE - entry.length() * 3
+        - System.lineSeparator().length());
+
+    // when
+    buffer.log(lambdaLogger, Level.INFO, entry);
+    buffer.log(lambdaLogger, Level.INFO, entry);
+    buffer.log(lambdaLogger, Level.INFO, fitting);
+    buffer.flush();
+
+    // then
+    verify(lambdaLogger).log(entry);
+    verify(lambdaLogger).log(entry + System.lineSeparator() + fitting);
+  }
+
+  @DisplayName("Size of a string in UTF-8")
+  @ParameterizedTest(name = "[{index}] {0}")
+  @ValueSource(strings = {"", "ascii", "\u00e9t\u00e9", "\u20ac 5", "\ud83d\ude00 smile",
+      "lone \ud83d surrogate", "lone \ude00 surrogate"})
+  void utf8Size(String text) {
+    // when and then
+    assertEquals(text.getBytes(StandardCharsets.UTF_8).length,
+        AWSLambdaLoggerBuffer.utf8Size(text));
+  }
+
+  @DisplayName("Entries are written at once after flush")
+  @Test
+  void afterFlush() {
+    // given
+    buffer.flush();
+
+    // when
+    buffer.log(lambdaLogger, Level.INFO, "entry");
+
+    // then
+    verify(lambdaLogger).log("entry");
+  }
+
+  @DisplayName("Entries of threads share the batch")
+  @Test
+  void threads() throws InterruptedException {
+    // given
+    var thread = new Thread(() -> buffer.log(lambdaLogger, Level.INFO, "second entry"));
+
+    buffer.log(lambdaLogger, Level.INFO, "first entry");
+    thread.start();
+    thread.join();
+
+    // when
+    buffer.flush();
+
+    // then
+    verify(lambdaLogger).log(stringCaptor.capture());
+
+    assertEquals("first entry" + System.lineSeparator() + "second entry",
+        stringCaptor.getValue());
+  }
+
+}
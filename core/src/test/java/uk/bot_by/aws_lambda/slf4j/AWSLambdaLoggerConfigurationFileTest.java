@@ -0,0 +1,157 @@
+package uk.bot_by.aws_lambda.slf4j;
+
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Properties;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+@Tag("fast")
+class AWSLambdaLoggerConfigurationFileTest {
+
+  @TempDir
+  private Path directory;
+
+  private Properties defaults;
+  private Path path;
+
+  @BeforeEach
+  void setUp() {
+    defaults = new Properties();
+    defaults.setProperty("defaultLogLevel", "info");
+    defaults.setProperty("showThreadName", "true");
+    path = directory.resolve("lambda-logger.properties");
+  }
+
+  @DisplayName("The file overrides default properties")
+  @Test
+  void load() throws IOException {
+    // given
+    Files.writeString(path, "defaultLogLevel=debug");
+
+    var configurationFile = new AWSLambdaLoggerConfigurationFile(path, Duration.ZERO);
+
+    // when
+    var properties = configurationFile.loadIfModified(defaults);
+
+    // then
+    assertNotNull(properties);
+    assertAll("Overridden properties",
+        () -> assertEquals("debug", properties.getProperty("defaultLogLevel"), "from file"),
+        () -> assertEquals("true", properties.getProperty("showThreadName"), "from defaults"));
+  }
+
+  @DisplayName("Missed file")
+  @Test
+  void missedFile() {
+    // given
+    var configurationFile = new AWSLambdaLoggerConfigurationFile(path, Duration.ZERO);
+
+    // when and then
+    assertNull(configurationFile.loadIfModified(defaults));
+  }
+
+  @DisplayName("The file is not changed")
+  @Test
+  void notModified() throws IOException {
+    // given
+    Files.writeString(path, "defaultLogLevel=debug");
+
+    var configurationFile = new AWSLambdaLoggerConfigurationFile(path, Duration.ZERO);
+
+    configurationFile.loadIfModified(defaults);
+
+    // when and then
+    assertNull(configurationFile.loadIfModified(defaults));
+  }
+
+  @DisplayName("The file is changed")
+  @Test
+  void modified() throws IOException {
+    // given
+    Files.writeString(path, "defaultLogLevel=debug");
+    Files.setLastModifiedTime(path, FileTime.from(Instant.now().minusSeconds(60)));
+
+    var configurationFile = new AWSLambdaLoggerConfigurationFile(path, Duration.ZERO);
+
+    configurationFile.loadIfModified(defaults);
+    Files.writeString(path, "defaultLogLevel=trace");
+    Files.setLastModifiedTime(path, FileTime.from(Instant.now()));
+
+    // when
+    var properties = configurationFile.loadIfModified(defaults);
+
+    // then
+    assertNotNull(properties);
+    assertEquals("trace", properties.getProperty("defaultLogLevel"));
+  }
+
+  @DisplayName("The file is not checked before the check interval is elapsed")
+  @Test
+  void checkInterval() throws IOException {
+    // given
+    Files.writeString(path, "defaultLogLevel=debug");
+    Files.setLastModifiedTime(path, FileTime.from(Instant.now().minusSeconds(60)));
+
+    var configurationFile = new AWSLambdaLoggerConfigurationFile(path, Duration.ofHours(1));
+
+    configurationFile.loadIfModified(defaults);
+    Files.writeString(path, "defaultLogLevel=trace");
+    Files.setLastModifiedTime(path, FileTime.from(Instant.now()));
+
+    // when and then
+    assertNull(configurationFile.loadIfModified(defaults));
+  }
+
+  @DisplayName("The file is removed")
+  @Test
+  void removed() throws IOException {
+    // given
+    Files.writeString(path, "defaultLogLevel=debug");
+
+    var configurationFile = new AWSLambdaLoggerConfigurationFile(path, Duration.ZERO);
+
+    configurationFile.loadIfModified(defaults);
+    Files.delete(path);
+
+    // when
+    var properties = configurationFile.loadIfModified(defaults);
+
+    // then
+    assertNotNull(properties);
+    assertEquals("info", properties.getProperty("defaultLogLevel"));
+  }
+
+  @DisplayName("The file is loaded again after reset")
+  @Test
+  void reset() throws IOException {
+    // given
+    Files.writeString(path, "defaultLogLevel=debug");
+
+    var configurationFile = new AWSLambdaLoggerConfigurationFile(path, Duration.ofHours(1));
+
+    configurationFile.loadIfModified(defaults);
+
+    // when
+    configurationFile.reset();
+
+    // then
+    var properties = configurationFile.loadIfModified(defaults);
+
+    assertNotNull(properties);
+    assertEquals("debug", properties.getProperty("defaultLogLevel"));
+  }
+
+}
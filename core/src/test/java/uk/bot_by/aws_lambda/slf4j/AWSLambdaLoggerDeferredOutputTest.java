@@ -0,0 +1,107 @@
+package uk.bot_by.aws_lambda.slf4j;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+import java.util.function.Supplier;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.slf4j.event.KeyValuePair;
+import org.slf4j.event.Level;
+import org.slf4j.event.LoggingEvent;
+
+@ExtendWith(MockitoExtension.class)
+@Tag("fast")
+class AWSLambdaLoggerDeferredOutputTest {
+
+  @Mock
+  private AWSLambdaLoggerConfiguration configuration;
+  @Mock
+  private AWSLambdaLoggerOutput output;
+  @Mock
+  private Supplier<AWSLambdaLoggerOutput> outputSupplier;
+
+  private AWSLambdaLoggerDeferredOutput deferredOutput;
+
+  @BeforeEach
+  void setUp() {
+    deferredOutput = new AWSLambdaLoggerDeferredOutput(outputSupplier);
+  }
+
+  @DisplayName("The output is not looked up until the first event")
+  @Test
+  void noEvents() {
+    // then
+    verifyNoInteractions(outputSupplier);
+  }
+
+  @DisplayName("The output is looked up once")
+  @Test
+  void lookUpOnce() {
+    // given
+    when(outputSupplier.get()).thenReturn(output);
+
+    // when
+    deferredOutput.log(configuration, null, Level.INFO, "first message", null);
+    deferredOutput.log(configuration, null, Level.INFO, "second message", null);
+
+    // then
+    verify(outputSupplier).get();
+    verify(output).log(configuration, null, Level.INFO, "first message", null);
+    verify(output).log(configuration, null, Level.INFO, "second message", null);
+  }
+
+  @DisplayName("Key-value pairs")
+  @Test
+  void keyValuePairs() {
+    // given
+    var keyValuePairs = List.of(new KeyValuePair("key", "value"));
+
+    when(outputSupplier.get()).thenReturn(output);
+
+    // when
+    deferredOutput.log(configuration, null, Level.INFO, "test message", keyValuePairs, null);
+
+    // then
+    verify(output).log(configuration, null, Level.INFO, "test message", keyValuePairs, null);
+  }
+
+  @DisplayName("Logging event")
+  @Test
+  void loggingEvent() {
+    // given
+    var event = mock(LoggingEvent.class);
+
+    when(outputSupplier.get()).thenReturn(output);
+
+    // when
+    deferredOutput.log(configuration, event);
+
+    // then
+    verify(output).log(configuration, event);
+  }
+
+  @DisplayName("Priming")
+  @Test
+  void prime() {
+    // given
+    when(outputSupplier.get()).thenReturn(output);
+
+    // when
+    deferredOutput.prime(configuration, null, Level.INFO, "test message", null, null);
+
+    // then
+    verify(output).prime(any(), any(), any(), anyString(), any(), any());
+  }
+
+}
@@ -1,17 +1,38 @@
 package uk.bot_by.aws_lambda.slf4j;
 
+import static org.junit.jupiter.api.Assertions.assertAll;
 import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 
 import org.example.ServiceProvider;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Tag;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.slf4j.Logger;
+import org.slf4j.event.Level;
+import uk.bot_by.aws_lambda.slf4j.AWSLambdaLoggerFilter.Decision;
 
+@ExtendWith(MockitoExtension.class)
 @Tag("slow")
 class AWSLambdaLoggerFactoryTest {
 
+  @Mock
+  private AWSLambdaLoggerOutput output;
+
   @DisplayName("Custom output service provider")
   @Test
   void customOutputServiceProvider() {
@@ -34,4 +55,139 @@ class AWSLambdaLoggerFactoryTest {
     assertEquals("No AWS Lambda Logger providers were found", exception.getMessage());
   }
 
-}
\ No newline at end of file
+  @DisplayName("Priming does not write to the log")
+  @Test
+  void prime() {
+    // given
+    var loggerFactory = spy(new AWSLambdaLoggerFactory("default-log-level-info.properties"));
+
+    doReturn(output).when(loggerFactory).getOutput();
+
+    // when
+    loggerFactory.prime(2);
+
+    // then
+    verify(output, times(14)).prime(any(), any(), any(), anyString(), any(), any());
+    verify(output, never()).log(any(), any(), any(), anyString(), any());
+    verify(output, never()).log(any(), any(), any(), anyString(), any(), any());
+  }
+
+  @DisplayName("The output is looked up once on the first event")
+  @Test
+  void deferredOutput() {
+    // given
+    var loggerFactory = spy(new AWSLambdaLoggerFactory("default-log-level-info.properties"));
+
+    doReturn(output).when(loggerFactory).getOutput();
+
+    var logger = loggerFactory.getLogger("org.test.Class");
+    var anotherLogger = loggerFactory.getLogger("org.test.AnotherClass");
+
+    logger.debug("disabled message");
+    verify(loggerFactory, never()).getOutput();
+
+    // when
+    logger.info("first message");
+    anotherLogger.info("second message");
+
+    // then
+    verify(loggerFactory).getOutput();
+    verify(output, times(2)).log(any(), isNull(), any(), anyString(), isNull());
+  }
+
+  @DisplayName("Add and remove a filter at run time")
+  @Test
+  void addFilter() {
+    // given
+    var loggerFactory = spy(new AWSLambdaLoggerFactory("default-log-level-info.properties"));
+    AWSLambdaLoggerFilter filter = (logger, level, marker, format, arguments) ->
+        "rejected message".equals(format) ? Decision.DENY : Decision.NEUTRAL;
+
+    doReturn(output).when(loggerFactory).getOutput();
+
+    var logger = loggerFactory.getLogger("org.test.Class");
+
+    // when
+    loggerFactory.addFilter(filter);
+    logger.info("rejected message");
+    loggerFactory.removeFilter(filter);
+    logger.info("rejected message");
+
+    // then
+    verify(output).log(any(), isNull(), any(), anyString(), isNull());
+  }
+
+  @DisplayName("Change a level of loggers by a prefix")
+  @Test
+  void setLevelByPrefix() {
+    // given
+    var loggerFactory = spy(new AWSLambdaLoggerFactory("default-log-level-info.properties"));
+
+    var existingLogger = loggerFactory.getLogger("org.test.Class");
+    var anotherLogger = loggerFactory.getLogger("org.testing.Class");
+
+    // when
+    loggerFactory.setLevel("org.test", Level.TRACE);
+
+    // then
+    assertAll("Loggers of the group",
+        () -> assertTrue(existingLogger.isTraceEnabled(), "existing logger"),
+        () -> assertTrue(loggerFactory.getLogger("org.test.sub.Class").isTraceEnabled(),
+            "new logger"),
+        () -> assertFalse(anotherLogger.isDebugEnabled(), "logger with a similar name"));
+  }
+
+  @DisplayName("The longest name takes precedence")
+  @Test
+  void setLevelLongestName() {
+    // given
+    var loggerFactory = spy(new AWSLambdaLoggerFactory("default-log-level-info.properties"));
+
+    var logger = loggerFactory.getLogger("org.test.Class");
+
+    // when
+    loggerFactory.setLevel("org.test.Class", Level.ERROR);
+    loggerFactory.setLevel("org", Level.TRACE);
+
+    // then
+    assertAll("Loggers of the group",
+        () -> assertFalse(logger.isWarnEnabled(), "logger"),
+        () -> assertTrue(loggerFactory.getLogger("org.Class").isTraceEnabled(), "parent"));
+  }
+
+  @DisplayName("Change levels of all loggers")
+  @Test
+  void setLevelRoot() {
+    // given
+    var loggerFactory = spy(new AWSLambdaLoggerFactory("class-log-level-multi.properties"));
+
+    var logger = loggerFactory.getLogger("org.test.Class");
+
+    // when
+    loggerFactory.setLevel(Logger.ROOT_LOGGER_NAME, Level.ERROR);
+
+    // then
+    assertAll("All loggers",
+        () -> assertFalse(logger.isWarnEnabled(), "logger"),
+        () -> assertFalse(loggerFactory.getLogger("com.example.Class").isWarnEnabled(),
+            "new logger"));
+  }
+
+  @DisplayName("Remove a level set at run time")
+  @Test
+  void resetLevel() {
+    // given
+    var loggerFactory = spy(new AWSLambdaLoggerFactory("class-log-level-multi.properties"));
+
+    var logger = loggerFactory.getLogger("org.test.Class");
+
+    loggerFactory.setLevel("org.test.Class", Level.ERROR);
+
+    // when
+    loggerFactory.setLevel("org.test.Class", null);
+
+    // then
+    assertTrue(logger.isWarnEnabled());
+  }
+
+}
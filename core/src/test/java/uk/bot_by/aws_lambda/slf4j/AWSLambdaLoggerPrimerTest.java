@@ -0,0 +1,104 @@
+package uk.bot_by.aws_lambda.slf4j;
+
+import static java.util.Objects.nonNull;
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.slf4j.Marker;
+import org.slf4j.event.KeyValuePair;
+import org.slf4j.event.Level;
+
+@ExtendWith(MockitoExtension.class)
+@Tag("fast")
+class AWSLambdaLoggerPrimerTest {
+
+  @Captor
+  private ArgumentCaptor<Level> levelCaptor;
+  @Captor
+  private ArgumentCaptor<Marker> markerCaptor;
+  @Mock
+  private AWSLambdaLoggerOutput output;
+  @Captor
+  private ArgumentCaptor<Throwable> throwableCaptor;
+
+  private AWSLambdaLoggerConfiguration configuration;
+
+  @BeforeEach
+  void setUp() {
+    configuration = AWSLambdaLoggerConfiguration.builder().name("test").requestId("request#")
+        .loggerLevel(Level.TRACE).build();
+  }
+
+  @DisplayName("Events go to the output to be discarded")
+  @Test
+  void prime() {
+    // given
+    var keyValuePairs = new ArrayList<KeyValuePair>();
+
+    // the fluent builder clears its key-value pairs after logging
+    doAnswer(invocation -> {
+      List<KeyValuePair> eventKeyValuePairs = invocation.getArgument(4);
+
+      if (nonNull(eventKeyValuePairs)) {
+        keyValuePairs.addAll(eventKeyValuePairs);
+      }
+      return null;
+    }).when(output).prime(any(), any(), any(), anyString(), any(), any());
+
+    // when
+    new AWSLambdaLoggerPrimer(output).prime(configuration, 3);
+
+    // then
+    verify(output, times(21)).prime(any(), markerCaptor.capture(), levelCaptor.capture(),
+        anyString(), any(), throwableCaptor.capture());
+    verify(output, never()).log(any(), any(), any(), anyString(), any());
+    verify(output, never()).log(any(), any(), any(), anyString(), any(), any());
+
+    assertAll("All kinds of events",
+        () -> assertTrue(levelCaptor.getAllValues().containsAll(List.of(Level.values())),
+            "all levels"),
+        () -> assertTrue(markerCaptor.getAllValues().stream().anyMatch(
+            marker -> nonNull(marker) && "priming".equals(marker.getName())), "marker"),
+        () -> assertEquals(3, keyValuePairs.size(), "key-value pairs"),
+        () -> assertTrue(throwableCaptor.getAllValues().stream().anyMatch(
+            Objects::nonNull), "throwable"));
+  }
+
+  @DisplayName("Lazy arguments are resolved")
+  @Test
+  void lazyArgument() {
+    // given
+    var messageCaptor = ArgumentCaptor.forClass(String.class);
+
+    // when
+    new AWSLambdaLoggerPrimer(output).prime(configuration, 1);
+
+    // then
+    verify(output, times(7)).prime(any(), any(), levelCaptor.capture(), messageCaptor.capture(),
+        any(), any());
+
+    var warning = levelCaptor.getAllValues().indexOf(Level.WARN);
+
+    assertEquals("priming argument", messageCaptor.getAllValues().get(warning));
+  }
+
+}
@@ -0,0 +1,52 @@
+package uk.bot_by.aws_lambda.slf4j;
+
+import static org.mockito.Mockito.verify;
+
+import org.crac.Context;
+import org.crac.Resource;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+@Tag("fast")
+class AWSLambdaLoggerResourceTest {
+
+  @Mock
+  private Context<Resource> context;
+  @Mock
+  private AWSLambdaLoggerFactory loggerFactory;
+
+  private AWSLambdaLoggerResource resource;
+
+  @BeforeEach
+  void setUp() {
+    resource = new AWSLambdaLoggerResource(loggerFactory);
+  }
+
+  @DisplayName("Prime the factory and flush the buffer before checkpoint")
+  @Test
+  void beforeCheckpoint() {
+    // when
+    resource.beforeCheckpoint(context);
+
+    // then
+    verify(loggerFactory).prime();
+    verify(loggerFactory).flush();
+  }
+
+  @DisplayName("Restore the factory after restore")
+  @Test
+  void afterRestore() {
+    // when
+    resource.afterRestore(context);
+
+    // then
+    verify(loggerFactory).restore();
+  }
+
+}
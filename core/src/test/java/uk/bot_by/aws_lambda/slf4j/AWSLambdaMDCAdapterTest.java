@@ -0,0 +1,60 @@
+package uk.bot_by.aws_lambda.slf4j;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+@Tag("fast")
+class AWSLambdaMDCAdapterTest {
+
+  @Mock
+  private AWSLambdaLoggerFactory loggerFactory;
+
+  private AWSLambdaMDCAdapter contextMapAdapter;
+
+  @BeforeEach
+  void setUp() {
+    contextMapAdapter = new AWSLambdaMDCAdapter(loggerFactory);
+  }
+
+  @DisplayName("Flush the buffer and check the configuration when the request ID is put")
+  @Test
+  void requestId() {
+    // given
+    when(loggerFactory.isRequestIdKey("request#")).thenReturn(true);
+
+    // when
+    contextMapAdapter.put("request#", "123-456-789-abc-0");
+
+    // then
+    verify(loggerFactory).flush();
+    verify(loggerFactory).checkConfiguration();
+    assertEquals("123-456-789-abc-0", contextMapAdapter.get("request#"));
+  }
+
+  @DisplayName("Other keys do not touch the configuration")
+  @Test
+  void otherKey() {
+    // given
+    when(loggerFactory.isRequestIdKey("key")).thenReturn(false);
+
+    // when
+    contextMapAdapter.put("key", "value");
+
+    // then
+    verify(loggerFactory, never()).flush();
+    verify(loggerFactory, never()).checkConfiguration();
+    assertEquals("value", contextMapAdapter.get("key"));
+  }
+
+}
@@ -0,0 +1,96 @@
+package uk.bot_by.aws_lambda.slf4j;
+
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.junit.jupiter.params.provider.NullSource;
+import org.junit.jupiter.params.provider.ValueSource;
+
+@Tag("fast")
+class AWSLambdaMaskerTest {
+
+  @DisplayName("Mask sensitive data")
+  @ParameterizedTest
+  @CsvSource(value = {
+      "card|card 4111 1111 1111 1111 is declined|card **** **** **** 1111 is declined",
+      "card|card 4111-1111-1111-1111|card ****-****-****-1111",
+      "card|4111111111111111|************1111",
+      "email|user john.doe@example.com logged in|user j*******@example.com logged in",
+      "password=*|login password=s3cret&user=john|login password=******&user=john",
+      "Authorization: Bearer *|authorization: bearer eyJhbGc.payload rest"
+          + "|authorization: bearer *************** rest",
+      "xoxb-12345|token xoxb-12345 leaked|token ********** leaked",
+      "abcd,bce|abce|a***",
+      "пароль=*|пароль=секрет ok|пароль=****** ok",
+      "card,email,\"password\":\"*"
+          + "|{\"card\":\"5555555555554444\",\"email\":\"jane@example.org\",\"password\":\"pa$$\"}"
+          + "|{\"card\":\"************4444\",\"email\":\"j***@example.org\","
+          + "\"password\":\"****\"}"},
+      delimiter = '|')
+  void mask(String rules, String entry, String expected) {
+    // given
+    var masker = AWSLambdaMasker.compile(rules);
+    var builder = new StringBuilder(entry);
+
+    // when
+    var masked = masker.mask(builder);
+
+    // then
+    assertAll("Masked",
+        () -> assertTrue(masked),
+        () -> assertEquals(expected, builder.toString()));
+  }
+
+  @DisplayName("Nothing to mask")
+  @ParameterizedTest
+  @ValueSource(strings = {"card 4111111111111112 fails the Luhn check",
+      "timestamp 1700000000004", "order a4111111111111111", "user john@localhost",
+      "password= is empty", "the same length"})
+  void nothingToMask(String entry) {
+    // given
+    var masker = AWSLambdaMasker.compile("card, email, password=*");
+    var builder = new StringBuilder(entry);
+
+    // when
+    var masked = masker.mask(builder);
+
+    // then
+    assertAll("Not masked",
+        () -> assertFalse(masked),
+        () -> assertEquals(entry, builder.toString()));
+  }
+
+  @DisplayName("No rules")
+  @ParameterizedTest
+  @NullSource
+  @ValueSource(strings = {"", " , ", "*"})
+  void noRules(String rules) {
+    // when and then
+    assertNull(AWSLambdaMasker.compile(rules));
+  }
+
+  @DisplayName("A bad rule is skipped")
+  @Test
+  void badRule() {
+    // when
+    var masker = AWSLambdaMasker.compile("*,secret");
+
+    // then
+    assertNotNull(masker);
+
+    var builder = new StringBuilder("a secret * b");
+
+    masker.mask(builder);
+    assertEquals("a ****** * b", builder.toString());
+  }
+
+}
@@ -0,0 +1,119 @@
+package uk.bot_by.aws_lambda.slf4j;
+
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import java.util.stream.Stream;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.slf4j.helpers.MessageFormatter;
+
+@Tag("fast")
+class AWSLambdaMessageFormatterTest {
+
+  static Stream<Arguments> patterns() {
+    var selfContaining = new Object[2];
+
+    selfContaining[0] = "a";
+    selfContaining[1] = selfContaining;
+
+    return Stream.of(
+        Arguments.of("no placeholders", new Object[]{"a"}),
+        Arguments.of("{}", new Object[]{"a"}),
+        Arguments.of("{} and {}", new Object[]{"a", "b"}),
+        Arguments.of("{} and {}", new Object[]{"a"}),
+        Arguments.of("{}", new Object[]{"a", "b"}),
+        Arguments.of("value is {}.", new Object[]{null}),
+        Arguments.of("escaped \\{} and {}", new Object[]{"a"}),
+        Arguments.of("double escaped \\\\{} and {}", new Object[]{"a", "b"}),
+        Arguments.of("\\{}\\{}", new Object[]{"a"}),
+        Arguments.of("{", new Object[]{"a"}),
+        Arguments.of("{{}}", new Object[]{"a"}),
+        Arguments.of("{}{}{}", new Object[]{"a", "b", "c"}),
+        Arguments.of("rest \\{} after {}", new Object[]{"a", "b"}),
+        Arguments.of("{} then \\{} and {}", new Object[]{"a"}),
+        Arguments.of("{} then \\{}", new Object[]{"a"}),
+        Arguments.of("{} then \\{}", new Object[]{"a", "b"}),
+        Arguments.of("booleans {}", new Object[]{new boolean[]{true, false}}),
+        Arguments.of("bytes {}", new Object[]{new byte[]{1, 2}}),
+        Arguments.of("chars {}", new Object[]{new char[]{'a', 'b'}}),
+        Arguments.of("shorts {}", new Object[]{new short[]{1, 2}}),
+        Arguments.of("ints {}", new Object[]{new int[]{1, 2}}),
+        Arguments.of("longs {}", new Object[]{new long[]{1, 2}}),
+        Arguments.of("floats {}", new Object[]{new float[]{1.5f, 2}}),
+        Arguments.of("doubles {}", new Object[]{new double[]{1.5, 2}}),
+        Arguments.of("empty {}", new Object[]{new int[0]}),
+        Arguments.of("objects {}", new Object[]{new Object[]{"a", null, new int[]{1}}}),
+        Arguments.of("nested {}", new Object[]{new Object[][]{{"a"}, {"b", "c"}}}),
+        Arguments.of("self {}", new Object[]{selfContaining}),
+        Arguments.of("failed {}", new Object[]{new FailingToString()}));
+  }
+
+  @DisplayName("Format like MessageFormatter")
+  @ParameterizedTest
+  @MethodSource("patterns")
+  void compatibility(String pattern, Object[] arguments) {
+    // when
+    var message = AWSLambdaMessageFormatter.format(pattern, arguments, arguments.length);
+
+    // then
+    assertEquals(MessageFormatter.arrayFormat(pattern, arguments).getMessage(), message);
+  }
+
+  @DisplayName("The throwable candidate is not formatted")
+  @Test
+  void throwableCandidate() {
+    // given
+    var exception = new IllegalStateException("test exception");
+    var arguments = new Object[]{"a", exception};
+
+    // when
+    var throwable = AWSLambdaMessageFormatter.getThrowableCandidate(arguments);
+    var message = AWSLambdaMessageFormatter.format("{} and {}", arguments, 1);
+
+    // then
+    var formattingTuple = MessageFormatter.arrayFormat("{} and {}", arguments);
+
+    assertAll("Throwable",
+        () -> assertSame(formattingTuple.getThrowable(), throwable),
+        () -> assertEquals(formattingTuple.getMessage(), message));
+  }
+
+  @DisplayName("There is no throwable candidate")
+  @Test
+  void noThrowableCandidate() {
+    assertAll("Throwable",
+        () -> assertNull(AWSLambdaMessageFormatter.getThrowableCandidate(null)),
+        () -> assertNull(AWSLambdaMessageFormatter.getThrowableCandidate(new Object[0])),
+        () -> assertNull(AWSLambdaMessageFormatter.getThrowableCandidate(new Object[]{"a"})));
+  }
+
+  @DisplayName("A pattern without arguments or placeholders is returned as it is")
+  @Test
+  void samePattern() {
+    // given
+    var pattern = "no {placeholders}";
+
+    // when and then
+    assertAll("Pattern",
+        () -> assertSame(pattern, AWSLambdaMessageFormatter.format(pattern, null, 0)),
+        () -> assertSame(pattern, AWSLambdaMessageFormatter.format(pattern, new Object[]{"a"}, 1)),
+        () -> assertNull(AWSLambdaMessageFormatter.format(null, new Object[]{"a"}, 1)));
+  }
+
+  private static class FailingToString {
+
+    @Override
+    public String toString() {
+      throw new IllegalStateException("test exception");
+    }
+
+  }
+
+}
@@ -0,0 +1,162 @@
+package uk.bot_by.aws_lambda.slf4j;
+
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+@Tag("fast")
+class AWSLambdaMessageTemplateTest {
+
+  @BeforeEach
+  void setUp() {
+    AWSLambdaMessageTemplate.clearCache();
+  }
+
+  @DisplayName("Parse a pattern")
+  @Test
+  void parse() {
+    // when
+    var template = AWSLambdaMessageTemplate.parse("a {} b \\{} c \\\\{} d");
+
+    // then
+    assertAll("Template",
+        () -> assertFalse(template.isLiteral()),
+        () -> assertEquals(2, template.placeholderCount()),
+        () -> assertEquals("a ", template.literal(0)),
+        () -> assertEquals(" b {} c \\", template.literal(1)),
+        () -> assertEquals(" d", template.literal(2)),
+        () -> assertEquals(4, template.placeholderEnd(0)),
+        () -> assertEquals(17, template.placeholderEnd(1)));
+  }
+
+  @DisplayName("A pattern without delimiters is a literal")
+  @Test
+  void literal() {
+    // when
+    var template = AWSLambdaMessageTemplate.parse("no {placeholders}");
+
+    // then
+    assertAll("Template",
+        () -> assertTrue(template.isLiteral()),
+        () -> assertEquals(0, template.placeholderCount()));
+  }
+
+  @DisplayName("A template is found by identity and by equality")
+  @Test
+  void cache() {
+    // given
+    var pattern = "cached {}";
+    var template = AWSLambdaMessageTemplate.of(pattern);
+
+    // when and then
+    assertAll("Cache",
+        () -> assertTrue(AWSLambdaMessageTemplate.isCached(pattern)),
+        () -> assertSame(template, AWSLambdaMessageTemplate.of(pattern)),
+        () -> assertSame(template, AWSLambdaMessageTemplate.of(new String(pattern))));
+  }
+
+  @DisplayName("Dynamic patterns do not grow the cache")
+  @Test
+  void eviction() {
+    // given
+    var pattern = "evicted {}";
+    var template = AWSLambdaMessageTemplate.of(pattern);
+
+    // when
+    for (int i = 0; i < AWSLambdaMessageTemplate.CACHE_SIZE * 8; i++) {
+      AWSLambdaMessageTemplate.of("dynamic " + i + " {}");
+    }
+
+    // then
+    assertAll("Eviction",
+        () -> assertFalse(AWSLambdaMessageTemplate.isCached(pattern)),
+        () -> assertNotSame(template, AWSLambdaMessageTemplate.of(pattern)));
+  }
+
+  @DisplayName("A long pattern is not cached")
+  @Test
+  void longPattern() {
+    // given
+    var pattern = "{}".repeat(AWSLambdaMessageTemplate.MAX_PATTERN_LENGTH);
+
+    // when
+    AWSLambdaMessageTemplate.of(pattern);
+
+    // then
+    assertFalse(AWSLambdaMessageTemplate.isCached(pattern));
+  }
+
+  @DisplayName("Load patterns of a template index")
+  @Test
+  void loadIndex(@TempDir Path directory) throws IOException {
+    // given
+    var index = directory.resolve(AWSLambdaMessageTemplate.TEMPLATE_INDEX);
+
+    Files.createDirectories(index.getParent());
+    Files.writeString(index, "indexed {}\nmulti\\nline {}\nescaped \\\\\\\\{}\n\n",
+        StandardCharsets.UTF_8);
+
+    try (var classLoader = new URLClassLoader(new URL[]{directory.toUri().toURL()}, null)) {
+      // when
+      var templates = AWSLambdaMessageTemplate.loadIndex(classLoader);
+
+      // then
+      assertAll("Index",
+          () -> assertEquals(3, templates.size()),
+          () -> assertTrue(templates.containsKey("indexed {}")),
+          () -> assertTrue(templates.containsKey("multi\nline {}")),
+          () -> assertEquals(1, templates.get("escaped \\\\{}").placeholderCount()));
+    }
+  }
+
+  @DisplayName("Nothing is loaded without a class loader")
+  @Test
+  void loadIndexWithoutClassLoader() {
+    // when and then
+    assertTrue(AWSLambdaMessageTemplate.loadIndex(null).isEmpty());
+  }
+
+  @DisplayName("The index is read on the first miss, dynamic patterns do not evict its templates")
+  @Test
+  void indexedTemplates(@TempDir Path directory) throws IOException {
+    // given
+    var index = directory.resolve(AWSLambdaMessageTemplate.TEMPLATE_INDEX);
+    var thread = Thread.currentThread();
+    var contextClassLoader = thread.getContextClassLoader();
+
+    Files.createDirectories(index.getParent());
+    Files.writeString(index, "indexed {}\n", StandardCharsets.UTF_8);
+
+    try (var classLoader = new URLClassLoader(new URL[]{directory.toUri().toURL()}, null)) {
+      thread.setContextClassLoader(classLoader);
+
+      var template = AWSLambdaMessageTemplate.of("indexed {}");
+
+      // when
+      for (int i = 0; i < AWSLambdaMessageTemplate.CACHE_SIZE * 8; i++) {
+        AWSLambdaMessageTemplate.of("dynamic " + i + " {}");
+      }
+
+      // then
+      assertSame(template, AWSLambdaMessageTemplate.of("indexed {}"));
+    } finally {
+      thread.setContextClassLoader(contextClassLoader);
+    }
+  }
+
+}
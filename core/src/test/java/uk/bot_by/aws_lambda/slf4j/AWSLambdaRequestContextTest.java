@@ -0,0 +1,324 @@
+package uk.bot_by.aws_lambda.slf4j;
+
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.MDC;
+import org.slf4j.event.Level;
+
+@Tag("fast")
+class AWSLambdaRequestContextTest {
+
+  @AfterEach
+  void tearDown() {
+    MDC.clear();
+  }
+
+  @DisplayName("Bind a context while a task runs")
+  @Test
+  void run() {
+    // given
+    var requestId = new AtomicReference<String>();
+    var fields = new AtomicReference<Map<String, String>>();
+
+    // when
+    AWSLambdaRequestContext.run("123-456-789-abc-0", Map.of("key", "value"), () -> {
+      requestId.set(AWSLambdaRequestContext.current().requestId());
+      fields.set(AWSLambdaRequestContext.current().fields());
+    });
+
+    // then
+    assertAll("Request context",
+        () -> assertEquals("123-456-789-abc-0", requestId.get(), "request ID"),
+        () -> assertEquals(Map.of("key", "value"), fields.get(), "fields"),
+        () -> assertThrows(UnsupportedOperationException.class,
+            () -> fields.get().put("another", "value"), "unmodifiable fields"),
+        () -> assertNull(AWSLambdaRequestContext.current(), "unbound after the task"));
+  }
+
+  @DisplayName("Return the result of a task")
+  @Test
+  void call() throws Exception {
+    // when
+    var result = AWSLambdaRequestContext.call("123-456-789-abc-0", Map.of(),
+        () -> AWSLambdaRequestContext.getRequestId("request#"));
+
+    // then
+    assertEquals("123-456-789-abc-0", result);
+  }
+
+  @DisplayName("Restore the previous context after a nested task")
+  @Test
+  void nested() {
+    // given
+    var inner = new AtomicReference<String>();
+    var outer = new AtomicReference<String>();
+
+    // when
+    AWSLambdaRequestContext.run("outer", Map.of(), () -> {
+      AWSLambdaRequestContext.run("inner", Map.of(),
+          () -> inner.set(AWSLambdaRequestContext.current().requestId()));
+      outer.set(AWSLambdaRequestContext.current().requestId());
+    });
+
+    // then
+    assertAll("Nested contexts",
+        () -> assertEquals("inner", inner.get(), "inner"),
+        () -> assertEquals("outer", outer.get(), "outer"));
+  }
+
+  @DisplayName("A thread started inside the task gets the same context by a wrapped task only")
+  @Test
+  void noInheritance() {
+    // given
+    var childContext = new AtomicReference<AWSLambdaRequestContext>();
+    var parentContext = new AtomicReference<AWSLambdaRequestContext>();
+    var wrappedContext = new AtomicReference<AWSLambdaRequestContext>();
+
+    // when
+    AWSLambdaRequestContext.run("123-456-789-abc-0", Map.of("key", "value"), () -> {
+      var thread = new Thread(() -> childContext.set(AWSLambdaRequestContext.current()));
+      var wrapped = new Thread(AWSLambdaRequestContext.wrap(
+          (Runnable) () -> wrappedContext.set(AWSLambdaRequestContext.current())));
+
+      parentContext.set(AWSLambdaRequestContext.current());
+      thread.start();
+      wrapped.start();
+      try {
+        thread.join();
+        wrapped.join();
+      } catch (InterruptedException exception) {
+        Thread.currentThread().interrupt();
+      }
+    });
+
+    // then
+    assertAll("Threads",
+        () -> assertNull(childContext.get(), "not inherited"),
+        () -> assertSame(parentContext.get(), wrappedContext.get(), "wrapped"));
+  }
+
+  @DisplayName("A forked subtask gets the context if the callable is wrapped")
+  @Test
+  void forkedSubtask() throws Exception {
+    // given
+    // StructuredTaskScope.fork runs a callable in a new thread like this
+    Function<Callable<String>, FutureTask<String>> fork = callable -> {
+      var subtask = new FutureTask<>(callable);
+
+      new Thread(subtask).start();
+
+      return subtask;
+    };
+    Callable<String> requestId = () -> AWSLambdaRequestContext.getRequestId("request#");
+
+    // when
+    var subtasks = AWSLambdaRequestContext.call("123-456-789-abc-0", Map.of(),
+        () -> List.of(fork.apply(requestId),
+            fork.apply(AWSLambdaRequestContext.wrap(requestId))));
+
+    // then
+    assertAll("Subtasks",
+        () -> assertNull(subtasks.get(0).get(), "not wrapped"),
+        () -> assertEquals("123-456-789-abc-0", subtasks.get(1).get(), "wrapped"));
+  }
+
+  @DisplayName("Get AWS request ID from MDC if there is no context")
+  @Test
+  void requestIdFromMDC() {
+    // given
+    MDC.put("request#", "123-456-789-abc-0");
+
+    // when and then
+    assertEquals("123-456-789-abc-0", AWSLambdaRequestContext.getRequestId("request#"));
+  }
+
+  @DisplayName("A wrapped task runs with the context of its submitter")
+  @Test
+  void wrapRunnable() throws Exception {
+    // given
+    var executor = Executors.newSingleThreadExecutor();
+    var requestId = new AtomicReference<String>();
+
+    try {
+      // when
+      AWSLambdaRequestContext.call("123-456-789-abc-0", Map.of(), () -> executor.submit(
+              AWSLambdaRequestContext.wrap(
+                  (Runnable) () -> requestId.set(AWSLambdaRequestContext.current().requestId())))
+          .get());
+
+      // then
+      assertEquals("123-456-789-abc-0", requestId.get());
+    } finally {
+      executor.shutdown();
+    }
+  }
+
+  @DisplayName("A pooled thread started inside a task does not keep its context")
+  @Test
+  void wrapWithoutContext() throws Exception {
+    // given
+    var executor = AWSLambdaRequestContext.call("stale", Map.of(), () -> {
+      var pool = Executors.newSingleThreadExecutor();
+
+      // the pooled thread is started inside the context
+      pool.submit(() -> {
+      }).get();
+      return pool;
+    });
+
+    try {
+      // when
+      var context = executor.submit(AWSLambdaRequestContext::current).get();
+      var wrappedContext = executor.submit(
+          AWSLambdaRequestContext.wrap(AWSLambdaRequestContext::current)).get();
+      var requestId = executor.submit(() -> AWSLambdaRequestContext.getRequestId("request#"))
+          .get();
+
+      // then
+      assertAll("Pooled thread",
+          () -> assertNull(context, "context"),
+          () -> assertNull(wrappedContext, "wrapped context"),
+          () -> assertNull(requestId, "request ID"));
+    } finally {
+      executor.shutdown();
+    }
+  }
+
+  @DisplayName("A wrapped executor service captures the context on submit")
+  @Test
+  void wrapExecutorService() throws Exception {
+    // given
+    var executorService = AWSLambdaRequestContext.wrap(Executors.newFixedThreadPool(2));
+
+    try {
+      // when
+      var requestIds = AWSLambdaRequestContext.call("123-456-789-abc-0", Map.of(),
+          () -> executorService.invokeAll(
+              List.of(() -> AWSLambdaRequestContext.getRequestId("request#"),
+                  () -> AWSLambdaRequestContext.getRequestId("request#"))));
+
+      // then
+      for (var requestId : requestIds) {
+        assertEquals("123-456-789-abc-0", requestId.get());
+      }
+    } finally {
+      executorService.shutdown();
+    }
+  }
+
+  @DisplayName("A wrapped executor propagates the context to a completable future")
+  @Test
+  void wrapExecutor() throws Exception {
+    // given
+    var executorService = Executors.newSingleThreadExecutor();
+    var executor = AWSLambdaRequestContext.wrap((Executor) executorService);
+
+    try {
+      // when
+      var requestId = AWSLambdaRequestContext.call("123-456-789-abc-0", Map.of(),
+          () -> CompletableFuture.supplyAsync(() -> AWSLambdaRequestContext.getRequestId("request#"),
+              executor)).get();
+
+      // then
+      assertEquals("123-456-789-abc-0", requestId);
+    } finally {
+      executorService.shutdown();
+    }
+  }
+
+  @DisplayName("A task that runs after its invocation does not use the flushed buffer")
+  @Test
+  void closedInvocation() throws Exception {
+    // given
+    var configuration = AWSLambdaLoggerConfiguration.builder().name("test")
+        .loggerLevel(Level.INFO).requestId("request#").build();
+    var invocationBuffer = new AWSLambdaLoggerBuffer();
+    var context = new AWSLambdaRequestContext("123-456-789-abc-0", Map.of(), invocationBuffer);
+    var executor = Executors.newSingleThreadExecutor();
+    var invocationCompleted = new CountDownLatch(1);
+    Future<AWSLambdaLoggerBuffer> contextBuffer;
+    Future<String> requestId;
+
+    try {
+      var previous = AWSLambdaRequestContext.swap(context);
+
+      try {
+        // the pooled thread is created inside the invocation
+        contextBuffer = executor.submit(AWSLambdaRequestContext.wrap(() -> {
+          invocationCompleted.await();
+          return AWSLambdaRequestContext.getBuffer(configuration);
+        }));
+        requestId = executor.submit(
+            AWSLambdaRequestContext.wrap(() -> AWSLambdaRequestContext.getRequestId("request#")));
+      } finally {
+        AWSLambdaRequestContext.swap(previous);
+        context.flush();
+      }
+
+      // when
+      invocationCompleted.countDown();
+
+      // then
+      assertAll("Completed invocation",
+          () -> assertNull(contextBuffer.get(), "buffer"),
+          () -> assertEquals("123-456-789-abc-0", requestId.get(), "request ID"),
+          () -> assertFalse(invocationBuffer.isBuffering(), "flushed"));
+    } finally {
+      executor.shutdown();
+    }
+  }
+
+  @DisplayName("Use the init buffer if the context does not buffer")
+  @Test
+  void initBuffer() {
+    // given
+    var buffer = new AWSLambdaLoggerBuffer();
+    var configuration = AWSLambdaLoggerConfiguration.builder().name("test").buffer(buffer)
+        .loggerLevel(Level.INFO).requestId("request#").build();
+    var contextBuffer = new AtomicReference<AWSLambdaLoggerBuffer>();
+
+    // when
+    AWSLambdaRequestContext.run("123-456-789-abc-0", Map.of(),
+        () -> contextBuffer.set(AWSLambdaRequestContext.getBuffer(configuration)));
+
+    // then
+    assertAll("Init buffer",
+        () -> assertSame(buffer, AWSLambdaRequestContext.getBuffer(configuration), "no context"),
+        () -> assertSame(buffer, contextBuffer.get(), "context without buffer"));
+  }
+
+  @DisplayName("The init buffer is not used after flush")
+  @Test
+  void flushedInitBuffer() {
+    // given
+    var buffer = new AWSLambdaLoggerBuffer();
+    var configuration = AWSLambdaLoggerConfiguration.builder().name("test").buffer(buffer)
+        .loggerLevel(Level.INFO).requestId("request#").build();
+
+    buffer.flush();
+
+    // when and then
+    assertNull(AWSLambdaRequestContext.getBuffer(configuration));
+  }
+
+}
@@ -0,0 +1,167 @@
+package uk.bot_by.aws_lambda.slf4j;
+
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.SimpleDateFormat;
+import org.crac.Context;
+import org.crac.Resource;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.slf4j.event.Level;
+import uk.org.webcompere.systemstubs.environment.EnvironmentVariables;
+import uk.org.webcompere.systemstubs.jupiter.SystemStub;
+import uk.org.webcompere.systemstubs.jupiter.SystemStubsExtension;
+
+@ExtendWith({MockitoExtension.class, SystemStubsExtension.class})
+@Tag("slow")
+class CheckpointRestoreTest {
+
+  @Captor
+  private ArgumentCaptor<AWSLambdaLoggerConfiguration> configurationCaptor;
+  @Mock
+  private Context<Resource> context;
+  @SystemStub
+  private EnvironmentVariables environment;
+  @Mock
+  private AWSLambdaLoggerOutput output;
+
+  private AWSLambdaLoggerFactory loggerFactory;
+  private AWSLambdaLoggerResource resource;
+
+  @BeforeEach
+  void setUp() {
+    environment.set("LOG_DATE_TIME_FORMAT", "yyyy-MM-dd");
+    environment.set("LOG_DEFAULT_LEVEL", "info");
+    environment.set("LOG_SHOW_DATE_TIME", "false");
+  }
+
+  @DisplayName("Reset the time base and read the environment again after restore")
+  @Test
+  void restore() throws InterruptedException {
+    // given
+    createLoggerFactory();
+
+    var logger = loggerFactory.getLogger("lambda.logger.test");
+
+    logger.info("before checkpoint");
+    verify(output).log(configurationCaptor.capture(), isNull(), any(), anyString(), isNull());
+
+    var configurationBeforeCheckpoint = configurationCaptor.getValue();
+
+    resource.beforeCheckpoint(context);
+    // the snapshot is restored later, in another environment
+    Thread.sleep(20);
+    environment.set("LOG_DATE_TIME_FORMAT", "yyyy-MM-dd HH:mm");
+    environment.set("LOG_DEFAULT_LEVEL", "debug");
+    environment.set("LOG_SHOW_DATE_TIME", "true");
+
+    // when
+    resource.afterRestore(context);
+
+    // then
+    logger.debug("after restore");
+    verify(output, times(2)).log(configurationCaptor.capture(), isNull(), any(), anyString(),
+        isNull());
+
+    var configurationAfterRestore = configurationCaptor.getAllValues().get(2);
+
+    assertAll("Restored configuration",
+        () -> assertFalse(configurationBeforeCheckpoint.showDateTime(), "no date before"),
+        () -> assertTrue(configurationAfterRestore.showDateTime(), "date after restore"),
+        () -> assertTrue(configurationAfterRestore.isLevelEnabled(Level.DEBUG), "debug level"),
+        () -> assertTrue(
+            configurationAfterRestore.startTime() >= configurationBeforeCheckpoint.startTime()
+                + 20, "new time base"),
+        () -> assertNotSame(configurationBeforeCheckpoint.dateTimeFormat(),
+            configurationAfterRestore.dateTimeFormat(), "new date-time format"),
+        () -> assertEquals("yyyy-MM-dd HH:mm",
+            ((SimpleDateFormat) configurationAfterRestore.dateTimeFormat()).toPattern(),
+            "date-time pattern"));
+  }
+
+  @DisplayName("Read the configuration file again after restore")
+  @Test
+  void restoreConfigurationFile(@TempDir Path directory) throws IOException {
+    // given
+    var configurationFile = directory.resolve("lambda-logger.properties");
+
+    Files.writeString(configurationFile, "log.lambda.logger=trace");
+    environment.set("LOG_CONFIGURATION_FILE", configurationFile.toString());
+    environment.remove("LOG_DEFAULT_LEVEL");
+    createLoggerFactory();
+
+    var logger = loggerFactory.getLogger("lambda.logger.test");
+    var traceEnabledBeforeCheckpoint = logger.isTraceEnabled();
+
+    resource.beforeCheckpoint(context);
+    Files.delete(configurationFile);
+
+    // when
+    resource.afterRestore(context);
+
+    // then
+    assertAll("Restored configuration",
+        () -> assertTrue(traceEnabledBeforeCheckpoint, "trace is enabled before checkpoint"),
+        () -> assertFalse(logger.isTraceEnabled(), "the file is removed"),
+        () -> assertTrue(logger.isInfoEnabled(), "default level"));
+  }
+
+  @DisplayName("Levels set at run time survive restore")
+  @Test
+  void restoreRuntimeLevel() {
+    // given
+    createLoggerFactory();
+
+    var logger = loggerFactory.getLogger("lambda.logger.test");
+
+    loggerFactory.setLevel("lambda.logger", Level.TRACE);
+    resource.beforeCheckpoint(context);
+
+    // when
+    resource.afterRestore(context);
+
+    // then
+    assertTrue(logger.isTraceEnabled());
+  }
+
+  @DisplayName("The factory registers its resource")
+  @Test
+  void resource() {
+    // when
+    var loggerFactory = new AWSLambdaLoggerFactory("lambda-logger.properties");
+
+    // then
+    assertNotNull(loggerFactory.getResource());
+  }
+
+  private void createLoggerFactory() {
+    loggerFactory = spy(new AWSLambdaLoggerFactory("lambda-logger.properties"));
+    doReturn(output).when(loggerFactory).getOutput();
+    // the registered resource refers to the factory, not to its spy
+    resource = new AWSLambdaLoggerResource(loggerFactory);
+  }
+
+}
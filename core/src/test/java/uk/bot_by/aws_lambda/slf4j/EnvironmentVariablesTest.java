@@ -4,24 +4,35 @@ import static java.util.Objects.nonNull;
 import static org.junit.jupiter.api.Assertions.assertAll;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.Mockito.doReturn;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.spy;
 import static org.mockito.Mockito.verify;
 
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Instant;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Tag;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
 import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
 import org.junit.jupiter.params.provider.NullSource;
 import org.junit.jupiter.params.provider.ValueSource;
 import org.mockito.ArgumentCaptor;
@@ -98,6 +109,170 @@ class EnvironmentVariablesTest {
         () -> assertEquals("trace message", stringCaptor.getValue(), "message"));
   }
 
+  @DisplayName("Init buffering")
+  @ParameterizedTest
+  @ValueSource(booleans = {false, true})
+  void initBuffering(boolean initBuffering) {
+    // given
+    environment.set("LOG_INIT_BUFFERING", Boolean.toString(initBuffering));
+
+    var loggerFactory = spy(AWSLambdaLoggerFactory.class);
+
+    doReturn(output).when(loggerFactory).getOutput();
+
+    var logger = loggerFactory.getLogger("lambda.logger.test");
+
+    // when
+    logger.info("info message");
+
+    // then
+    verify(output).log(configurationCaptor.capture(), isNull(), any(), anyString(), isNull());
+
+    assertEquals(initBuffering, nonNull(configurationCaptor.getValue().buffer()));
+  }
+
+  @DisplayName("Invocation buffering")
+  @ParameterizedTest
+  @ValueSource(booleans = {false, true})
+  void invocationBuffering(boolean invocationBuffering) {
+    // given
+    environment.set("LOG_INVOCATION_BUFFERING", Boolean.toString(invocationBuffering));
+
+    // when
+    var loggerFactory = new AWSLambdaLoggerFactory();
+
+    // then
+    assertEquals(invocationBuffering, loggerFactory.isInvocationBuffering());
+  }
+
+  @DisplayName("Message template")
+  @ParameterizedTest
+  @CsvSource({"always,true,true", "never,false,false", "warn,false,true", "unknown,true,true"})
+  void messageTemplate(String formattedMessage, boolean info, boolean warn) {
+    // given
+    environment.set("LOG_FORMATTED_MESSAGE", formattedMessage);
+    environment.set("LOG_MESSAGE_TEMPLATE", "true");
+
+    var loggerFactory = spy(AWSLambdaLoggerFactory.class);
+
+    doReturn(output).when(loggerFactory).getOutput();
+
+    var logger = loggerFactory.getLogger("lambda.logger.test");
+
+    // when
+    logger.info("info {} message", "test");
+
+    // then
+    verify(output).logTemplate(configurationCaptor.capture(), isNull(), eq(Level.INFO),
+        eq("info {} message"), any(), eq(1), isNull(), isNull());
+
+    var configuration = configurationCaptor.getValue();
+
+    assertAll("Message template",
+        () -> assertTrue(configuration.messageTemplate(), "message template"),
+        () -> assertEquals(info, configuration.isMessageFormatted(Level.INFO), "info"),
+        () -> assertEquals(warn, configuration.isMessageFormatted(Level.WARN), "warn"));
+  }
+
+  @DisplayName("A message without arguments is not a template")
+  @Test
+  void messageTemplateWithoutArguments() {
+    // given
+    environment.set("LOG_MESSAGE_TEMPLATE", "true");
+
+    var loggerFactory = spy(AWSLambdaLoggerFactory.class);
+
+    doReturn(output).when(loggerFactory).getOutput();
+
+    var logger = loggerFactory.getLogger("lambda.logger.test");
+
+    // when
+    logger.info("info message");
+
+    // then
+    verify(output).log(any(), isNull(), eq(Level.INFO), eq("info message"), isNull());
+    verify(output, never()).logTemplate(any(), any(), any(), anyString(), any(), anyInt(), any(),
+        any());
+  }
+
+  @DisplayName("Structured arguments")
+  @ParameterizedTest
+  @CsvSource({"false,5,8,0,8", "true,5,8,5,8", "true,-1,bad,3,32"})
+  void structuredArguments(String structuredArguments, String depth, String size,
+      int expectedDepth, int expectedSize) {
+    // given
+    environment.set("LOG_STRUCTURED_ARGUMENTS", structuredArguments);
+    environment.set("LOG_STRUCTURED_ARGUMENT_DEPTH", depth);
+    environment.set("LOG_STRUCTURED_ARGUMENT_SIZE", size);
+
+    var loggerFactory = spy(AWSLambdaLoggerFactory.class);
+
+    doReturn(output).when(loggerFactory).getOutput();
+
+    var logger = loggerFactory.getLogger("lambda.logger.test");
+
+    // when
+    logger.info("info message");
+
+    // then
+    verify(output).log(configurationCaptor.capture(), isNull(), any(), anyString(), isNull());
+
+    var configuration = configurationCaptor.getValue();
+
+    assertAll("Structured arguments",
+        () -> assertEquals(expectedDepth, configuration.structuredArgumentDepth(), "depth"),
+        () -> assertEquals(expectedSize, configuration.structuredArgumentSize(), "size"));
+  }
+
+  @DisplayName("Filters")
+  @Test
+  void filters() {
+    // given
+    environment.set("LOG_FILTER_DENY", "noisy message|noisy message {}");
+    environment.set("LOG_FILTER_MDC_THRESHOLD", "error@source=healthcheck");
+
+    var loggerFactory = spy(AWSLambdaLoggerFactory.class);
+
+    doReturn(output).when(loggerFactory).getOutput();
+
+    var logger = loggerFactory.getLogger("lambda.logger.test");
+
+    // when
+    logger.info("noisy message");
+    logger.info("noisy message {}", "again");
+    logger.info("info message");
+
+    // then
+    verify(output).log(configurationCaptor.capture(), isNull(), any(), eq("info message"),
+        isNull());
+    verify(output, never()).log(any(), isNull(), any(), eq("noisy message"), isNull());
+    verify(output, never()).log(any(), isNull(), any(), eq("noisy message again"), isNull());
+
+    assertInstanceOf(AWSLambdaLoggerFilterChain.class, configurationCaptor.getValue().filter());
+  }
+
+  @DisplayName("Masking")
+  @ParameterizedTest
+  @CsvSource(value = {"card|true", "' , '|false"}, delimiter = '|')
+  void masking(String masking, boolean masked) {
+    // given
+    environment.set("LOG_MASKING", masking);
+
+    var loggerFactory = spy(AWSLambdaLoggerFactory.class);
+
+    doReturn(output).when(loggerFactory).getOutput();
+
+    var logger = loggerFactory.getLogger("lambda.logger.test");
+
+    // when
+    logger.info("info message");
+
+    // then
+    verify(output).log(configurationCaptor.capture(), isNull(), any(), anyString(), isNull());
+
+    assertEquals(masked, nonNull(configurationCaptor.getValue().masker()));
+  }
+
   @DisplayName("Default log level with a marker")
   @Test
   void defaultLogLevelWithMarker() {
@@ -144,8 +319,6 @@ class EnvironmentVariablesTest {
       marker = new BasicMarkerFactory().getMarker("aMarker");
     }
 
-    doReturn(output).when(loggerFactory).getOutput();
-
     var logger = loggerFactory.getLogger("lambda.logger.test");
 
     // when
@@ -187,6 +360,30 @@ class EnvironmentVariablesTest {
         () -> assertEquals("warn message", stringCaptor.getValue(), "message"));
   }
 
+  @DisplayName("A date-time format is not built without a date")
+  @Test
+  void dateTimeFormatWithoutDate() {
+    // given
+    environment.set("LOG_DATE_TIME_FORMAT", "yyyy-MM-dd");
+
+    var loggerFactory = spy(AWSLambdaLoggerFactory.class);
+
+    doReturn(output).when(loggerFactory).getOutput();
+
+    var logger = loggerFactory.getLogger("lambda.logger.test");
+
+    // when
+    logger.warn("warn message");
+
+    // then
+    verify(output).log(configurationCaptor.capture(), isNull(), any(), anyString(), isNull());
+
+    var configuration = configurationCaptor.getValue();
+
+    assertAll("No timestamp", () -> assertFalse(configuration.showDateTime(), "timestamp"),
+        () -> assertNull(configuration.dateTimeFormat(), "format"));
+  }
+
   @DisplayName("Wrong the default logger level")
   @Test
   void wrongDefaultLoggerLever() {
@@ -216,4 +413,34 @@ class EnvironmentVariablesTest {
         () -> assertEquals("debug message", stringCaptor.getValue(), "message"));
   }
 
+  @DisplayName("Reload logger levels from the configuration file")
+  @Test
+  void reloadConfigurationFile(@TempDir Path directory) throws IOException {
+    // given
+    var configurationFile = directory.resolve("lambda-logger.properties");
+
+    Files.writeString(configurationFile, "log.lambda.logger=info");
+    Files.setLastModifiedTime(configurationFile,
+        FileTime.from(Instant.now().minusSeconds(60)));
+    environment.set("LOG_CONFIGURATION_FILE", configurationFile.toString());
+    environment.set("LOG_CONFIGURATION_CHECK_INTERVAL", "0");
+
+    var loggerFactory = spy(AWSLambdaLoggerFactory.class);
+
+    var logger = loggerFactory.getLogger("lambda.logger.test");
+    var debugEnabledBeforeReload = logger.isDebugEnabled();
+
+    Files.writeString(configurationFile, "log.lambda.logger=trace");
+    Files.setLastModifiedTime(configurationFile, FileTime.from(Instant.now()));
+
+    // when
+    loggerFactory.checkConfiguration();
+
+    // then
+    assertAll("Reloaded configuration",
+        () -> assertFalse(debugEnabledBeforeReload, "debug is disabled before reloading"),
+        () -> assertTrue(logger.isTraceEnabled(), "trace is enabled after reloading"),
+        () -> assertSame(logger, loggerFactory.getLogger("lambda.logger.test"), "same logger"));
+  }
+
 }
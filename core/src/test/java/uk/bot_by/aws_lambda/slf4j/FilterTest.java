@@ -0,0 +1,217 @@
+package uk.bot_by.aws_lambda.slf4j;
+
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isA;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.slf4j.MDC;
+import org.slf4j.event.Level;
+import org.slf4j.event.LoggingEvent;
+import uk.bot_by.aws_lambda.slf4j.AWSLambdaLoggerFilter.Decision;
+
+@ExtendWith(MockitoExtension.class)
+@Tag("fast")
+class FilterTest {
+
+  @Captor
+  private ArgumentCaptor<Object[]> argumentsCaptor;
+  @Mock
+  private AWSLambdaLoggerFilter filter;
+  @Mock
+  private AWSLambdaLoggerOutput output;
+  @Mock
+  private Supplier<String> supplier;
+
+  @AfterEach
+  void tearDown() {
+    MDC.clear();
+  }
+
+  @DisplayName("A denied pattern is not formatted")
+  @Test
+  void deniedFormat() {
+    // given
+    var logger = getLogger(AWSLambdaFormatFilter.of(null, "connection {} leased|pool is idle"));
+
+    // when
+    logger.infoLazy("connection {} leased", supplier);
+    logger.info("pool is idle");
+    logger.atInfo().log("connection {} leased", 1);
+    logger.info("connection {} released", 1);
+
+    // then
+    verify(supplier, never()).get();
+    verify(output, never()).log(any(), isA(LoggingEvent.class));
+    verify(output).log(any(), isNull(), eq(Level.INFO), eq("connection 1 released"), isNull());
+  }
+
+  @DisplayName("An allowed pattern skips the rest of the chain")
+  @Test
+  void allowedFormat() {
+    // given
+    var logger = getLogger(AWSLambdaLoggerFilterChain.of(
+        List.of(AWSLambdaFormatFilter.of("user {} logged in", "user {} logged in"),
+            (logger1, level, marker, format, arguments) -> Decision.DENY)));
+
+    // when
+    logger.info("user {} logged in", "John");
+    logger.info("user {} logged out", "John");
+
+    // then
+    verify(output).log(any(), isNull(), eq(Level.INFO), eq("user John logged in"), isNull());
+    verify(output, never()).log(any(), any(), any(), eq("user John logged out"), any());
+  }
+
+  @DisplayName("Events below the MDC threshold are rejected")
+  @Test
+  void mdcThreshold() {
+    // given
+    var logger = getLogger(AWSLambdaMDCThresholdFilter.of("warn@source=healthcheck"));
+
+    MDC.put("source", "healthcheck");
+
+    // when
+    logger.info("rejected message");
+    logger.warn("warning message");
+    MDC.put("source", "api");
+    logger.info("info message");
+
+    // then
+    verify(output, never()).log(any(), any(), any(), eq("rejected message"), any());
+    verify(output).log(any(), isNull(), eq(Level.WARN), eq("warning message"), isNull());
+    verify(output).log(any(), isNull(), eq(Level.INFO), eq("info message"), isNull());
+  }
+
+  @DisplayName("A context field takes precedence over MDC")
+  @Test
+  void contextField() {
+    // given
+    var logger = getLogger(AWSLambdaMDCThresholdFilter.of("warn@source=healthcheck"));
+
+    MDC.put("source", "api");
+
+    // when
+    AWSLambdaRequestContext.run("request-1", Map.of("source", "healthcheck"),
+        () -> logger.info("rejected message"));
+
+    // then
+    verifyNoInteractions(output);
+  }
+
+  @DisplayName("Bad MDC thresholds are skipped")
+  @Test
+  void badMDCThresholds() {
+    // when and then
+    assertAll("MDC thresholds",
+        () -> assertNull(AWSLambdaMDCThresholdFilter.of(" , warn, @key=value, warn@=value")),
+        () -> assertNull(AWSLambdaMDCThresholdFilter.of("loud@key=value")),
+        () -> assertInstanceOf(AWSLambdaMDCThresholdFilter.class,
+            AWSLambdaMDCThresholdFilter.of("loud@key=value, error@key=")));
+  }
+
+  @DisplayName("A filter gets raw arguments")
+  @Test
+  void rawArguments() {
+    // given
+    var logger = getLogger(filter);
+
+    when(filter.decide(any(), any(), any(), anyString(), any())).thenReturn(Decision.DENY);
+
+    // when
+    logger.warnLazy("payload {}", supplier);
+
+    // then
+    verify(filter).decide(eq(logger), eq(Level.WARN), isNull(), eq("payload {}"),
+        argumentsCaptor.capture());
+    verify(supplier, never()).get();
+    verifyNoInteractions(output);
+
+    assertEquals(supplier, argumentsCaptor.getValue()[0]);
+  }
+
+  @DisplayName("A denied fluent event does not call its suppliers")
+  @Test
+  void deniedFluentEvent() {
+    // given
+    var logger = getLogger(filter);
+
+    when(filter.decide(any(), any(), any(), any(), any())).thenReturn(Decision.DENY);
+
+    // when
+    logger.atWarn().setMessage("payload {}").addArgument(supplier).log();
+    logger.atWarn().setMessage(supplier).log();
+
+    // then
+    verify(filter).decide(eq(logger), eq(Level.WARN), isNull(), eq("payload {}"),
+        argumentsCaptor.capture());
+    verify(filter).decide(eq(logger), eq(Level.WARN), isNull(), isNull(), isNull());
+    verify(supplier, never()).get();
+    verifyNoInteractions(output);
+
+    assertEquals(supplier, argumentsCaptor.getValue()[0]);
+  }
+
+  @DisplayName("A disabled level does not call filters")
+  @Test
+  void disabledLevel() {
+    // given
+    var logger = getLogger(filter);
+
+    // when
+    logger.debug("debug message");
+    logger.debug("debug message {}", 1L);
+    logger.atDebug().log("debug message");
+
+    // then
+    verifyNoInteractions(filter, output);
+  }
+
+  @DisplayName("Neutral filters let an event through")
+  @Test
+  void neutral() {
+    // given
+    var logger = getLogger(filter);
+
+    when(filter.decide(any(), any(), any(), anyString(), any())).thenReturn(Decision.NEUTRAL);
+
+    // when
+    logger.info("info message");
+    logger.info("took {} ms", 3L);
+    logger.atInfo().log("fluent message");
+
+    // then
+    verify(output).log(any(), isNull(), eq(Level.INFO), eq("info message"), isNull());
+    verify(output).log(any(), isNull(), eq(Level.INFO), eq("took 3 ms"), isNull());
+    verify(output).log(any(), isA(LoggingEvent.class));
+  }
+
+  private AWSLambdaLogger getLogger(AWSLambdaLoggerFilter filter) {
+    var configuration = AWSLambdaLoggerConfiguration.builder().name("test logger")
+        .filter(filter).loggerLevel(Level.INFO).requestId("request#").build();
+
+    return new AWSLambdaLogger(configuration, output);
+  }
+
+}
@@ -0,0 +1,319 @@
+package uk.bot_by.aws_lambda.slf4j;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isA;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.withSettings;
+
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.mockito.Answers;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.slf4j.Marker;
+import org.slf4j.event.DefaultLoggingEvent;
+import org.slf4j.event.KeyValuePair;
+import org.slf4j.event.Level;
+import org.slf4j.event.LoggingEvent;
+import org.slf4j.helpers.BasicMarkerFactory;
+import org.slf4j.spi.NOPLoggingEventBuilder;
+
+@ExtendWith(MockitoExtension.class)
+@Tag("fast")
+class FluentTest {
+
+  @Mock
+  private AWSLambdaLoggerOutput output;
+  @Mock
+  private Throwable throwable;
+
+  private Marker knownMarker;
+  private Marker unknownMarker;
+
+  @BeforeEach
+  void setUp() {
+    var markerFactory = new BasicMarkerFactory();
+
+    knownMarker = markerFactory.getMarker("i-am-a-marker");
+    unknownMarker = markerFactory.getMarker("i-am-an-unknown-marker");
+  }
+
+  @DisplayName("Disabled level returns the shared no-op builder")
+  @ParameterizedTest
+  @CsvSource({"TRACE", "DEBUG"})
+  void disabledLevel(Level level) {
+    // given
+    var logger = getLogger(Level.INFO, Level.INFO);
+
+    // when
+    var builder = logger.atLevel(level);
+
+    // then
+    assertSame(NOPLoggingEventBuilder.singleton(), builder);
+  }
+
+  @DisplayName("The at-methods return the shared no-op builder if the level is disabled")
+  @Test
+  void disabledAtMethods() {
+    // given
+    var logger = getLogger(Level.ERROR, Level.ERROR);
+
+    // when and then
+    assertAll("At-methods",
+        () -> assertSame(NOPLoggingEventBuilder.singleton(), logger.atTrace(), "trace"),
+        () -> assertSame(NOPLoggingEventBuilder.singleton(), logger.atDebug(), "debug"),
+        () -> assertSame(NOPLoggingEventBuilder.singleton(), logger.atInfo(), "info"),
+        () -> assertSame(NOPLoggingEventBuilder.singleton(), logger.atWarn(), "warn"),
+        () -> assertThat(logger.atError(), not(sameInstance(NOPLoggingEventBuilder.singleton()))));
+  }
+
+  @DisplayName("Enabled event goes straight to the output")
+  @Test
+  void enabledEvent() {
+    // given
+    var logger = getLogger(Level.INFO, Level.INFO);
+    var events = captureEvents(logger);
+
+    // when
+    logger.atInfo().setCause(throwable).addKeyValue("key", "value")
+        .log("test info message {} {}", "with", "arguments");
+
+    // then
+    assertEquals(1, events.size());
+
+    var event = events.get(0);
+
+    assertAll("Event",
+        () -> assertEquals(Level.INFO, event.getLevel(), "level"),
+        () -> assertEquals("test logger", event.getLoggerName(), "logger name"),
+        () -> assertEquals("test info message {} {}", event.getMessage(), "message"),
+        () -> assertThat("arguments", event.getArguments(), contains("with", "arguments")),
+        () -> assertEquals("key", event.getKeyValuePairs().get(0).key, "key"),
+        () -> assertEquals("value", event.getKeyValuePairs().get(0).value, "value"),
+        () -> assertSame(throwable, event.getThrowable(), "throwable"),
+        () -> assertTrue(event.getTimeStamp() > 0, "timestamp"));
+  }
+
+  @DisplayName("A marker enables the level when the event is logged")
+  @Test
+  void markerEnablesLevel() {
+    // given
+    var logger = getLogger(Level.INFO, Level.DEBUG);
+    var events = captureEvents(logger);
+
+    // when
+    logger.atDebug().addMarker(unknownMarker).addMarker(knownMarker).log("test debug message");
+
+    // then
+    assertEquals(1, events.size());
+    assertThat(events.get(0).getMarkers(), contains(unknownMarker, knownMarker));
+  }
+
+  @DisplayName("An unknown marker does not enable the level")
+  @Test
+  void unknownMarker() {
+    // given
+    var logger = getLogger(Level.INFO, Level.DEBUG);
+
+    // when
+    logger.atDebug().addMarker(unknownMarker).log("test debug message");
+    logger.atDebug().log("test debug message");
+
+    // then
+    verify(output, never()).log(any(), isA(LoggingEvent.class));
+  }
+
+  @DisplayName("The thread's builder is reused and released")
+  @Test
+  void reuseBuilder() {
+    // given
+    var logger = getLogger(Level.INFO, Level.INFO);
+
+    // when
+    var firstBuilder = logger.atInfo();
+
+    firstBuilder.addArgument("first").addKeyValue("key", "value").log("test info message {}");
+
+    var secondBuilder = logger.atWarn();
+
+    // then
+    assertAll("Builder",
+        () -> assertSame(firstBuilder, secondBuilder, "reused"),
+        () -> assertThat("arguments", ((LoggingEvent) secondBuilder).getArguments(), empty()),
+        () -> assertThat("key-value pairs", ((LoggingEvent) secondBuilder).getKeyValuePairs(),
+            empty()),
+        () -> assertNull(((LoggingEvent) secondBuilder).getMessage(), "message"),
+        () -> assertEquals(Level.WARN, ((LoggingEvent) secondBuilder).getLevel(), "level"));
+    secondBuilder.log();
+  }
+
+  @DisplayName("A nested event gets its own builder")
+  @Test
+  void nestedBuilder() {
+    // given
+    var logger = getLogger(Level.INFO, Level.INFO);
+    var outerBuilder = (AWSLambdaLoggingEventBuilder) logger.atInfo();
+
+    // when
+    var nestedBuilder = (AWSLambdaLoggingEventBuilder) logger.atInfo();
+
+    nestedBuilder.log("nested message");
+
+    // then
+    assertAll("Builders",
+        () -> assertThat(nestedBuilder, not(sameInstance(outerBuilder))),
+        () -> assertTrue(outerBuilder.isInUse(), "outer builder is in use"),
+        () -> assertFalse(nestedBuilder.isInUse(), "nested builder is released"));
+    outerBuilder.log("outer message");
+    assertFalse(outerBuilder.isInUse(), "outer builder is released");
+  }
+
+  @DisplayName("An abandoned builder is replaced once")
+  @Test
+  void abandonedBuilder() {
+    // given
+    var logger = getLogger(Level.INFO, Level.INFO);
+    var abandonedBuilder = logger.atInfo();
+
+    abandonedBuilder.setMessage("never logged");
+
+    // when
+    var firstBuilder = logger.atInfo();
+
+    firstBuilder.log("first message");
+
+    var secondBuilder = logger.atInfo();
+
+    secondBuilder.log("second message");
+
+    // then
+    assertAll("Builders",
+        () -> assertThat(firstBuilder, not(sameInstance(abandonedBuilder))),
+        () -> assertSame(firstBuilder, secondBuilder, "the replacement is reused"));
+  }
+
+  @DisplayName("The default output writes key-value pairs in front of the formatted message")
+  @Test
+  void defaultOutput() {
+    // given
+    var configuration = AWSLambdaLoggerConfiguration.builder().name("test logger")
+        .loggerLevel(Level.INFO).requestId("request#").build();
+    var defaultOutput = mock(AWSLambdaLoggerOutput.class,
+        withSettings().defaultAnswer(Answers.CALLS_REAL_METHODS));
+    var event = new AWSLambdaLoggingEventBuilder();
+
+    event.addKeyValue("a", 1).addKeyValue("b", true).addMarker(knownMarker)
+        .addMarker(unknownMarker).setMessage("test {}").addArgument("message")
+        .addArgument(throwable);
+
+    // when
+    defaultOutput.log(configuration, (LoggingEvent) event);
+
+    // then
+    verify(defaultOutput).log(configuration, knownMarker, null, "a=1 b=true test message",
+        throwable);
+  }
+
+  @DisplayName("The default output formats a fluent event without a pattern")
+  @Test
+  void defaultOutputWithoutPattern() {
+    // given
+    var configuration = AWSLambdaLoggerConfiguration.builder().name("test logger")
+        .loggerLevel(Level.INFO).messageTemplate(true).requestId("request#").build();
+    var defaultOutput = mock(AWSLambdaLoggerOutput.class,
+        withSettings().defaultAnswer(Answers.CALLS_REAL_METHODS));
+    var event = new AWSLambdaLoggingEventBuilder();
+
+    event.addArgument(42);
+
+    // when
+    defaultOutput.log(configuration, (LoggingEvent) event);
+
+    // then
+    verify(defaultOutput, never()).logTemplate(any(), any(), any(), any(), any(), anyInt(), any(),
+        any());
+    verify(defaultOutput).log(configuration, null, null, (String) null, null);
+  }
+
+  @DisplayName("The default output passes only arguments with placeholders to a template")
+  @ParameterizedTest(name = "[{index}] {0}")
+  @CsvSource(value = {"test, 0", "test {}, 1", "test {} {}, 2", "test {} {} {}, 2"})
+  void defaultOutputTemplate(String pattern, int expectedCount) {
+    // given
+    var configuration = AWSLambdaLoggerConfiguration.builder().name("test logger")
+        .loggerLevel(Level.INFO).messageTemplate(true).requestId("request#").build();
+    var defaultOutput = mock(AWSLambdaLoggerOutput.class,
+        withSettings().defaultAnswer(Answers.CALLS_REAL_METHODS));
+    var event = new AWSLambdaLoggingEventBuilder();
+
+    event.setMessage(pattern);
+    event.addArgument("a").addArgument("b");
+
+    // when
+    defaultOutput.log(configuration, (LoggingEvent) event);
+
+    // then
+    if (expectedCount > 0) {
+      verify(defaultOutput).logTemplate(eq(configuration), isNull(), isNull(), eq(pattern),
+          any(), eq(expectedCount), any(), isNull());
+    } else {
+      verify(defaultOutput, never()).logTemplate(any(), any(), any(), any(), any(), anyInt(),
+          any(), any());
+      verify(defaultOutput).log(configuration, null, null, "test", null);
+    }
+  }
+
+  private List<LoggingEvent> captureEvents(AWSLambdaLogger logger) {
+    var events = new ArrayList<LoggingEvent>();
+
+    doAnswer(invocation -> {
+      LoggingEvent event = invocation.getArgument(1);
+      var copy = new DefaultLoggingEvent(event.getLevel(), logger);
+
+      event.getArguments().forEach(copy::addArgument);
+      event.getMarkers().forEach(copy::addMarker);
+      for (KeyValuePair keyValuePair : event.getKeyValuePairs()) {
+        copy.addKeyValue(keyValuePair.key, keyValuePair.value);
+      }
+      copy.setMessage(event.getMessage());
+      copy.setThrowable(event.getThrowable());
+      copy.setTimeStamp(event.getTimeStamp());
+      events.add(copy);
+      return null;
+    }).when(output).log(any(), isA(LoggingEvent.class));
+
+    return events;
+  }
+
+  private AWSLambdaLogger getLogger(Level level, Level markerLevel) {
+    var configuration = AWSLambdaLoggerConfiguration.builder().name("test logger")
+        .loggerLevel(level).loggerLevel(markerLevel, knownMarker).requestId("request#").build();
+
+    return new AWSLambdaLogger(configuration, output);
+  }
+
+}
@@ -0,0 +1,169 @@
+package uk.bot_by.aws_lambda.slf4j;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.isA;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.doNothing;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.function.Supplier;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.slf4j.Marker;
+import org.slf4j.event.Level;
+import org.slf4j.event.LoggingEvent;
+import org.slf4j.helpers.BasicMarkerFactory;
+
+@ExtendWith(MockitoExtension.class)
+@Tag("fast")
+class LazyTest {
+
+  @Mock
+  private AWSLambdaLoggerOutput output;
+  @Mock
+  private Supplier<Object> supplier;
+
+  private Marker knownMarker;
+  private Marker unknownMarker;
+
+  @BeforeEach
+  void setUp() {
+    var markerFactory = new BasicMarkerFactory();
+
+    knownMarker = markerFactory.getMarker("i-am-a-marker");
+    unknownMarker = markerFactory.getMarker("i-am-an-unknown-marker");
+  }
+
+  @DisplayName("A supplier is not called if the level is disabled")
+  @ParameterizedTest
+  @CsvSource({"TRACE", "DEBUG"})
+  void disabledLevel(Level level) {
+    // given
+    var logger = getLogger();
+
+    // when
+    logger.traceLazy("test message {}", supplier);
+    logger.debugLazy("test message {} {}", supplier, supplier);
+    logger.atLevel(level).addArgument(supplier).addKeyValue("key", supplier).log("test message {}");
+
+    // then
+    verify(supplier, never()).get();
+  }
+
+  @DisplayName("A supplier is not called if the marker does not enable the level")
+  @Test
+  void unknownMarker() {
+    // given
+    var logger = getLogger();
+
+    // when
+    logger.debugLazy(unknownMarker, "test message {}", supplier);
+    logger.debugLazy(unknownMarker, "test message {} {} {}", supplier, supplier, supplier);
+    logger.atDebug().addMarker(unknownMarker).addArgument(supplier).log("test message {}");
+
+    // then
+    verify(supplier, never()).get();
+  }
+
+  @DisplayName("A supplier is resolved if the level is enabled")
+  @Test
+  void enabledLevel() {
+    // given
+    var logger = spy(getLogger());
+
+    doNothing().when(logger).log(isA(Level.class), anyString(), isNull());
+    when(supplier.get()).thenReturn("argument");
+
+    // when
+    logger.infoLazy("test message {} {}", () -> "with", () -> "suppliers");
+    logger.warnLazy("test message {}", supplier);
+
+    // then
+    verify(logger).log(Level.INFO, "test message with suppliers", null);
+    verify(logger).log(Level.WARN, "test message argument", null);
+  }
+
+  @DisplayName("A supplier is resolved if the marker enables the level")
+  @Test
+  void knownMarker() {
+    // given
+    var logger = spy(getLogger());
+
+    doNothing().when(logger).log(isA(Level.class), isA(Marker.class), anyString(), isNull());
+    when(supplier.get()).thenReturn("argument");
+
+    // when
+    logger.debugLazy(knownMarker, "test message {}", supplier);
+
+    // then
+    verify(logger).log(Level.DEBUG, knownMarker, "test message argument", null);
+  }
+
+  @DisplayName("A supplier among plain arguments is resolved")
+  @Test
+  void plainArguments() {
+    // given
+    var logger = spy(getLogger());
+    Object[] arguments = {"plain", supplier};
+
+    doNothing().when(logger).log(isA(Level.class), anyString(), isNull());
+    when(supplier.get()).thenReturn("lazy");
+
+    // when
+    logger.info("test message {} {}", arguments);
+
+    // then
+    verify(logger).log(Level.INFO, "test message plain lazy", null);
+    assertSame(supplier, arguments[1], "the caller's array is not changed");
+  }
+
+  @DisplayName("Fluent suppliers are resolved when the output asks for them")
+  @Test
+  void fluent() {
+    // given
+    var logger = getLogger();
+
+    when(supplier.get()).thenReturn("lazy");
+
+    // when
+    var builder = (AWSLambdaLoggingEventBuilder) logger.atInfo().addArgument(supplier)
+        .addKeyValue("key", supplier);
+
+    // then
+    verify(supplier, never()).get();
+    assertArrayEquals(new Object[]{"lazy"}, builder.getArgumentArray());
+    assertSame("lazy", builder.getKeyValuePairs().get(0).value);
+    builder.log("test message {}");
+    verify(output).log(any(), isA(LoggingEvent.class));
+  }
+
+  @DisplayName("Null arguments")
+  @Test
+  void nullArguments() {
+    // when and then
+    assertNull(AWSLambdaLogger.resolveSuppliers(null));
+  }
+
+  private AWSLambdaLogger getLogger() {
+    var configuration = AWSLambdaLoggerConfiguration.builder().name("test logger")
+        .loggerLevel(Level.INFO).loggerLevel(Level.DEBUG, knownMarker).requestId("request#")
+        .build();
+
+    return new AWSLambdaLogger(configuration, output);
+  }
+
+}
@@ -0,0 +1,150 @@
+package uk.bot_by.aws_lambda.slf4j;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isA;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.doNothing;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.slf4j.event.Level;
+import uk.bot_by.aws_lambda.slf4j.AWSLambdaMessageFormatter.Primitive;
+
+@ExtendWith(MockitoExtension.class)
+@Tag("fast")
+class PrimitiveTest {
+
+  @Captor
+  private ArgumentCaptor<Object[]> argumentsCaptor;
+  @Mock
+  private AWSLambdaLoggerOutput output;
+
+  @DisplayName("Nothing is done if the level is disabled")
+  @Test
+  void disabledLevel() {
+    // given
+    var logger = getLogger(false);
+
+    // when
+    logger.tracePrimitive("test message {}", 1);
+    logger.debugPrimitive("test message {}", 2L);
+    logger.tracePrimitive("test message {}", 0.5);
+    logger.debugPrimitive("test message {}", true);
+    logger.tracePrimitive("test message {} {}", 1, 2);
+    logger.debugPrimitive("test message {} {}", 3L, 4L);
+    logger.tracePrimitive("test message {} {}", 0.5, 0.25);
+    logger.debugPrimitive("test message {} {}", true, false);
+
+    // then
+    verifyNoInteractions(output);
+  }
+
+  @DisplayName("Primitive arguments are formatted")
+  @Test
+  void enabledLevel() {
+    // given
+    var logger = spy(getLogger(false));
+
+    doNothing().when(logger).log(isA(Level.class), anyString(), isNull());
+
+    // when
+    logger.infoPrimitive("int {}", Integer.MIN_VALUE);
+    logger.warnPrimitive("long {}", Long.MAX_VALUE);
+    logger.errorPrimitive("double {}", -0.5);
+    logger.infoPrimitive("boolean {}", true);
+    logger.warnPrimitive("ints {} {}", 1, -2);
+    logger.errorPrimitive("longs {} {}", 3L, 4L);
+    logger.infoPrimitive("doubles {} {}", Double.NaN, Double.NEGATIVE_INFINITY);
+    logger.warnPrimitive("booleans {} {}", false, true);
+
+    // then
+    verify(logger).log(Level.INFO, "int -2147483648", null);
+    verify(logger).log(Level.WARN, "long 9223372036854775807", null);
+    verify(logger).log(Level.ERROR, "double -0.5", null);
+    verify(logger).log(Level.INFO, "boolean true", null);
+    verify(logger).log(Level.WARN, "ints 1 -2", null);
+    verify(logger).log(Level.ERROR, "longs 3 4", null);
+    verify(logger).log(Level.INFO, "doubles NaN -Infinity", null);
+    verify(logger).log(Level.WARN, "booleans false true", null);
+  }
+
+  @DisplayName("Logger methods are not taken over by primitive ones")
+  @Test
+  void loggerMethods() {
+    // given
+    var logger = spy(getLogger(false));
+
+    doNothing().when(logger).log(isA(Level.class), anyString(), isNull());
+
+    // when
+    logger.info("char {}", 'c');
+    logger.info("float {}", 0.1f);
+    logger.info("byte and short {} {}", (byte) 1, (short) 2);
+
+    // then
+    verify(logger).log(Level.INFO, "char c", null);
+    verify(logger).log(Level.INFO, "float 0.1", null);
+    verify(logger).log(Level.INFO, "byte and short 1 2", null);
+  }
+
+  @DisplayName("Primitive arguments are formatted like boxed ones")
+  @ParameterizedTest
+  @ValueSource(strings = {"no placeholders", "{}", "a {} b", "a {} b {} c", "a {} b {} c {} d",
+      "a \\{} b {} c", "a \\\\{} b {} c", "{}{}"})
+  void compatibility(String pattern) {
+    // when and then
+    assertEquals(AWSLambdaMessageFormatter.format(pattern, new Object[]{7L}, 1),
+        AWSLambdaMessageFormatter.format(pattern, Primitive.LONG, 7, 0, 1));
+    assertEquals(AWSLambdaMessageFormatter.format(pattern, new Object[]{0.5, 1.5}, 2),
+        AWSLambdaMessageFormatter.format(pattern, Primitive.DOUBLE,
+            Double.doubleToRawLongBits(0.5), Double.doubleToRawLongBits(1.5), 2));
+    assertEquals(AWSLambdaMessageFormatter.format(pattern, new Object[]{true, false}, 2),
+        AWSLambdaMessageFormatter.format(pattern, Primitive.BOOLEAN, 1, 0, 2));
+  }
+
+  @DisplayName("Null pattern")
+  @Test
+  void nullPattern() {
+    // when and then
+    assertNull(AWSLambdaMessageFormatter.format(null, Primitive.LONG, 1, 0, 1));
+  }
+
+  @DisplayName("Primitive arguments are boxed for a message template")
+  @Test
+  void messageTemplate() {
+    // given
+    var logger = getLogger(true);
+
+    // when
+    logger.infoPrimitive("took {} ms of {}", 42L, 100L);
+
+    // then
+    verify(output).logTemplate(any(), isNull(), eq(Level.INFO), eq("took {} ms of {}"),
+        argumentsCaptor.capture(), eq(2), isNull(), isNull());
+    assertArrayEquals(new Object[]{42L, 100L}, argumentsCaptor.getValue());
+  }
+
+  private AWSLambdaLogger getLogger(boolean messageTemplate) {
+    var configuration = AWSLambdaLoggerConfiguration.builder().name("test logger")
+        .loggerLevel(Level.INFO).messageTemplate(messageTemplate).requestId("request#").build();
+
+    return new AWSLambdaLogger(configuration, output);
+  }
+
+}
@@ -70,8 +70,6 @@ class PropertiesTest {
     var loggerFactory = spy(
         new AWSLambdaLoggerFactory("parent-log-level-" + levelName + ".properties"));
 
-    doReturn(output).when(loggerFactory).getOutput();
-
     // when
     var logger = loggerFactory.getLogger("org.test.Class");
 
@@ -91,8 +89,6 @@ class PropertiesTest {
     var loggerFactory = spy(new AWSLambdaLoggerFactory("parent-log-level-marker.properties"));
     var marker = new BasicMarkerFactory().getMarker("iAmMarker");
 
-    doReturn(output).when(loggerFactory).getOutput();
-
     // when
     var logger = loggerFactory.getLogger("org.test.Class");
 
@@ -111,8 +107,6 @@ class PropertiesTest {
     // given
     var loggerFactory = spy(new AWSLambdaLoggerFactory("parent-log-level-multi.properties"));
 
-    doReturn(output).when(loggerFactory).getOutput();
-
     // when
     var logger = loggerFactory.getLogger("org.test.Class");
 
@@ -138,8 +132,6 @@ class PropertiesTest {
     var loggerFactory = spy(
         new AWSLambdaLoggerFactory("class-log-level-" + levelName + ".properties"));
 
-    doReturn(output).when(loggerFactory).getOutput();
-
     // when
     var logger = loggerFactory.getLogger("org.test.Class");
 
@@ -159,8 +151,6 @@ class PropertiesTest {
     var loggerFactory = spy(new AWSLambdaLoggerFactory("class-log-level-marker.properties"));
     var marker = new BasicMarkerFactory().getMarker("iAmMarker");
 
-    doReturn(output).when(loggerFactory).getOutput();
-
     // when
     var logger = loggerFactory.getLogger("org.test.Class");
 
@@ -179,8 +169,6 @@ class PropertiesTest {
     // given
     var loggerFactory = spy(new AWSLambdaLoggerFactory("class-log-level-multi.properties"));
 
-    doReturn(output).when(loggerFactory).getOutput();
-
     // when
     var logger = loggerFactory.getLogger("org.test.Class");
 
@@ -206,8 +194,6 @@ class PropertiesTest {
     var loggerFactory = spy(
         new AWSLambdaLoggerFactory("default-log-level-" + levelName + ".properties"));
 
-    doReturn(output).when(loggerFactory).getOutput();
-
     // when
     var logger = loggerFactory.getLogger(levelName + " test");
 
@@ -227,8 +213,6 @@ class PropertiesTest {
     var loggerFactory = spy(new AWSLambdaLoggerFactory("default-log-level-marker.properties"));
     var marker = new BasicMarkerFactory().getMarker("iAmMarker");
 
-    doReturn(output).when(loggerFactory).getOutput();
-
     // when
     var logger = loggerFactory.getLogger("marker test");
 
@@ -247,8 +231,6 @@ class PropertiesTest {
     // given
     var loggerFactory = spy(new AWSLambdaLoggerFactory("default-log-level-multi.properties"));
 
-    doReturn(output).when(loggerFactory).getOutput();
-
     // when
     var logger = loggerFactory.getLogger("org.test.Class");
 
@@ -269,8 +251,6 @@ class PropertiesTest {
     // given
     var loggerFactory = spy(new AWSLambdaLoggerFactory("custom-separators.properties"));
 
-    doReturn(output).when(loggerFactory).getOutput();
-
     // when
     var logger = loggerFactory.getLogger("org.test.Class");
 
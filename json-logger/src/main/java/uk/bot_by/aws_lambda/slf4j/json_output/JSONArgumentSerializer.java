@@ -0,0 +1,285 @@
+/*
+ * Copyright 2022-2024 Vitalij Berdinskih
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *	   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.bot_by.aws_lambda.slf4j.json_output;
+
+import static java.util.Objects.isNull;
+import static java.util.Objects.nonNull;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Array;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.Set;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.json.JSONArray;
+import org.json.JSONObject;
+import org.slf4j.helpers.Reporter;
+
+/**
+ * Converts an argument to a JSON structure.
+ * <p>
+ * A map is a JSON object, its keys are strings. A collection or an array is a JSON array, other
+ * iterables like {@link java.nio.file.Path} are not arrays.
+ * A record is a JSON object of its components. Any other object with public getters is a JSON
+ * object of its properties. Accessors of a class are looked up once and cached by
+ * a {@link ClassValue}, they are method handles. Classes of the {@code java.} and {@code javax.}
+ * packages, enums and classes without accessors are written as their {@code toString()}.
+ * <p>
+ * A structure that is deeper than the depth limit or that contains itself is written as
+ * <code>...</code>. Only the first fields, elements or entries within the size limit are written,
+ * a truncated array ends with <code>...</code>.
+ */
+final class JSONArgumentSerializer {
+
+  private static final ClassValue<Accessor[]> ACCESSORS = new ClassValue<>() {
+
+    @Override
+    protected Accessor[] computeValue(Class<?> type) {
+      return getAccessors(type);
+    }
+
+  };
+  private static final Accessor[] NO_ACCESSORS = new Accessor[0];
+  private static final MethodType OBJECT_GETTER = MethodType.methodType(Object.class,
+      Object.class);
+  private static final String RECORD = "java.lang.Record";
+  private static final String SKIPPED = "...";
+
+  private JSONArgumentSerializer() {
+  }
+
+  /**
+   * Convert an argument to a JSON value.
+   *
+   * @param value argument
+   * @param depth maximum depth
+   * @param size  maximum size of an object, a collection or a map
+   * @return JSON object, JSON array, number, boolean, string or {@link JSONObject#NULL}
+   */
+  @NotNull
+  static Object toJSON(@Nullable Object value, int depth, int size) {
+    return toJSON(value, depth, size, null);
+  }
+
+  private static Object toJSON(Object value, int depth, int size, Set<Object> path) {
+    if (isNull(value)) {
+      return JSONObject.NULL;
+    }
+    if (value instanceof Boolean) {
+      return value;
+    }
+    if (value instanceof Number) {
+      return isFinite((Number) value) ? value : value.toString();
+    }
+
+    var type = value.getClass();
+    var accessors = (value instanceof Map || value instanceof Collection || type.isArray())
+        ? null : ACCESSORS.get(type);
+
+    if (accessors == NO_ACCESSORS) {
+      return toString(value);
+    }
+    if (isNull(path)) {
+      path = Collections.newSetFromMap(new IdentityHashMap<>());
+    }
+    if (depth == 0 || !path.add(value)) {
+      return SKIPPED;
+    }
+    try {
+      if (value instanceof Map) {
+        return toJSONObject((Map<?, ?>) value, depth - 1, size, path);
+      }
+      if (nonNull(accessors)) {
+        return toJSONObject(value, accessors, depth - 1, size, path);
+      }
+      return toJSONArray(value, depth - 1, size, path);
+    } finally {
+      path.remove(value);
+    }
+  }
+
+  private static Accessor[] getAccessors(Class<?> type) {
+    var name = type.getName();
+
+    if (type.isEnum() || type.isPrimitive() || name.startsWith("java.")
+        || name.startsWith("javax.")) {
+      return NO_ACCESSORS;
+    }
+
+    var accessors = new ArrayList<Accessor>();
+    var isRecord = nonNull(type.getSuperclass()) && RECORD.equals(type.getSuperclass().getName());
+
+    for (Method method : type.getMethods()) {
+      var property = isRecord ? getComponent(type, method) : getProperty(method);
+
+      if (isNull(property)) {
+        continue;
+      }
+      try {
+        if (!Modifier.isPublic(type.getModifiers())) {
+          method.setAccessible(true);
+        }
+        accessors.add(new Accessor(property,
+            MethodHandles.lookup().unreflect(method).asType(OBJECT_GETTER)));
+      } catch (IllegalAccessException | RuntimeException exception) {
+        // the class is not open to this module, its property is skipped
+      }
+    }
+    if (accessors.isEmpty()) {
+      return NO_ACCESSORS;
+    }
+    accessors.sort(Comparator.comparing(accessor -> accessor.name));
+
+    return accessors.toArray(NO_ACCESSORS);
+  }
+
+  // an accessor of a record component has the name of its private field
+  private static String getComponent(Class<?> type, Method method) {
+    if (!isGetter(method)) {
+      return null;
+    }
+    try {
+      var field = type.getDeclaredField(method.getName());
+
+      return Modifier.isStatic(field.getModifiers()) ? null : method.getName();
+    } catch (NoSuchFieldException exception) {
+      return null;
+    }
+  }
+
+  private static String getProperty(Method method) {
+    if (!isGetter(method) || "getClass".equals(method.getName())) {
+      return null;
+    }
+
+    var name = method.getName();
+    int prefix;
+
+    if (name.startsWith("get")) {
+      prefix = 3;
+    } else if (name.startsWith("is") && method.getReturnType() == boolean.class) {
+      prefix = 2;
+    } else {
+      return null;
+    }
+    if (name.length() == prefix) {
+      return null;
+    }
+
+    return Character.toLowerCase(name.charAt(prefix)) + name.substring(prefix + 1);
+  }
+
+  private static boolean isFinite(Number number) {
+    if (number instanceof Double || number instanceof Float) {
+      return Double.isFinite(number.doubleValue());
+    }
+    return true;
+  }
+
+  private static boolean isGetter(Method method) {
+    return !Modifier.isStatic(method.getModifiers()) && method.getParameterCount() == 0
+        && method.getReturnType() != void.class;
+  }
+
+  private static JSONArray toJSONArray(Object value, int depth, int size, Set<Object> path) {
+    var jsonArray = new JSONArray();
+
+    if (value instanceof Collection) {
+      for (Object element : (Collection<?>) value) {
+        if (jsonArray.length() == size) {
+          jsonArray.put(SKIPPED);
+          break;
+        }
+        jsonArray.put(toJSON(element, depth, size, path));
+      }
+    } else {
+      var length = Array.getLength(value);
+
+      for (int i = 0; i < Math.min(length, size); i++) {
+        jsonArray.put(toJSON(Array.get(value, i), depth, size, path));
+      }
+      if (length > size) {
+        jsonArray.put(SKIPPED);
+      }
+    }
+
+    return jsonArray;
+  }
+
+  private static JSONObject toJSONObject(Map<?, ?> map, int depth, int size, Set<Object> path) {
+    var jsonObject = new JSONObject();
+
+    for (Map.Entry<?, ?> entry : map.entrySet()) {
+      if (jsonObject.length() == size) {
+        break;
+      }
+      jsonObject.put(String.valueOf(entry.getKey()), toJSON(entry.getValue(), depth, size, path));
+    }
+
+    return jsonObject;
+  }
+
+  private static JSONObject toJSONObject(Object value, Accessor[] accessors, int depth, int size,
+      Set<Object> path) {
+    var jsonObject = new JSONObject();
+
+    for (int i = 0; i < Math.min(accessors.length, size); i++) {
+      var accessor = accessors[i];
+
+      try {
+        jsonObject.put(accessor.name,
+            toJSON(accessor.getter.invokeExact(value), depth, size, path));
+      } catch (Throwable exception) {
+        Reporter.error("Failed " + accessor.name + " invocation on an object of type ["
+            + value.getClass().getName() + "]", exception);
+      }
+    }
+
+    return jsonObject;
+  }
+
+  private static String toString(Object value) {
+    try {
+      return value.toString();
+    } catch (Throwable exception) {
+      Reporter.error("Failed toString() invocation on an object of type ["
+          + value.getClass().getName() + "]", exception);
+      return "[FAILED toString()]";
+    }
+  }
+
+  private static class Accessor {
+
+    private final MethodHandle getter;
+    private final String name;
+
+    Accessor(String name, MethodHandle getter) {
+      this.getter = getter;
+      this.name = name;
+    }
+
+  }
+
+}
@@ -15,6 +15,7 @@
  */
 package uk.bot_by.aws_lambda.slf4j.json_output;
 
+import static java.util.Objects.isNull;
 import static java.util.Objects.nonNull;
 
 import com.amazonaws.services.lambda.runtime.LambdaLogger;
@@ -24,35 +25,110 @@ import java.io.PrintStream;
 import java.text.DateFormat;
 import java.util.ArrayList;
 import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 import org.jetbrains.annotations.VisibleForTesting;
+import org.json.JSONArray;
 import org.json.JSONObject;
-import org.slf4j.MDC;
 import org.slf4j.Marker;
+import org.slf4j.event.KeyValuePair;
 import org.slf4j.event.Level;
+import uk.bot_by.aws_lambda.slf4j.AWSLambdaEntryBuilder;
 import uk.bot_by.aws_lambda.slf4j.AWSLambdaLoggerConfiguration;
 import uk.bot_by.aws_lambda.slf4j.AWSLambdaLoggerOutput;
+import uk.bot_by.aws_lambda.slf4j.AWSLambdaMessageFormatter;
+import uk.bot_by.aws_lambda.slf4j.AWSLambdaRequestContext;
+import uk.bot_by.aws_lambda.slf4j.AWSLambdaThreads;
 
 /**
  * An SLF4J Logger implementation for AWS Lambda with JSON output.
+ * <p>
+ * Key-value pairs of the fluent API are top-level fields: numbers and booleans are written as they
+ * are, other values as strings. A key-value pair does not overwrite a standard field like
+ * {@code level} or {@code message}.
+ * <p>
+ * If message templates are enabled, an entry has the message pattern as
+ * {@code message-template}, its hash as {@code template-hash} and typed arguments as {@code args},
+ * so entries could be grouped by the template without parsing messages. The formatted
+ * {@code message} is written always, never or for <em>warn</em> and above.
+ * <p>
+ * If structured arguments are enabled, beans, records, collections and maps of arguments and
+ * key-value pairs are written as nested JSON objects and arrays, see
+ * {@link AWSLambdaLoggerConfiguration#structuredArgumentDepth()}.
+ * <p>
+ * A JSON object is written to a reusable builder of the current thread. The entry is encoded to
+ * UTF-8 straight from the builder and written as bytes.
+ * <p>
+ * Entries are not buffered: CloudWatch parses a log event as one JSON document, so entries cannot
+ * be joined into a batch, and a buffer would only postpone the same writes. The options
+ * <strong>initBuffering</strong> and <strong>invocationBuffering</strong> do not apply to JSON
+ * output.
  */
 public class JSONLoggerOutput implements AWSLambdaLoggerOutput {
 
+  private static final String ARGUMENTS = "args";
   private static final String AWS_REQUEST_ID = "aws-request-id";
+  private static final LambdaLogger DISCARD = new DiscardingLambdaLogger();
   private static final String RELATIVE_TIMESTAMP = "relative-timestamp";
   private static final String LEVEL = "level";
+  private static final Lock LOCK = new ReentrantLock();
   private static final String LOGNAME = "logname";
   private static final String MARKERS = "markers";
   private static final String MESSAGE = "message";
+  private static final String MESSAGE_TEMPLATE = "message-template";
+  private static final String PLACEHOLDER = "{}";
   private static final String STACK_TRACE = "stack-trace";
-  private static final Long START_TIME = System.currentTimeMillis();
+  private static final String TEMPLATE_HASH = "template-hash";
   private static final String THREAD_ID = "thread-id";
   private static final String THREAD_NAME = "thread-name";
   private static final String THROWABLE_CLASS = "throwable-class";
   private static final String THROWABLE_MESSAGE = "throwable-message";
   private static final String TIMESTAMP = "timestamp";
 
+  private static void addArguments(AWSLambdaLoggerConfiguration configuration,
+      Object[] arguments, int count, JSONObject jsonObject) {
+    var jsonArray = new JSONArray();
+
+    for (int i = 0; i < count; i++) {
+      var argument = arguments[i];
+
+      if (configuration.structuredArgumentDepth() == 0 && nonNull(argument)
+          && argument.getClass().isArray()) {
+        jsonArray.put(AWSLambdaMessageFormatter.format(PLACEHOLDER, new Object[]{argument}, 1));
+      } else {
+        jsonArray.put(getValue(configuration, argument));
+      }
+    }
+    jsonObject.put(ARGUMENTS, jsonArray);
+  }
+
+  private static void addContextFields(JSONObject jsonObject) {
+    var context = AWSLambdaRequestContext.current();
+
+    if (nonNull(context)) {
+      for (Map.Entry<String, String> field : context.fields().entrySet()) {
+        if (!jsonObject.has(field.getKey())) {
+          jsonObject.put(field.getKey(), getValue(field.getValue()));
+        }
+      }
+    }
+  }
+
+  private static void addKeyValuePairs(AWSLambdaLoggerConfiguration configuration,
+      List<KeyValuePair> keyValuePairs, JSONObject jsonObject) {
+    if (nonNull(keyValuePairs)) {
+      for (KeyValuePair keyValuePair : keyValuePairs) {
+        if (nonNull(keyValuePair.key) && !jsonObject.has(keyValuePair.key)) {
+          jsonObject.put(keyValuePair.key, getValue(configuration, keyValuePair.value));
+        }
+      }
+    }
+  }
+
   private static void addLevel(Level level, JSONObject jsonObject) {
     jsonObject.put(LEVEL, level);
   }
@@ -76,8 +152,10 @@ public class JSONLoggerOutput implements AWSLambdaLoggerOutput {
 
   private static void addRequestId(AWSLambdaLoggerConfiguration configuration,
       JSONObject jsonObject) {
-    if (nonNull(MDC.get(configuration.requestId()))) {
-      jsonObject.put(AWS_REQUEST_ID, MDC.get(configuration.requestId()));
+    var requestId = AWSLambdaRequestContext.getRequestId(configuration.requestId());
+
+    if (nonNull(requestId)) {
+      jsonObject.put(AWS_REQUEST_ID, requestId);
     }
   }
 
@@ -86,7 +164,7 @@ public class JSONLoggerOutput implements AWSLambdaLoggerOutput {
       jsonObject.put(THREAD_NAME, Thread.currentThread().getName());
     }
     if (configuration.showThreadId()) {
-      jsonObject.put(THREAD_ID, Thread.currentThread().getId());
+      jsonObject.put(THREAD_ID, AWSLambdaThreads.currentThreadId());
     }
   }
 
@@ -111,7 +189,7 @@ public class JSONLoggerOutput implements AWSLambdaLoggerOutput {
       if (nonNull(configuration.dateTimeFormat())) {
         jsonObject.put(TIMESTAMP, getFormattedDate(configuration.dateTimeFormat()));
       } else {
-        jsonObject.put(RELATIVE_TIMESTAMP, System.currentTimeMillis() - START_TIME);
+        jsonObject.put(RELATIVE_TIMESTAMP, System.currentTimeMillis() - configuration.startTime());
       }
     }
   }
@@ -119,13 +197,86 @@ public class JSONLoggerOutput implements AWSLambdaLoggerOutput {
   private static String getFormattedDate(DateFormat dateFormat) {
     String dateText;
 
-    synchronized (START_TIME) {
+    LOCK.lock();
+    try {
       dateText = dateFormat.format(new Date());
+    } finally {
+      LOCK.unlock();
     }
 
     return dateText;
   }
 
+  private static Object getValue(AWSLambdaLoggerConfiguration configuration, Object value) {
+    if (configuration.structuredArgumentDepth() > 0) {
+      return JSONArgumentSerializer.toJSON(value, configuration.structuredArgumentDepth(),
+          configuration.structuredArgumentSize());
+    }
+    return getValue(value);
+  }
+
+  private static Object getValue(Object value) {
+    if (isNull(value)) {
+      return JSONObject.NULL;
+    }
+    if (value instanceof Boolean || value instanceof Number && isFinite((Number) value)) {
+      return value;
+    }
+    return value.toString();
+  }
+
+  private static boolean isFinite(Number number) {
+    if (number instanceof Double || number instanceof Float) {
+      return Double.isFinite(number.doubleValue());
+    }
+    return true;
+  }
+
+  private static JSONObject newEntry(AWSLambdaLoggerConfiguration configuration,
+      Marker marker, Level level) {
+    var jsonObject = new JSONObject();
+
+    addRequestId(configuration, jsonObject);
+    addTimestamp(configuration, jsonObject);
+    addThread(configuration, jsonObject);
+    addMarkerAndReferences(marker, jsonObject);
+    addLevel(level, jsonObject);
+    addLogName(configuration, jsonObject);
+
+    return jsonObject;
+  }
+
+  private static void write(AWSLambdaLoggerConfiguration configuration, LambdaLogger lambdaLogger,
+      JSONObject jsonObject, List<KeyValuePair> keyValuePairs, Throwable throwable) {
+    addThrowable(throwable, jsonObject);
+    addKeyValuePairs(configuration, keyValuePairs, jsonObject);
+    addContextFields(jsonObject);
+
+    var entryBuilder = AWSLambdaEntryBuilder.get();
+    var builder = entryBuilder.acquire();
+    byte[] bytes;
+
+    try {
+      var printWriter = entryBuilder.printWriter();
+
+      jsonObject.write(printWriter);
+      printWriter.flush();
+      if (nonNull(configuration.masker())) {
+        configuration.masker().mask(builder);
+      }
+      bytes = entryBuilder.encode();
+    } finally {
+      entryBuilder.release();
+    }
+
+    LOCK.lock();
+    try {
+      lambdaLogger.log(bytes);
+    } finally {
+      LOCK.unlock();
+    }
+  }
+
   /**
    * Write a message to the AWS lambda log in JSON.
    *
@@ -141,6 +292,64 @@ public class JSONLoggerOutput implements AWSLambdaLoggerOutput {
     log(configuration, getLambdaLogger(), marker, level, message, throwable);
   }
 
+  /**
+   * Write a message with key-value pairs to the AWS lambda log in JSON.
+   *
+   * @param configuration logging configuration
+   * @param marker        logging marker
+   * @param level         logging level
+   * @param message       logging message
+   * @param keyValuePairs key-value pairs
+   * @param throwable     exception
+   */
+  @Override
+  public void log(@NotNull AWSLambdaLoggerConfiguration configuration, @Nullable Marker marker,
+      @NotNull Level level, @NotNull String message, @Nullable List<KeyValuePair> keyValuePairs,
+      @Nullable Throwable throwable) {
+    log(configuration, getLambdaLogger(), marker, level, message, keyValuePairs, throwable);
+  }
+
+  /**
+   * Write a message pattern, its hash and arguments to the AWS lambda log in JSON.
+   * <p>
+   * Numbers and booleans are written as they are, other arguments as strings. The formatted
+   * message is written too if the configuration requires it for this level.
+   *
+   * @param configuration logging configuration
+   * @param marker        logging marker
+   * @param level         logging level
+   * @param pattern       message pattern
+   * @param arguments     arguments
+   * @param count         number of arguments to format, the throwable is not counted
+   * @param keyValuePairs key-value pairs
+   * @param throwable     exception
+   */
+  @Override
+  public void logTemplate(@NotNull AWSLambdaLoggerConfiguration configuration,
+      @Nullable Marker marker, @NotNull Level level, @NotNull String pattern,
+      @NotNull Object[] arguments, int count, @Nullable List<KeyValuePair> keyValuePairs,
+      @Nullable Throwable throwable) {
+    logTemplate(configuration, getLambdaLogger(), marker, level, pattern, arguments, count,
+        keyValuePairs, throwable);
+  }
+
+  /**
+   * Build a message like it is written to the AWS lambda log in JSON, and discard it.
+   *
+   * @param configuration logging configuration
+   * @param marker        logging marker
+   * @param level         logging level
+   * @param message       logging message
+   * @param keyValuePairs key-value pairs
+   * @param throwable     exception
+   */
+  @Override
+  public void prime(@NotNull AWSLambdaLoggerConfiguration configuration, @Nullable Marker marker,
+      @NotNull Level level, @NotNull String message, @Nullable List<KeyValuePair> keyValuePairs,
+      @Nullable Throwable throwable) {
+    log(configuration, DISCARD, marker, level, message, keyValuePairs, throwable);
+  }
+
   @VisibleForTesting
   LambdaLogger getLambdaLogger() {
     return LambdaRuntime.getLogger();
@@ -150,20 +359,48 @@ public class JSONLoggerOutput implements AWSLambdaLoggerOutput {
   void log(@NotNull AWSLambdaLoggerConfiguration configuration, @NotNull LambdaLogger lambdaLogger,
       @Nullable Marker marker, @NotNull Level level, @NotNull String message,
       @Nullable Throwable throwable) {
-    JSONObject jsonObject = new JSONObject();
+    log(configuration, lambdaLogger, marker, level, message, null, throwable);
+  }
+
+  @VisibleForTesting
+  void log(@NotNull AWSLambdaLoggerConfiguration configuration, @NotNull LambdaLogger lambdaLogger,
+      @Nullable Marker marker, @NotNull Level level, @NotNull String message,
+      @Nullable List<KeyValuePair> keyValuePairs, @Nullable Throwable throwable) {
+    var jsonObject = newEntry(configuration, marker, level);
 
-    addRequestId(configuration, jsonObject);
-    addTimestamp(configuration, jsonObject);
-    addThread(configuration, jsonObject);
-    addMarkerAndReferences(marker, jsonObject);
-    addLevel(level, jsonObject);
-    addLogName(configuration, jsonObject);
     jsonObject.put(MESSAGE, message);
-    addThrowable(throwable, jsonObject);
+    write(configuration, lambdaLogger, jsonObject, keyValuePairs, throwable);
+  }
 
-    synchronized (START_TIME) {
-      lambdaLogger.log(jsonObject.toString());
+  @VisibleForTesting
+  void logTemplate(@NotNull AWSLambdaLoggerConfiguration configuration,
+      @NotNull LambdaLogger lambdaLogger, @Nullable Marker marker, @NotNull Level level,
+      @NotNull String pattern, @NotNull Object[] arguments, int count,
+      @Nullable List<KeyValuePair> keyValuePairs, @Nullable Throwable throwable) {
+    var jsonObject = newEntry(configuration, marker, level);
+
+    if (configuration.isMessageFormatted(level)) {
+      jsonObject.put(MESSAGE, AWSLambdaMessageFormatter.format(pattern, arguments, count));
     }
+    jsonObject.put(MESSAGE_TEMPLATE, pattern);
+    // String.hashCode is specified, so the hash is the same in every execution environment
+    jsonObject.put(TEMPLATE_HASH, Integer.toHexString(pattern.hashCode()));
+    addArguments(configuration, arguments, count, jsonObject);
+    write(configuration, lambdaLogger, jsonObject, keyValuePairs, throwable);
+  }
+
+  private static class DiscardingLambdaLogger implements LambdaLogger {
+
+    @Override
+    public void log(String message) {
+      // discard
+    }
+
+    @Override
+    public void log(byte[] message) {
+      // discard
+    }
+
   }
 
 }
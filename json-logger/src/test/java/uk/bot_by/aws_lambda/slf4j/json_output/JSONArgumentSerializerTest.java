@@ -0,0 +1,230 @@
+package uk.bot_by.aws_lambda.slf4j.json_output;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.skyscreamer.jsonassert.JSONAssert.assertEquals;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import org.json.JSONArray;
+import org.json.JSONObject;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.event.Level;
+
+@Tag("fast")
+class JSONArgumentSerializerTest {
+
+  @DisplayName("Scalars")
+  @Test
+  void scalars() {
+    // when and then
+    assertSame(JSONObject.NULL, JSONArgumentSerializer.toJSON(null, 3, 32));
+    assertEquals(3, JSONArgumentSerializer.toJSON(3, 3, 32));
+    assertEquals(true, JSONArgumentSerializer.toJSON(true, 3, 32));
+    assertEquals("NaN", JSONArgumentSerializer.toJSON(Double.NaN, 3, 32));
+    assertEquals("text", JSONArgumentSerializer.toJSON("text", 3, 32));
+    assertEquals("INFO", JSONArgumentSerializer.toJSON(Level.INFO, 3, 32));
+  }
+
+  @DisplayName("A bean is an object of its properties")
+  @Test
+  void bean() {
+    // given
+    var order = new Order("ord-1", 3, true, new Customer("cus-2", "John"));
+
+    // when
+    var json = JSONArgumentSerializer.toJSON(order, 3, 32);
+
+    // then
+    assertEquals("{\"id\":\"ord-1\",\"items\":3,\"paid\":true,"
+        + "\"customer\":{\"id\":\"cus-2\",\"name\":\"John\"}}", json.toString(), true);
+  }
+
+  @DisplayName("Maps, collections and arrays")
+  @Test
+  void containers() {
+    // given
+    var map = new LinkedHashMap<Object, Object>();
+
+    map.put("list", List.of(1, "two"));
+    map.put(3, new int[]{4, 5});
+    map.put("nothing", null);
+
+    // when
+    var json = JSONArgumentSerializer.toJSON(map, 3, 32);
+
+    // then
+    assertEquals("{\"list\":[1,\"two\"],\"3\":[4,5],\"nothing\":null}", json.toString(), true);
+  }
+
+  @DisplayName("A structure deeper than the limit is skipped")
+  @Test
+  void depth() {
+    // given
+    var order = new Order("ord-1", 3, false, new Customer("cus-2", "John"));
+
+    // when
+    var shallow = (JSONObject) JSONArgumentSerializer.toJSON(order, 1, 32);
+    var deep = (JSONObject) JSONArgumentSerializer.toJSON(order, 2, 32);
+
+    // then
+    assertEquals("...", shallow.get("customer"));
+    assertEquals("{\"id\":\"cus-2\",\"name\":\"John\"}", deep.get("customer").toString(), true);
+  }
+
+  @DisplayName("Only the first elements within the limit are written")
+  @Test
+  void size() {
+    // given
+    var map = Map.of("key", "value", "another key", "another value");
+
+    // when
+    var list = JSONArgumentSerializer.toJSON(List.of(1, 2, 3), 3, 2);
+    var array = JSONArgumentSerializer.toJSON(new String[]{"a", "b", "c"}, 3, 2);
+    var object = JSONArgumentSerializer.toJSON(map, 3, 1);
+
+    // then
+    assertEquals("[1,2,\"...\"]", list.toString(), true);
+    assertEquals("[\"a\",\"b\",\"...\"]", array.toString(), true);
+    assertEquals(1, ((JSONObject) object).length());
+  }
+
+  @DisplayName("A structure that contains itself is skipped")
+  @Test
+  void cycle() {
+    // given
+    var list = new ArrayList<Object>();
+
+    list.add("first");
+    list.add(list);
+    list.add(List.of(list));
+
+    // when
+    var json = (JSONArray) JSONArgumentSerializer.toJSON(list, 8, 32);
+
+    // then
+    assertEquals("[\"first\",\"...\",[\"...\"]]", json.toString(), true);
+  }
+
+  @DisplayName("A failed getter is skipped")
+  @Test
+  void failedGetter() {
+    // when
+    var json = JSONArgumentSerializer.toJSON(new Failing(), 3, 32);
+
+    // then
+    assertEquals("{\"name\":\"failing\"}", json.toString(), true);
+  }
+
+  @DisplayName("An object without properties is its string")
+  @Test
+  void withoutProperties() {
+    // when and then
+    assertEquals("plain", JSONArgumentSerializer.toJSON(new Plain(), 3, 32));
+  }
+
+  @DisplayName("An iterable that is not a collection is not an array")
+  @Test
+  void iterable() {
+    // given
+    var path = Path.of("/tmp/data/file.txt");
+
+    // when and then
+    assertEquals(path.toString(), JSONArgumentSerializer.toJSON(path, 3, 32));
+    assertEquals("pages", JSONArgumentSerializer.toJSON(new Pages(), 3, 32));
+  }
+
+  private static class Customer {
+
+    private final String id;
+    private final String name;
+
+    Customer(String id, String name) {
+      this.id = id;
+      this.name = name;
+    }
+
+    public String getId() {
+      return id;
+    }
+
+    public String getName() {
+      return name;
+    }
+
+  }
+
+  private static class Failing {
+
+    public String getName() {
+      return "failing";
+    }
+
+    public String getValue() {
+      throw new IllegalStateException("test exception");
+    }
+
+  }
+
+  private static class Order {
+
+    private final Customer customer;
+    private final String id;
+    private final int items;
+    private final boolean paid;
+
+    Order(String id, int items, boolean paid, Customer customer) {
+      this.customer = customer;
+      this.id = id;
+      this.items = items;
+      this.paid = paid;
+    }
+
+    public Customer getCustomer() {
+      return customer;
+    }
+
+    public String getId() {
+      return id;
+    }
+
+    public int getItems() {
+      return items;
+    }
+
+    public boolean isPaid() {
+      return paid;
+    }
+
+  }
+
+  private static class Pages implements Iterable<Integer> {
+
+    @Override
+    public Iterator<Integer> iterator() {
+      return List.of(1, 2, 3).iterator();
+    }
+
+    @Override
+    public String toString() {
+      return "pages";
+    }
+
+  }
+
+  private static class Plain {
+
+    @Override
+    public String toString() {
+      return "plain";
+    }
+
+  }
+
+}
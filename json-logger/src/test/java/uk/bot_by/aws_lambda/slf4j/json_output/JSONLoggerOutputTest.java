@@ -1,6 +1,8 @@
 package uk.bot_by.aws_lambda.slf4j.json_output;
 
+import static java.nio.charset.StandardCharsets.UTF_8;
 import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.core.StringContains.containsString;
 import static org.hamcrest.core.IsEqual.equalTo;
 import static org.hamcrest.core.StringStartsWith.startsWith;
 import static org.junit.jupiter.api.Assertions.assertAll;
@@ -9,12 +11,17 @@ import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.ArgumentMatchers.isA;
 import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.doNothing;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.lenient;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 import static org.skyscreamer.jsonassert.JSONAssert.assertEquals;
 
@@ -23,6 +30,8 @@ import java.io.PrintStream;
 import java.text.DateFormat;
 import java.text.FieldPosition;
 import java.text.ParsePosition;
+import java.util.List;
+import java.util.Map;
 import org.json.JSONObject;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.DisplayName;
@@ -36,9 +45,14 @@ import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.slf4j.MDC;
 import org.slf4j.Marker;
+import org.slf4j.event.DefaultLoggingEvent;
+import org.slf4j.event.KeyValuePair;
 import org.slf4j.event.Level;
 import org.slf4j.helpers.BasicMarkerFactory;
+import uk.bot_by.aws_lambda.slf4j.AWSLambdaLoggerBuffer;
 import uk.bot_by.aws_lambda.slf4j.AWSLambdaLoggerConfiguration;
+import uk.bot_by.aws_lambda.slf4j.AWSLambdaMasker;
+import uk.bot_by.aws_lambda.slf4j.AWSLambdaRequestContext;
 
 @ExtendWith(MockitoExtension.class)
 @Tag("fast")
@@ -48,10 +62,12 @@ class JSONLoggerOutputTest {
   private AWSLambdaLoggerConfiguration configuration;
   @Mock
   private LambdaLogger lambdaLogger;
+  @Mock
+  private AWSLambdaMasker masker;
   @Spy
   private JSONLoggerOutput loggerOutput;
   @Captor
-  private ArgumentCaptor<String> stringCaptor;
+  private ArgumentCaptor<byte[]> bytesCaptor;
 
   @AfterEach
   void tearDown() {
@@ -114,10 +130,251 @@ class JSONLoggerOutputTest {
     loggerOutput.log(configuration, lambdaLogger, null, Level.ERROR, "test error message", null);
 
     // then
-    verify(lambdaLogger).log(stringCaptor.capture());
+    verify(lambdaLogger).log(bytesCaptor.capture());
 
     assertEquals("{\"level\":\"ERROR\",\"message\":\"test error message\"}",
-        stringCaptor.getValue(), true);
+        new String(bytesCaptor.getValue(), UTF_8), true);
+  }
+
+  @DisplayName("Happy path with key-value pairs")
+  @Test
+  void happyPathWithKeyValuePairs() {
+    // given
+    var keyValuePairs = List.of(new KeyValuePair("key", "value"));
+
+    doNothing().when(loggerOutput).log(any(), any(), any(), any(), anyString(), any(), any());
+
+    // when and then
+    assertDoesNotThrow(
+        () -> loggerOutput.log(configuration, null, Level.ERROR, "test error message",
+            keyValuePairs, null));
+
+    verify(loggerOutput).log(isA(AWSLambdaLoggerConfiguration.class), isA(LambdaLogger.class),
+        isNull(), isA(Level.class), anyString(), eq(keyValuePairs), isNull());
+  }
+
+  @DisplayName("JSON entries are not buffered")
+  @Test
+  void buffer() {
+    // given
+    var buffer = mock(AWSLambdaLoggerBuffer.class);
+
+    lenient().when(configuration.buffer()).thenReturn(buffer);
+    when(configuration.requestId()).thenReturn("request#");
+
+    // when
+    loggerOutput.log(configuration, lambdaLogger, null, Level.INFO, "test info message", null);
+
+    // then
+    verify(lambdaLogger).log(bytesCaptor.capture());
+    verifyNoInteractions(buffer);
+    assertThat(new String(bytesCaptor.getValue(), UTF_8), containsString("test info message"));
+  }
+
+  @DisplayName("Priming builds a message and discards it")
+  @Test
+  void prime() {
+    // given
+    var keyValuePairs = List.of(new KeyValuePair("key", "value"));
+
+    when(configuration.requestId()).thenReturn("request#");
+
+    // when
+    loggerOutput.prime(configuration, null, Level.INFO, "test info message", keyValuePairs, null);
+
+    // then
+    verify(loggerOutput).log(eq(configuration), isA(LambdaLogger.class), isNull(),
+        eq(Level.INFO), eq("test info message"), eq(keyValuePairs), isNull());
+    verify(loggerOutput, never()).getLambdaLogger();
+  }
+
+  @DisplayName("Key-value pairs are typed fields")
+  @Test
+  void keyValuePairs() {
+    // given
+    var keyValuePairs = List.of(new KeyValuePair("count", 3), new KeyValuePair("ratio", 0.5),
+        new KeyValuePair("enabled", true), new KeyValuePair("name", "a \"quoted\" name"),
+        new KeyValuePair("nothing", null), new KeyValuePair("infinity", Double.NaN),
+        new KeyValuePair("object", Level.INFO));
+
+    when(configuration.requestId()).thenReturn("request#");
+
+    // when
+    loggerOutput.log(configuration, lambdaLogger, null, Level.ERROR, "test error message",
+        keyValuePairs, null);
+
+    // then
+    verify(lambdaLogger).log(bytesCaptor.capture());
+
+    assertEquals("{\"level\":\"ERROR\",\"message\":\"test error message\",\"count\":3,"
+            + "\"ratio\":0.5,\"enabled\":true,\"name\":\"a \\\"quoted\\\" name\","
+            + "\"nothing\":null,\"infinity\":\"NaN\",\"object\":\"INFO\"}",
+        new String(bytesCaptor.getValue(), UTF_8), true);
+  }
+
+  @DisplayName("Key-value pairs do not overwrite standard fields")
+  @Test
+  void keyValuePairsDoNotOverwriteFields() {
+    // given
+    var keyValuePairs = List.of(new KeyValuePair("level", "TRACE"),
+        new KeyValuePair("message", "another message"), new KeyValuePair("key", "value"),
+        new KeyValuePair("key", "another value"));
+
+    when(configuration.requestId()).thenReturn("request#");
+
+    // when
+    loggerOutput.log(configuration, lambdaLogger, null, Level.ERROR, "test error message",
+        keyValuePairs, null);
+
+    // then
+    verify(lambdaLogger).log(bytesCaptor.capture());
+
+    assertEquals(
+        "{\"level\":\"ERROR\",\"message\":\"test error message\",\"key\":\"value\"}",
+        new String(bytesCaptor.getValue(), UTF_8), true);
+  }
+
+  @DisplayName("Message template with typed arguments")
+  @Test
+  void messageTemplate() {
+    // given
+    var pattern = "user {} logged in {} times, items {}";
+    var arguments = new Object[]{"John", 3, new int[]{1, 2}, new Throwable("test")};
+    var hash = Integer.toHexString(pattern.hashCode());
+
+    when(configuration.isMessageFormatted(isA(Level.class))).thenReturn(true);
+    when(configuration.requestId()).thenReturn("request#");
+
+    // when
+    loggerOutput.logTemplate(configuration, lambdaLogger, null, Level.INFO, pattern, arguments, 3,
+        null, null);
+
+    // then
+    verify(lambdaLogger).log(bytesCaptor.capture());
+
+    assertEquals("{\"level\":\"INFO\","
+            + "\"message\":\"user John logged in 3 times, items [1, 2]\","
+            + "\"message-template\":\"user {} logged in {} times, items {}\","
+            + "\"template-hash\":\"" + hash + "\",\"args\":[\"John\",3,\"[1, 2]\"]}",
+        new String(bytesCaptor.getValue(), UTF_8), true);
+  }
+
+  @DisplayName("Message template without the formatted message")
+  @Test
+  void messageTemplateWithoutMessage() {
+    // given
+    var pattern = "ratio {}, enabled {}";
+    var hash = Integer.toHexString(pattern.hashCode());
+
+    when(configuration.requestId()).thenReturn("request#");
+
+    // when
+    loggerOutput.logTemplate(configuration, lambdaLogger, null, Level.DEBUG, pattern,
+        new Object[]{0.5, true}, 2, List.of(new KeyValuePair("args", "another value")), null);
+
+    // then
+    verify(lambdaLogger).log(bytesCaptor.capture());
+
+    assertEquals("{\"level\":\"DEBUG\",\"message-template\":\"ratio {}, enabled {}\","
+            + "\"template-hash\":\"" + hash + "\",\"args\":[0.5,true]}",
+        new String(bytesCaptor.getValue(), UTF_8), true);
+  }
+
+  @DisplayName("Fluent event without a pattern")
+  @Test
+  void fluentEventWithoutPattern() {
+    // given
+    var event = new DefaultLoggingEvent(Level.INFO, null);
+
+    event.addArgument(42);
+    doReturn(lambdaLogger).when(loggerOutput).getLambdaLogger();
+    when(configuration.messageTemplate()).thenReturn(true);
+    when(configuration.requestId()).thenReturn("request#");
+
+    // when
+    loggerOutput.log(configuration, event);
+
+    // then
+    verify(lambdaLogger).log(bytesCaptor.capture());
+
+    assertEquals("{\"level\":\"INFO\"}", new String(bytesCaptor.getValue(), UTF_8), true);
+  }
+
+  @DisplayName("Fluent event writes only arguments with placeholders")
+  @Test
+  void fluentEventTemplate() {
+    // given
+    var event = new DefaultLoggingEvent(Level.INFO, null);
+    var pattern = "count {}";
+    var hash = Integer.toHexString(pattern.hashCode());
+
+    event.setMessage(pattern);
+    event.addArgument(1);
+    event.addArgument(2);
+    doReturn(lambdaLogger).when(loggerOutput).getLambdaLogger();
+    when(configuration.messageTemplate()).thenReturn(true);
+    when(configuration.requestId()).thenReturn("request#");
+
+    // when
+    loggerOutput.log(configuration, event);
+
+    // then
+    verify(lambdaLogger).log(bytesCaptor.capture());
+
+    assertEquals("{\"level\":\"INFO\",\"message-template\":\"count {}\","
+            + "\"template-hash\":\"" + hash + "\",\"args\":[1]}",
+        new String(bytesCaptor.getValue(), UTF_8), true);
+  }
+
+  @DisplayName("Structured arguments and key-value pairs")
+  @Test
+  void structuredArguments() {
+    // given
+    var pattern = "items {}";
+    var hash = Integer.toHexString(pattern.hashCode());
+
+    when(configuration.requestId()).thenReturn("request#");
+    when(configuration.structuredArgumentDepth()).thenReturn(2);
+    when(configuration.structuredArgumentSize()).thenReturn(8);
+
+    // when
+    loggerOutput.logTemplate(configuration, lambdaLogger, null, Level.INFO, pattern,
+        new Object[]{List.of(1, 2)}, 1,
+        List.of(new KeyValuePair("user", Map.of("name", "John", "roles", List.of("admin")))),
+        null);
+
+    // then
+    verify(lambdaLogger).log(bytesCaptor.capture());
+
+    assertEquals("{\"level\":\"INFO\",\"message-template\":\"items {}\","
+            + "\"template-hash\":\"" + hash + "\",\"args\":[[1,2]],"
+            + "\"user\":{\"name\":\"John\",\"roles\":[\"admin\"]}}",
+        new String(bytesCaptor.getValue(), UTF_8), true);
+  }
+
+  @DisplayName("An entry is masked before it is written")
+  @Test
+  void masking() {
+    // given
+    when(configuration.masker()).thenReturn(masker);
+    when(configuration.requestId()).thenReturn("request#");
+    doAnswer(invocation -> {
+      StringBuilder builder = invocation.getArgument(0);
+      var index = builder.indexOf("s3cret");
+
+      builder.replace(index, index + 6, "******");
+      return true;
+    }).when(masker).mask(isA(StringBuilder.class));
+
+    // when
+    loggerOutput.log(configuration, lambdaLogger, null, Level.ERROR, "test error message",
+        List.of(new KeyValuePair("password", "s3cret")), null);
+
+    // then
+    verify(lambdaLogger).log(bytesCaptor.capture());
+
+    assertEquals("{\"level\":\"ERROR\",\"message\":\"test error message\","
+        + "\"password\":\"******\"}", new String(bytesCaptor.getValue(), UTF_8), true);
   }
 
   @DisplayName("Marker")
@@ -132,11 +389,11 @@ class JSONLoggerOutputTest {
     loggerOutput.log(configuration, lambdaLogger, marker, Level.ERROR, "test error message", null);
 
     // then
-    verify(lambdaLogger).log(stringCaptor.capture());
+    verify(lambdaLogger).log(bytesCaptor.capture());
 
     assertEquals(
         "{\"level\":\"ERROR\",\"markers\":[\"aMarker\"],\"message\":\"test error message\"}",
-        stringCaptor.getValue(), true);
+        new String(bytesCaptor.getValue(), UTF_8), true);
   }
 
   @DisplayName("Markers")
@@ -155,11 +412,11 @@ class JSONLoggerOutputTest {
     loggerOutput.log(configuration, lambdaLogger, marker, Level.ERROR, "test error message", null);
 
     // then
-    verify(lambdaLogger).log(stringCaptor.capture());
+    verify(lambdaLogger).log(bytesCaptor.capture());
 
     assertEquals(
         "{\"level\":\"ERROR\",\"markers\":[\"aMarker\",\"marker a\",\"marker 1\",\"marker *\"],\"message\":\"test error message\"}",
-        stringCaptor.getValue(), true);
+        new String(bytesCaptor.getValue(), UTF_8), true);
   }
 
   @DisplayName("Show relative time")
@@ -173,9 +430,9 @@ class JSONLoggerOutputTest {
     loggerOutput.log(configuration, lambdaLogger, null, Level.ERROR, "test error message", null);
 
     // then
-    verify(lambdaLogger).log(stringCaptor.capture());
+    verify(lambdaLogger).log(bytesCaptor.capture());
 
-    var jsonObject = new JSONObject(stringCaptor.getValue());
+    var jsonObject = new JSONObject(new String(bytesCaptor.getValue(), UTF_8));
 
     assertAll("relative time",
         () -> assertTrue(jsonObject.has("relative-timestamp"), "field exists"),
@@ -209,11 +466,11 @@ class JSONLoggerOutputTest {
     loggerOutput.log(configuration, lambdaLogger, null, Level.ERROR, "test error message", null);
 
     // then
-    verify(lambdaLogger).log(stringCaptor.capture());
+    verify(lambdaLogger).log(bytesCaptor.capture());
 
     assertEquals(
         "{\"level\":\"ERROR\",\"message\":\"test error message\",\"timestamp\":\"1/1/1970 0:00\"}",
-        stringCaptor.getValue(), true);
+        new String(bytesCaptor.getValue(), UTF_8), true);
   }
 
   @DisplayName("Show AWS request ID")
@@ -228,11 +485,32 @@ class JSONLoggerOutputTest {
     loggerOutput.log(configuration, lambdaLogger, null, Level.ERROR, "test error message", null);
 
     // then
-    verify(lambdaLogger).log(stringCaptor.capture());
+    verify(lambdaLogger).log(bytesCaptor.capture());
 
     assertEquals(
         "{\"level\":\"ERROR\",\"message\":\"test error message\",\"aws-request-id\":\"123-456-789-abc-0\"}",
-        stringCaptor.getValue(), true);
+        new String(bytesCaptor.getValue(), UTF_8), true);
+  }
+
+  @DisplayName("Show AWS request ID and fields of the request context")
+  @Test
+  void requestContext() {
+    // given
+    MDC.put("request#", "mdc-request-id");
+
+    when(configuration.requestId()).thenReturn("request#");
+
+    // when
+    AWSLambdaRequestContext.run("123-456-789-abc-0", Map.of("tenant", "John Doe", "level", "x"),
+        () -> loggerOutput.log(configuration, lambdaLogger, null, Level.ERROR,
+            "test error message", null));
+
+    // then
+    verify(lambdaLogger).log(bytesCaptor.capture());
+
+    assertEquals(
+        "{\"level\":\"ERROR\",\"message\":\"test error message\",\"aws-request-id\":\"123-456-789-abc-0\",\"tenant\":\"John Doe\"}",
+        new String(bytesCaptor.getValue(), UTF_8), true);
   }
 
   @DisplayName("Show a thread name")
@@ -248,11 +526,11 @@ class JSONLoggerOutputTest {
     loggerOutput.log(configuration, lambdaLogger, null, Level.ERROR, "test error message", null);
 
     // then
-    verify(lambdaLogger).log(stringCaptor.capture());
+    verify(lambdaLogger).log(bytesCaptor.capture());
 
     assertEquals(
         "{\"level\":\"ERROR\",\"message\":\"test error message\",\"thread-name\":\"test thread\"}",
-        stringCaptor.getValue(), true);
+        new String(bytesCaptor.getValue(), UTF_8), true);
   }
 
   @DisplayName("Show a thread id")
@@ -266,9 +544,9 @@ class JSONLoggerOutputTest {
     loggerOutput.log(configuration, lambdaLogger, null, Level.ERROR, "test error message", null);
 
     // then
-    verify(lambdaLogger).log(stringCaptor.capture());
+    verify(lambdaLogger).log(bytesCaptor.capture());
 
-    var jsonObject = new JSONObject(stringCaptor.getValue());
+    var jsonObject = new JSONObject(new String(bytesCaptor.getValue(), UTF_8));
 
     assertAll("thread ID", () -> assertTrue(jsonObject.has("thread-id"), "field exists"),
         () -> assertDoesNotThrow(() -> jsonObject.getLong("thread-id"), "field value"));
@@ -285,11 +563,11 @@ class JSONLoggerOutputTest {
     loggerOutput.log(configuration, lambdaLogger, null, Level.ERROR, "test error message", null);
 
     // then
-    verify(lambdaLogger).log(stringCaptor.capture());
+    verify(lambdaLogger).log(bytesCaptor.capture());
 
     assertEquals(
         "{\"level\":\"ERROR\",\"message\":\"test error message\",\"logname\":\"com.example.TestLogger\"}",
-        stringCaptor.getValue(), true);
+        new String(bytesCaptor.getValue(), UTF_8), true);
   }
 
   @DisplayName("Print a throwable")
@@ -310,9 +588,9 @@ class JSONLoggerOutputTest {
         throwable);
 
     // then
-    verify(lambdaLogger).log(stringCaptor.capture());
+    verify(lambdaLogger).log(bytesCaptor.capture());
 
-    var jsonObject = new JSONObject(stringCaptor.getValue());
+    var jsonObject = new JSONObject(new String(bytesCaptor.getValue(), UTF_8));
 
     assertAll("throwable", () -> assertTrue(jsonObject.has("throwable-class")),
         () -> assertThat("class", jsonObject.getString("throwable-class"),
@@ -340,9 +618,9 @@ class JSONLoggerOutputTest {
         throwable);
 
     // then
-    verify(lambdaLogger).log(stringCaptor.capture());
+    verify(lambdaLogger).log(bytesCaptor.capture());
 
-    var jsonObject = new JSONObject(stringCaptor.getValue());
+    var jsonObject = new JSONObject(new String(bytesCaptor.getValue(), UTF_8));
 
     assertAll("throwable", () -> assertTrue(jsonObject.has("throwable-class")),
         () -> assertThat("class", jsonObject.getString("throwable-class"),
@@ -19,31 +19,74 @@ import static java.util.Objects.nonNull;
 
 import com.amazonaws.services.lambda.runtime.LambdaLogger;
 import com.amazonaws.services.lambda.runtime.LambdaRuntime;
-import java.io.ByteArrayOutputStream;
-import java.io.PrintStream;
 import java.text.DateFormat;
 import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 import org.jetbrains.annotations.VisibleForTesting;
-import org.slf4j.MDC;
 import org.slf4j.Marker;
+import org.slf4j.event.KeyValuePair;
 import org.slf4j.event.Level;
+import uk.bot_by.aws_lambda.slf4j.AWSLambdaEntryBuilder;
 import uk.bot_by.aws_lambda.slf4j.AWSLambdaLoggerConfiguration;
 import uk.bot_by.aws_lambda.slf4j.AWSLambdaLoggerOutput;
+import uk.bot_by.aws_lambda.slf4j.AWSLambdaRequestContext;
+import uk.bot_by.aws_lambda.slf4j.AWSLambdaThreads;
 
 /**
  * An SLF4J Logger implementation for AWS Lambda.
+ * <p>
+ * Key-value pairs of the fluent API are appended to the message as {@code key=value}, a key or
+ * a value is quoted if it is empty or contains spaces, quotes, equal signs or control characters.
+ * <p>
+ * An entry is built outside the lock, the lock is held only while the entry is written. It is not
+ * a monitor, so a virtual thread does not pin its carrier while it waits for the AWS lambda log.
+ * <p>
+ * Entries are built by a reusable builder of the current thread, a stack trace is printed to it
+ * directly. An entry that is not buffered is encoded to UTF-8 straight from the builder and written
+ * as bytes, so an event allocates little more than the entry itself. Sensitive data is masked
+ * in the builder before the entry is encoded or buffered.
  */
 public class LambdaLoggerOutput implements AWSLambdaLoggerOutput {
 
+  private static final LambdaLogger DISCARD = new DiscardingLambdaLogger();
+  private static final char EQUALS = '=';
   private static final char LEFT_BRACKET = '[';
+  private static final Lock LOCK = new ReentrantLock();
   private static final String LOG_NAME_SEPARATOR = " - ";
+  private static final char QUOTE = '"';
   private static final char RIGHT_BRACKET = ']';
   private static final char SPACE = ' ';
-  private static final Long START_TIME = System.currentTimeMillis();
   private static final String THREAD = "thread=";
 
+  private static void addContextFields(StringBuilder builder) {
+    var context = AWSLambdaRequestContext.current();
+
+    if (nonNull(context)) {
+      for (Map.Entry<String, String> field : context.fields().entrySet()) {
+        builder.append(SPACE);
+        addValue(field.getKey(), builder);
+        builder.append(EQUALS);
+        addValue(String.valueOf(field.getValue()), builder);
+      }
+    }
+  }
+
+  private static void addKeyValuePairs(List<KeyValuePair> keyValuePairs, StringBuilder builder) {
+    if (nonNull(keyValuePairs)) {
+      for (KeyValuePair keyValuePair : keyValuePairs) {
+        builder.append(SPACE);
+        addValue(String.valueOf(keyValuePair.key), builder);
+        builder.append(EQUALS);
+        addValue(String.valueOf(keyValuePair.value), builder);
+      }
+    }
+  }
+
   private static void addLevel(AWSLambdaLoggerConfiguration configuration, Level level,
       StringBuilder builder) {
     if (configuration.levelInBrackets()) {
@@ -64,8 +107,10 @@ public class LambdaLoggerOutput implements AWSLambdaLoggerOutput {
 
   private static void addRequestId(AWSLambdaLoggerConfiguration configuration,
       StringBuilder builder) {
-    if (nonNull(MDC.get(configuration.requestId()))) {
-      builder.append(MDC.get(configuration.requestId())).append(SPACE);
+    var requestId = AWSLambdaRequestContext.getRequestId(configuration.requestId());
+
+    if (nonNull(requestId)) {
+      builder.append(requestId).append(SPACE);
     }
   }
 
@@ -75,7 +120,7 @@ public class LambdaLoggerOutput implements AWSLambdaLoggerOutput {
           .append(SPACE);
     }
     if (configuration.showThreadId()) {
-      builder.append(THREAD).append(Thread.currentThread().getId()).append(SPACE);
+      builder.append(THREAD).append(AWSLambdaThreads.currentThreadId()).append(SPACE);
     }
   }
 
@@ -86,22 +131,69 @@ public class LambdaLoggerOutput implements AWSLambdaLoggerOutput {
       if (nonNull(configuration.dateTimeFormat())) {
         builder.append(getFormattedDate(configuration.dateTimeFormat()));
       } else {
-        builder.append(System.currentTimeMillis() - START_TIME);
+        builder.append(System.currentTimeMillis() - configuration.startTime());
       }
       builder.append(SPACE);
     }
   }
 
+  private static void addValue(String value, StringBuilder builder) {
+    if (!isQuotingRequired(value)) {
+      builder.append(value);
+      return;
+    }
+    builder.append(QUOTE);
+    for (int i = 0; i < value.length(); i++) {
+      var character = value.charAt(i);
+
+      switch (character) {
+        case QUOTE:
+        case '\\':
+          builder.append('\\').append(character);
+          break;
+        case '\n':
+          builder.append("\\n");
+          break;
+        case '\r':
+          builder.append("\\r");
+          break;
+        case '\t':
+          builder.append("\\t");
+          break;
+        default:
+          builder.append(character);
+      }
+    }
+    builder.append(QUOTE);
+  }
+
   private static String getFormattedDate(DateFormat dateFormat) {
     String dateText;
 
-    synchronized (START_TIME) {
+    LOCK.lock();
+    try {
       dateText = dateFormat.format(new Date());
+    } finally {
+      LOCK.unlock();
     }
 
     return dateText;
   }
 
+  private static boolean isQuotingRequired(String value) {
+    if (value.isEmpty()) {
+      return true;
+    }
+    for (int i = 0; i < value.length(); i++) {
+      var character = value.charAt(i);
+
+      if (character <= SPACE || character == QUOTE || character == EQUALS) {
+        return true;
+      }
+    }
+    return false;
+  }
+
   /**
    * Write a message to the AWS lambda log.
    *
@@ -117,6 +209,40 @@ public class LambdaLoggerOutput implements AWSLambdaLoggerOutput {
     log(configuration, getLambdaLogger(), marker, level, message, throwable);
   }
 
+  /**
+   * Write a message with key-value pairs to the AWS lambda log.
+   *
+   * @param configuration logging configuration
+   * @param marker        logging marker
+   * @param level         logging level
+   * @param message       logging message
+   * @param keyValuePairs key-value pairs
+   * @param throwable     exception
+   */
+  @Override
+  public void log(@NotNull AWSLambdaLoggerConfiguration configuration, @Nullable Marker marker,
+      @NotNull Level level, @NotNull String message, @Nullable List<KeyValuePair> keyValuePairs,
+      @Nullable Throwable throwable) {
+    log(configuration, getLambdaLogger(), marker, level, message, keyValuePairs, throwable);
+  }
+
+  /**
+   * Build a message like it is written to the AWS lambda log, and discard it.
+   *
+   * @param configuration logging configuration
+   * @param marker        logging marker
+   * @param level         logging level
+   * @param message       logging message
+   * @param keyValuePairs key-value pairs
+   * @param throwable     exception
+   */
+  @Override
+  public void prime(@NotNull AWSLambdaLoggerConfiguration configuration, @Nullable Marker marker,
+      @NotNull Level level, @NotNull String message, @Nullable List<KeyValuePair> keyValuePairs,
+      @Nullable Throwable throwable) {
+    log(configuration, DISCARD, marker, level, message, keyValuePairs, throwable);
+  }
+
   @VisibleForTesting
   LambdaLogger getLambdaLogger() {
     return LambdaRuntime.getLogger();
@@ -126,24 +252,67 @@ public class LambdaLoggerOutput implements AWSLambdaLoggerOutput {
   void log(@NotNull AWSLambdaLoggerConfiguration configuration, @NotNull LambdaLogger lambdaLogger,
       @Nullable Marker marker, @NotNull Level level, @NotNull String message,
       @Nullable Throwable throwable) {
-    StringBuilder builder = new StringBuilder();
+    log(configuration, lambdaLogger, marker, level, message, null, throwable);
+  }
+
+  @VisibleForTesting
+  void log(@NotNull AWSLambdaLoggerConfiguration configuration, @NotNull LambdaLogger lambdaLogger,
+      @Nullable Marker marker, @NotNull Level level, @NotNull String message,
+      @Nullable List<KeyValuePair> keyValuePairs, @Nullable Throwable throwable) {
+    var buffer = AWSLambdaRequestContext.getBuffer(configuration);
+    var entryBuilder = AWSLambdaEntryBuilder.get();
+    var builder = entryBuilder.acquire();
+    byte[] bytes;
 
-    addRequestId(configuration, builder);
-    addTimestamp(configuration, builder);
-    addThread(configuration, builder);
-    addLevel(configuration, level, builder);
-    addLogName(configuration, builder);
-    builder.append(message);
-    if (nonNull(throwable)) {
-      var stackTraceOutputStream = new ByteArrayOutputStream();
+    try {
+      addRequestId(configuration, builder);
+      addTimestamp(configuration, builder);
+      addThread(configuration, builder);
+      addLevel(configuration, level, builder);
+      addLogName(configuration, builder);
+      builder.append(message);
+      addKeyValuePairs(keyValuePairs, builder);
+      addContextFields(builder);
+      if (nonNull(throwable)) {
+        var printWriter = entryBuilder.printWriter();
 
-      throwable.printStackTrace(new PrintStream(stackTraceOutputStream));
-      builder.append(System.lineSeparator()).append(stackTraceOutputStream);
+        builder.append(System.lineSeparator());
+        throwable.printStackTrace(printWriter);
+        printWriter.flush();
+      }
+      if (nonNull(configuration.masker())) {
+        configuration.masker().mask(builder);
+      }
+      if (nonNull(buffer)) {
+        // the buffer writes its batch while it holds its own lock
+        buffer.log(lambdaLogger, level, builder.toString());
+        return;
+      }
+      bytes = entryBuilder.encode();
+    } finally {
+      entryBuilder.release();
     }
 
-    synchronized (START_TIME) {
-      lambdaLogger.log(builder.toString());
+    LOCK.lock();
+    try {
+      lambdaLogger.log(bytes);
+    } finally {
+      LOCK.unlock();
     }
   }
 
+  private static class DiscardingLambdaLogger implements LambdaLogger {
+
+    @Override
+    public void log(String message) {
+      // discard
+    }
+
+    @Override
+    public void log(byte[] message) {
+      // discard
+    }
+
+  }
+
 }
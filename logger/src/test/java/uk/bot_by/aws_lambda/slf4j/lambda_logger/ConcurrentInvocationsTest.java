@@ -0,0 +1,137 @@
+package uk.bot_by.aws_lambda.slf4j.lambda_logger;
+
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.Map;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.regex.Pattern;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import uk.bot_by.aws_lambda.slf4j.AWSLambdaRequestContext;
+
+/**
+ * Several invocations are handled at once in one JVM, their threads and tasks interleave.
+ * <p>
+ * Failsafe sets <strong>LOG_INVOCATION_BUFFERING</strong>.
+ */
+@Tag("slow")
+class ConcurrentInvocationsTest {
+
+  private static final int INVOCATIONS = 16;
+  private static final Pattern LINE = Pattern.compile(
+      "(request-\\d+) INFO concurrent-invocations - (request-\\d+) (step|task) \\d+");
+  private static final int STEPS = 50;
+  private static final int TASKS = 8;
+
+  private final ConcurrentLinkedQueue<String> records = new ConcurrentLinkedQueue<>();
+
+  private ExecutorService handlers;
+  private Logger logger;
+  private PrintStream standardOutput;
+  private ExecutorService workers;
+
+  @BeforeEach
+  void setUp() {
+    standardOutput = System.out;
+    // the default LambdaLogger prints a record without a line separator
+    System.setOut(new PrintStream(OutputStream.nullOutputStream()) {
+
+      @Override
+      public void print(String record) {
+        records.add(record);
+      }
+
+    });
+    handlers = Executors.newFixedThreadPool(INVOCATIONS);
+    logger = LoggerFactory.getLogger("concurrent-invocations");
+    workers = AWSLambdaRequestContext.wrap(Executors.newFixedThreadPool(4));
+  }
+
+  @AfterEach
+  void tearDown() {
+    handlers.shutdown();
+    workers.shutdown();
+    System.setOut(standardOutput);
+  }
+
+  @DisplayName("Request IDs stay correct and invocations do not interleave")
+  @Test
+  void interleavedInvocations() throws Exception {
+    // given
+    var start = new CountDownLatch(1);
+    var invocations = new ArrayList<Future<?>>();
+
+    for (int i = 0; i < INVOCATIONS; i++) {
+      var requestId = "request-" + i;
+
+      invocations.add(handlers.submit(() -> {
+        start.await();
+        return AWSLambdaRequestContext.call(requestId, Map.of(), () -> handle(requestId));
+      }));
+    }
+
+    // when
+    start.countDown();
+    for (Future<?> invocation : invocations) {
+      invocation.get();
+    }
+
+    // then
+    var lines = 0;
+
+    assertEquals(INVOCATIONS, records.size(), "one batch per invocation");
+    for (String record : records) {
+      var recordLines = record.split(System.lineSeparator());
+      var requestId = getRequestId(recordLines[0]);
+
+      lines += recordLines.length;
+      for (String line : recordLines) {
+        var matcher = LINE.matcher(line);
+
+        assertAll(line,
+            () -> assertTrue(matcher.matches(), "format"),
+            () -> assertEquals(matcher.group(2), matcher.group(1), "request ID of the entry"),
+            () -> assertEquals(requestId, matcher.group(1), "invocation of the batch"));
+      }
+    }
+    assertEquals(INVOCATIONS * (STEPS + TASKS), lines, "entries");
+  }
+
+  private String getRequestId(String line) {
+    return line.substring(0, line.indexOf(' '));
+  }
+
+  private Void handle(String requestId) throws Exception {
+    var tasks = new ArrayList<Future<?>>();
+
+    for (int i = 0; i < TASKS; i++) {
+      var task = i;
+
+      tasks.add(workers.submit(() -> logger.info("{} task {}", requestId, task)));
+    }
+    for (int i = 0; i < STEPS; i++) {
+      logger.info("{} step {}", requestId, i);
+      Thread.yield();
+    }
+    for (Future<?> task : tasks) {
+      task.get();
+    }
+
+    return null;
+  }
+
+}
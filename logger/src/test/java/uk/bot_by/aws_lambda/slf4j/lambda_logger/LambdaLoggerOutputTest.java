@@ -1,25 +1,31 @@
 package uk.bot_by.aws_lambda.slf4j.lambda_logger;
 
+import static java.nio.charset.StandardCharsets.UTF_8;
 import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.core.StringContains.containsString;
 import static org.hamcrest.core.StringStartsWith.startsWith;
 import static org.hamcrest.text.MatchesPattern.matchesPattern;
 import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.ArgumentMatchers.isA;
 import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.doNothing;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import com.amazonaws.services.lambda.runtime.LambdaLogger;
-import java.io.PrintStream;
+import java.io.PrintWriter;
 import java.text.DateFormat;
 import java.text.FieldPosition;
 import java.text.ParsePosition;
+import java.util.List;
+import java.util.Map;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Tag;
@@ -32,9 +38,13 @@ import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.slf4j.MDC;
 import org.slf4j.Marker;
+import org.slf4j.event.KeyValuePair;
 import org.slf4j.event.Level;
 import org.slf4j.helpers.BasicMarkerFactory;
+import uk.bot_by.aws_lambda.slf4j.AWSLambdaLoggerBuffer;
 import uk.bot_by.aws_lambda.slf4j.AWSLambdaLoggerConfiguration;
+import uk.bot_by.aws_lambda.slf4j.AWSLambdaMasker;
+import uk.bot_by.aws_lambda.slf4j.AWSLambdaRequestContext;
 
 @ExtendWith(MockitoExtension.class)
 @Tag("fast")
@@ -44,9 +54,13 @@ class LambdaLoggerOutputTest {
   private AWSLambdaLoggerConfiguration configuration;
   @Mock
   private LambdaLogger lambdaLogger;
+  @Mock
+  private AWSLambdaMasker masker;
   @Spy
   private LambdaLoggerOutput loggerOutput;
   @Captor
+  private ArgumentCaptor<byte[]> bytesCaptor;
+  @Captor
   private ArgumentCaptor<String> stringCaptor;
 
   @AfterEach
@@ -100,6 +114,145 @@ class LambdaLoggerOutputTest {
         isNull(), isA(Level.class), anyString(), isA(Throwable.class));
   }
 
+  @DisplayName("Happy path with key-value pairs")
+  @Test
+  void happyPathWithKeyValuePairs() {
+    // given
+    var keyValuePairs = List.of(new KeyValuePair("key", "value"));
+
+    doNothing().when(loggerOutput).log(any(), any(), any(), any(), anyString(), any(), any());
+
+    // when and then
+    assertDoesNotThrow(
+        () -> loggerOutput.log(configuration, null, Level.ERROR, "test error message",
+            keyValuePairs, null));
+
+    verify(loggerOutput).log(isA(AWSLambdaLoggerConfiguration.class), isA(LambdaLogger.class),
+        isNull(), isA(Level.class), anyString(), eq(keyValuePairs), isNull());
+  }
+
+  @DisplayName("Write through the init buffer")
+  @Test
+  void buffer() {
+    // given
+    var buffer = mock(AWSLambdaLoggerBuffer.class);
+
+    when(buffer.isBuffering()).thenReturn(true);
+    when(configuration.buffer()).thenReturn(buffer);
+    when(configuration.requestId()).thenReturn("request#");
+
+    // when
+    loggerOutput.log(configuration, lambdaLogger, null, Level.INFO, "test info message", null);
+
+    // then
+    verify(buffer).log(eq(lambdaLogger), eq(Level.INFO), stringCaptor.capture());
+    verify(lambdaLogger, never()).log(anyString());
+    assertThat(stringCaptor.getValue(), containsString("test info message"));
+  }
+
+  @DisplayName("Write at once after the init buffer is flushed")
+  @Test
+  void flushedBuffer() {
+    // given
+    var buffer = mock(AWSLambdaLoggerBuffer.class);
+
+    when(buffer.isBuffering()).thenReturn(false);
+    when(configuration.buffer()).thenReturn(buffer);
+    when(configuration.requestId()).thenReturn("request#");
+
+    // when
+    loggerOutput.log(configuration, lambdaLogger, null, Level.INFO, "test info message", null);
+
+    // then
+    verify(buffer, never()).log(any(), any(), anyString());
+    verify(lambdaLogger).log(bytesCaptor.capture());
+    assertThat(new String(bytesCaptor.getValue(), UTF_8), containsString("test info message"));
+  }
+
+  @DisplayName("Priming builds a message and discards it")
+  @Test
+  void prime() {
+    // given
+    var keyValuePairs = List.of(new KeyValuePair("key", "value"));
+
+    when(configuration.requestId()).thenReturn("request#");
+
+    // when
+    loggerOutput.prime(configuration, null, Level.INFO, "test info message", keyValuePairs, null);
+
+    // then
+    verify(loggerOutput).log(eq(configuration), isA(LambdaLogger.class), isNull(),
+        eq(Level.INFO), eq("test info message"), eq(keyValuePairs), isNull());
+    verify(loggerOutput, never()).getLambdaLogger();
+  }
+
+  @DisplayName("Key-value pairs are appended to the message")
+  @Test
+  void keyValuePairs() {
+    // given
+    var keyValuePairs = List.of(new KeyValuePair("count", 3), new KeyValuePair("enabled", true),
+        new KeyValuePair("name", "a \"quoted\" name"), new KeyValuePair("empty", ""),
+        new KeyValuePair("nothing", null), new KeyValuePair("lines", "a\nb"));
+
+    when(configuration.requestId()).thenReturn("request#");
+
+    // when
+    loggerOutput.log(configuration, lambdaLogger, null, Level.ERROR, "test error message",
+        keyValuePairs, null);
+
+    // then
+    verify(lambdaLogger).log(bytesCaptor.capture());
+
+    assertEquals("ERROR test error message count=3 enabled=true name=\"a \\\"quoted\\\" name\" "
+        + "empty=\"\" nothing=null lines=\"a\\nb\"", new String(bytesCaptor.getValue(), UTF_8));
+  }
+
+  @DisplayName("Keys of key-value pairs are quoted like values")
+  @Test
+  void keys() {
+    // given
+    var keyValuePairs = List.of(new KeyValuePair("a key", 1), new KeyValuePair("a=b", 2),
+        new KeyValuePair("", 3), new KeyValuePair("line\nbreak", 4),
+        new KeyValuePair(null, 5));
+
+    when(configuration.requestId()).thenReturn("request#");
+
+    // when
+    loggerOutput.log(configuration, lambdaLogger, null, Level.ERROR, "test error message",
+        keyValuePairs, null);
+
+    // then
+    verify(lambdaLogger).log(bytesCaptor.capture());
+
+    assertEquals("ERROR test error message \"a key\"=1 \"a=b\"=2 \"\"=3 \"line\\nbreak\"=4 "
+        + "null=5", new String(bytesCaptor.getValue(), UTF_8));
+  }
+
+  @DisplayName("An entry is masked before it is written")
+  @Test
+  void masking() {
+    // given
+    when(configuration.masker()).thenReturn(masker);
+    when(configuration.requestId()).thenReturn("request#");
+    doAnswer(invocation -> {
+      StringBuilder builder = invocation.getArgument(0);
+      var index = builder.indexOf("s3cret");
+
+      builder.replace(index, index + 6, "******");
+      return true;
+    }).when(masker).mask(isA(StringBuilder.class));
+
+    // when
+    loggerOutput.log(configuration, lambdaLogger, null, Level.ERROR, "test error message",
+        List.of(new KeyValuePair("password", "s3cret")), null);
+
+    // then
+    verify(lambdaLogger).log(bytesCaptor.capture());
+
+    assertEquals("ERROR test error message password=******",
+        new String(bytesCaptor.getValue(), UTF_8));
+  }
+
   @DisplayName("Default log message")
   @Test
   void logMessage() {
@@ -110,9 +263,9 @@ class LambdaLoggerOutputTest {
     loggerOutput.log(configuration, lambdaLogger, null, Level.ERROR, "test error message", null);
 
     // then
-    verify(lambdaLogger).log(stringCaptor.capture());
+    verify(lambdaLogger).log(bytesCaptor.capture());
 
-    assertEquals("ERROR test error message", stringCaptor.getValue());
+    assertEquals("ERROR test error message", new String(bytesCaptor.getValue(), UTF_8));
   }
 
   @DisplayName("Show relative time")
@@ -126,9 +279,9 @@ class LambdaLoggerOutputTest {
     loggerOutput.log(configuration, lambdaLogger, null, Level.ERROR, "test error message", null);
 
     // then
-    verify(lambdaLogger).log(stringCaptor.capture());
+    verify(lambdaLogger).log(bytesCaptor.capture());
 
-    assertThat(stringCaptor.getValue(), matchesPattern("\\d+ ERROR test error message"));
+    assertThat(new String(bytesCaptor.getValue(), UTF_8), matchesPattern("\\d+ ERROR test error message"));
   }
 
   @DisplayName("Show timestamp")
@@ -158,9 +311,9 @@ class LambdaLoggerOutputTest {
     loggerOutput.log(configuration, lambdaLogger, null, Level.ERROR, "test error message", null);
 
     // then
-    verify(lambdaLogger).log(stringCaptor.capture());
+    verify(lambdaLogger).log(bytesCaptor.capture());
 
-    assertEquals("1/1/1970 0:00 ERROR test error message", stringCaptor.getValue());
+    assertEquals("1/1/1970 0:00 ERROR test error message", new String(bytesCaptor.getValue(), UTF_8));
   }
 
   @DisplayName("Show AWS request ID")
@@ -175,9 +328,29 @@ class LambdaLoggerOutputTest {
     loggerOutput.log(configuration, lambdaLogger, null, Level.ERROR, "test error message", null);
 
     // then
-    verify(lambdaLogger).log(stringCaptor.capture());
+    verify(lambdaLogger).log(bytesCaptor.capture());
+
+    assertEquals("123-456-789-abc-0 ERROR test error message", new String(bytesCaptor.getValue(), UTF_8));
+  }
+
+  @DisplayName("Show AWS request ID and fields of the request context")
+  @Test
+  void requestContext() {
+    // given
+    MDC.put("request#", "mdc-request-id");
+
+    when(configuration.requestId()).thenReturn("request#");
+
+    // when
+    AWSLambdaRequestContext.run("123-456-789-abc-0", Map.of("tenant", "John Doe"),
+        () -> loggerOutput.log(configuration, lambdaLogger, null, Level.ERROR,
+            "test error message", null));
+
+    // then
+    verify(lambdaLogger).log(bytesCaptor.capture());
 
-    assertEquals("123-456-789-abc-0 ERROR test error message", stringCaptor.getValue());
+    assertEquals("123-456-789-abc-0 ERROR test error message tenant=\"John Doe\"",
+        new String(bytesCaptor.getValue(), UTF_8));
   }
 
   @DisplayName("Show a thread name")
@@ -193,9 +366,9 @@ class LambdaLoggerOutputTest {
     loggerOutput.log(configuration, lambdaLogger, null, Level.ERROR, "test error message", null);
 
     // then
-    verify(lambdaLogger).log(stringCaptor.capture());
+    verify(lambdaLogger).log(bytesCaptor.capture());
 
-    assertEquals("[test thread] ERROR test error message", stringCaptor.getValue());
+    assertEquals("[test thread] ERROR test error message", new String(bytesCaptor.getValue(), UTF_8));
   }
 
   @DisplayName("Show a thread id")
@@ -209,9 +382,9 @@ class LambdaLoggerOutputTest {
     loggerOutput.log(configuration, lambdaLogger, null, Level.ERROR, "test error message", null);
 
     // then
-    verify(lambdaLogger).log(stringCaptor.capture());
+    verify(lambdaLogger).log(bytesCaptor.capture());
 
-    assertThat(stringCaptor.getValue(), matchesPattern("thread=\\d+ ERROR test error message"));
+    assertThat(new String(bytesCaptor.getValue(), UTF_8), matchesPattern("thread=\\d+ ERROR test error message"));
   }
 
   @DisplayName("Show a level in brackets")
@@ -225,9 +398,9 @@ class LambdaLoggerOutputTest {
     loggerOutput.log(configuration, lambdaLogger, null, Level.ERROR, "test error message", null);
 
     // then
-    verify(lambdaLogger).log(stringCaptor.capture());
+    verify(lambdaLogger).log(bytesCaptor.capture());
 
-    assertEquals("[ERROR] test error message", stringCaptor.getValue());
+    assertEquals("[ERROR] test error message", new String(bytesCaptor.getValue(), UTF_8));
   }
 
   @DisplayName("Show a log name")
@@ -241,9 +414,25 @@ class LambdaLoggerOutputTest {
     loggerOutput.log(configuration, lambdaLogger, null, Level.ERROR, "test error message", null);
 
     // then
-    verify(lambdaLogger).log(stringCaptor.capture());
+    verify(lambdaLogger).log(bytesCaptor.capture());
+
+    assertEquals("ERROR com.example.TestLogger - test error message", new String(bytesCaptor.getValue(), UTF_8));
+  }
+
+  @DisplayName("Non-ASCII characters are encoded to UTF-8")
+  @Test
+  void utf8() {
+    // given
+    when(configuration.requestId()).thenReturn("request#");
+
+    // when
+    loggerOutput.log(configuration, lambdaLogger, null, Level.ERROR, "запис \uD83D\uDE00 \uD83D",
+        null);
+
+    // then
+    verify(lambdaLogger).log(bytesCaptor.capture());
 
-    assertEquals("ERROR com.example.TestLogger - test error message", stringCaptor.getValue());
+    assertEquals("ERROR запис \uD83D\uDE00 ?", new String(bytesCaptor.getValue(), UTF_8));
   }
 
   @DisplayName("Print a stack trace")
@@ -253,9 +442,9 @@ class LambdaLoggerOutputTest {
     var throwable = mock(Throwable.class);
 
     doAnswer(invocationOnMock -> {
-      invocationOnMock.getArgument(0, PrintStream.class).println("*");
+      invocationOnMock.getArgument(0, PrintWriter.class).println("*");
       return null;
-    }).when(throwable).printStackTrace(isA(PrintStream.class));
+    }).when(throwable).printStackTrace(isA(PrintWriter.class));
     when(configuration.requestId()).thenReturn("request#");
 
     // when
@@ -263,9 +452,9 @@ class LambdaLoggerOutputTest {
         throwable);
 
     // then
-    verify(lambdaLogger).log(stringCaptor.capture());
+    verify(lambdaLogger).log(bytesCaptor.capture());
 
-    assertThat(stringCaptor.getValue(), startsWith("ERROR test error message\n*"));
+    assertThat(new String(bytesCaptor.getValue(), UTF_8), startsWith("ERROR test error message\n*"));
   }
 
 }
\ No newline at end of file
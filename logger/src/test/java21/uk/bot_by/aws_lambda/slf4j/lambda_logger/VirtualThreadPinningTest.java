@@ -0,0 +1,125 @@
+package uk.bot_by.aws_lambda.slf4j.lambda_logger;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.greaterThan;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.when;
+
+import com.amazonaws.services.lambda.runtime.LambdaLogger;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+import jdk.jfr.consumer.RecordingStream;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledOnJre;
+import org.junit.jupiter.api.condition.JRE;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.slf4j.event.Level;
+import uk.bot_by.aws_lambda.slf4j.AWSLambdaLoggerConfiguration;
+
+@ExtendWith(MockitoExtension.class)
+@Tag("slow")
+class VirtualThreadPinningTest {
+
+  private static final int EVENTS_PER_THREAD = 10;
+  private static final String PINNED = "jdk.VirtualThreadPinned";
+  private static final int THREADS = 200;
+
+  @Mock
+  private AWSLambdaLoggerConfiguration configuration;
+  private AtomicInteger pinnedEvents;
+  private RecordingStream recordingStream;
+
+  @BeforeEach
+  void setUp() {
+    pinnedEvents = new AtomicInteger();
+    recordingStream = new RecordingStream();
+    recordingStream.enable(PINNED).withThreshold(Duration.ZERO);
+    recordingStream.onEvent(PINNED, event -> pinnedEvents.incrementAndGet());
+    recordingStream.startAsync();
+  }
+
+  @AfterEach
+  void tearDown() {
+    recordingStream.close();
+  }
+
+  @DisplayName("A virtual thread does not pin its carrier while an entry is written")
+  @Test
+  void noPinning() throws ExecutionException, InterruptedException {
+    // given
+    var loggerOutput = new LambdaLoggerOutput();
+    var lambdaLogger = new SlowLambdaLogger();
+    var tasks = new ArrayList<Future<?>>();
+
+    when(configuration.requestId()).thenReturn("AWS_REQUEST_ID");
+
+    // when
+    try (var executor = Executors.newVirtualThreadPerTaskExecutor()) {
+      for (int i = 0; i < THREADS; i++) {
+        tasks.add(executor.submit(() -> {
+          for (int j = 0; j < EVENTS_PER_THREAD; j++) {
+            loggerOutput.log(configuration, lambdaLogger, null, Level.INFO, "test message",
+                null);
+          }
+        }));
+      }
+    }
+    for (Future<?> task : tasks) {
+      task.get();
+    }
+    recordingStream.stop();
+
+    // then
+    assertEquals(THREADS * EVENTS_PER_THREAD, lambdaLogger.entries.get(), "entries");
+    assertEquals(0, pinnedEvents.get(), "pinned virtual threads");
+  }
+
+  @DisplayName("The recording catches a virtual thread that is pinned by a monitor")
+  @EnabledOnJre({JRE.JAVA_21, JRE.JAVA_22})
+  @Test
+  void pinningIsDetected() throws InterruptedException {
+    // given
+    var monitor = new Object();
+
+    // when
+    Thread.ofVirtual().start(() -> {
+      synchronized (monitor) {
+        LockSupport.parkNanos(Duration.ofMillis(10).toNanos());
+      }
+    }).join();
+    recordingStream.stop();
+
+    // then
+    assertThat("pinned virtual threads", pinnedEvents.get(), greaterThan(0));
+  }
+
+  private static class SlowLambdaLogger implements LambdaLogger {
+
+    private final AtomicInteger entries = new AtomicInteger();
+
+    @Override
+    public void log(String message) {
+      // the runtime writes to the telemetry pipe or to stdout
+      LockSupport.parkNanos(Duration.ofMillis(1).toNanos());
+      entries.incrementAndGet();
+    }
+
+    @Override
+    public void log(byte[] message) {
+      log(new String(message));
+    }
+
+  }
+
+}
@@ -0,0 +1,304 @@
+/*
+ * Copyright 2022-2024 Vitalij Berdinskih
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *	   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.bot_by.aws_lambda.slf4j.template_processor;
+
+import static java.util.Objects.isNull;
+import static java.util.Objects.nonNull;
+
+import com.sun.source.tree.ExpressionTree;
+import com.sun.source.tree.LiteralTree;
+import com.sun.source.tree.MethodInvocationTree;
+import com.sun.source.util.TreePath;
+import com.sun.source.util.TreePathScanner;
+import com.sun.source.util.Trees;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Set;
+import java.util.SortedSet;
+import java.util.TreeSet;
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.ProcessingEnvironment;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.Types;
+import javax.tools.Diagnostic.Kind;
+import javax.tools.StandardLocation;
+import org.jetbrains.annotations.Nullable;
+import org.jetbrains.annotations.VisibleForTesting;
+
+/**
+ * Checks message patterns of SLF4J logging calls and writes them to the template index.
+ * <p>
+ * The processor scans every compiled class for calls of {@code trace}, {@code debug},
+ * {@code info}, {@code warn} and {@code error} of {@code org.slf4j.Logger} and its subtypes, and
+ * for their lazy and primitive variants like {@code debugLazy} and {@code debugPrimitive}.
+ * If the pattern is a compile-time constant, the number of its placeholders is compared with
+ * the number of arguments, a throwable at the end is not counted, and a mismatch is reported
+ * as a warning. Such patterns are written to the {@value #TEMPLATE_INDEX} resource, one pattern
+ * per line, a backslash, a line feed and a carriage return are escaped by a backslash.
+ * The logger reads the index on the first miss of its template cache.
+ * <p>
+ * Method calls are visible only through the compiler tree API, so the processor works with
+ * <em>javac</em> only. It does not claim any annotations.
+ */
+@SupportedAnnotationTypes("*")
+public class MessageTemplateProcessor extends AbstractProcessor {
+
+  @VisibleForTesting
+  static final String TEMPLATE_INDEX = "META-INF/slf4j-aws-lambda/message-templates";
+
+  private static final String DELIMITER = "{}";
+  private static final char ESCAPE = '\\';
+  private static final String LOGGER = "org.slf4j.Logger";
+  private static final Set<String> LOGGING_METHODS = Set.of("trace", "debug", "info", "warn",
+      "error", "traceLazy", "debugLazy", "infoLazy", "warnLazy", "errorLazy", "tracePrimitive",
+      "debugPrimitive", "infoPrimitive", "warnPrimitive", "errorPrimitive");
+  private static final String MARKER = "org.slf4j.Marker";
+  // longer patterns are not cached by the logger
+  private static final int MAX_PATTERN_LENGTH = 1024;
+
+  private final SortedSet<String> patterns = new TreeSet<>();
+
+  private TypeMirror loggerType;
+  private TypeMirror markerType;
+  private TypeMirror throwableType;
+  private Trees trees;
+  private Types types;
+
+  @VisibleForTesting
+  static int countPlaceholders(String pattern) {
+    var count = 0;
+    var index = pattern.indexOf(DELIMITER);
+
+    while (index != -1) {
+      if (isEscapedDelimiter(pattern, index) && !isDoubleEscaped(pattern, index)) {
+        index = pattern.indexOf(DELIMITER, index + 1);
+      } else {
+        count++;
+        index = pattern.indexOf(DELIMITER, index + 2);
+      }
+    }
+
+    return count;
+  }
+
+  @VisibleForTesting
+  static String escape(String pattern) {
+    var builder = new StringBuilder(pattern.length());
+
+    for (int i = 0; i < pattern.length(); i++) {
+      var character = pattern.charAt(i);
+
+      if (character == ESCAPE) {
+        builder.append(ESCAPE).append(ESCAPE);
+      } else if (character == '\n') {
+        builder.append(ESCAPE).append('n');
+      } else if (character == '\r') {
+        builder.append(ESCAPE).append('r');
+      } else {
+        builder.append(character);
+      }
+    }
+
+    return builder.toString();
+  }
+
+  private static boolean isDoubleEscaped(String pattern, int index) {
+    return index >= 2 && pattern.charAt(index - 2) == ESCAPE;
+  }
+
+  private static boolean isEscapedDelimiter(String pattern, int index) {
+    return index >= 1 && pattern.charAt(index - 1) == ESCAPE;
+  }
+
+  @Override
+  public SourceVersion getSupportedSourceVersion() {
+    return SourceVersion.latestSupported();
+  }
+
+  @Override
+  public synchronized void init(ProcessingEnvironment processingEnv) {
+    super.init(processingEnv);
+
+    var elements = processingEnv.getElementUtils();
+    var logger = elements.getTypeElement(LOGGER);
+    var marker = elements.getTypeElement(MARKER);
+
+    if (isNull(logger) || isNull(marker)) {
+      // SLF4J is not on the class path, there is nothing to check
+      return;
+    }
+    try {
+      trees = Trees.instance(processingEnv);
+    } catch (IllegalArgumentException exception) {
+      processingEnv.getMessager()
+          .printMessage(Kind.NOTE, "Message patterns are checked by javac only");
+      return;
+    }
+    types = processingEnv.getTypeUtils();
+    loggerType = logger.asType();
+    markerType = marker.asType();
+    throwableType = elements.getTypeElement(Throwable.class.getName()).asType();
+  }
+
+  @Override
+  public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+    if (isNull(trees)) {
+      return false;
+    }
+    if (roundEnv.processingOver()) {
+      writeIndex();
+    } else {
+      var scanner = new LoggingCallScanner();
+
+      for (Element element : roundEnv.getRootElements()) {
+        var path = trees.getPath(element);
+
+        if (nonNull(path)) {
+          scanner.scan(path, null);
+        }
+      }
+    }
+
+    return false;
+  }
+
+  private void check(TreePath path, MethodInvocationTree invocation, ExecutableElement method) {
+    var parameters = method.getParameters();
+    var arguments = invocation.getArguments();
+    var formatIndex = !parameters.isEmpty()
+        && types.isSameType(parameters.get(0).asType(), markerType) ? 1 : 0;
+
+    // a method without arguments after the message or with a throwable only does not format it
+    if (parameters.size() <= formatIndex + 1 || types.isSubtype(
+        parameters.get(formatIndex + 1).asType(), throwableType)) {
+      return;
+    }
+
+    var pattern = getConstantPattern(new TreePath(path, arguments.get(formatIndex)));
+
+    if (isNull(pattern)) {
+      return;
+    }
+    if (pattern.length() <= MAX_PATTERN_LENGTH) {
+      patterns.add(pattern);
+    }
+
+    var argumentCount = countArguments(path, method, arguments.subList(formatIndex + 1,
+        arguments.size()));
+    var placeholderCount = countPlaceholders(pattern);
+
+    if (argumentCount != -1 && argumentCount != placeholderCount) {
+      trees.printMessage(Kind.WARNING,
+          String.format("The message pattern has %d placeholder(s) but %d argument(s)",
+              placeholderCount, argumentCount), invocation, path.getCompilationUnit());
+    }
+  }
+
+  // -1 if an array is passed to varargs
+  private int countArguments(TreePath path, ExecutableElement method,
+      List<? extends ExpressionTree> arguments) {
+    if (arguments.isEmpty()) {
+      return 0;
+    }
+
+    var last = trees.getTypeMirror(new TreePath(path, arguments.get(arguments.size() - 1)));
+
+    if (method.isVarArgs() && arguments.size() == 1 && last.getKind() == TypeKind.ARRAY) {
+      return -1;
+    }
+    if (last.getKind() == TypeKind.DECLARED && types.isSubtype(last, throwableType)) {
+      return arguments.size() - 1;
+    }
+
+    return arguments.size();
+  }
+
+  @Nullable
+  private String getConstantPattern(TreePath path) {
+    var expression = path.getLeaf();
+
+    if (expression instanceof LiteralTree) {
+      var value = ((LiteralTree) expression).getValue();
+
+      return (value instanceof String) ? (String) value : null;
+    }
+
+    var element = trees.getElement(path);
+
+    if (element instanceof VariableElement) {
+      var value = ((VariableElement) element).getConstantValue();
+
+      return (value instanceof String) ? (String) value : null;
+    }
+
+    return null;
+  }
+
+  private boolean isLoggingMethod(Element element) {
+    return element instanceof ExecutableElement
+        && LOGGING_METHODS.contains(element.getSimpleName().toString())
+        && types.isSubtype(types.erasure(element.getEnclosingElement().asType()), loggerType);
+  }
+
+  private void writeIndex() {
+    if (patterns.isEmpty()) {
+      return;
+    }
+    try {
+      var index = processingEnv.getFiler()
+          .createResource(StandardLocation.CLASS_OUTPUT, "", TEMPLATE_INDEX);
+
+      try (Writer writer = new OutputStreamWriter(index.openOutputStream(),
+          StandardCharsets.UTF_8)) {
+        for (String pattern : patterns) {
+          writer.write(escape(pattern));
+          writer.write('\n');
+        }
+      }
+    } catch (IOException exception) {
+      processingEnv.getMessager().printMessage(Kind.WARNING,
+          "Could not write the template index: " + exception.getMessage());
+    }
+  }
+
+  private class LoggingCallScanner extends TreePathScanner<Void, Void> {
+
+    @Override
+    public Void visitMethodInvocation(MethodInvocationTree node, Void unused) {
+      var path = getCurrentPath();
+      var element = trees.getElement(path);
+
+      if (isLoggingMethod(element)) {
+        check(path, node, (ExecutableElement) element);
+      }
+
+      return super.visitMethodInvocation(node, unused);
+    }
+
+  }
+
+}
@@ -0,0 +1,218 @@
+package uk.bot_by.aws_lambda.slf4j.template_processor;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.empty;
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Collectors;
+import javax.tools.Diagnostic;
+import javax.tools.DiagnosticCollector;
+import javax.tools.JavaFileObject;
+import javax.tools.SimpleJavaFileObject;
+import javax.tools.ToolProvider;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+@Tag("fast")
+class MessageTemplateProcessorTest {
+
+  @TempDir
+  private Path output;
+
+  @DisplayName("Index constant patterns")
+  @Test
+  void index() throws IOException {
+    // given
+    var source = "import org.slf4j.Logger;\n"
+        + "import org.slf4j.LoggerFactory;\n"
+        + "import org.slf4j.Marker;\n"
+        + "class Handler {\n"
+        + "  private static final String PATTERN = \"constant {}\";\n"
+        + "  private final Logger logger = LoggerFactory.getLogger(Handler.class);\n"
+        + "  void handle(Marker marker, String dynamic, Object[] arguments) {\n"
+        + "    logger.info(\"user {} logged in {} times\", \"John\", 3);\n"
+        + "    logger.debug(PATTERN, 1);\n"
+        + "    logger.warn(marker, \"marked\\n{}\", 2);\n"
+        + "    logger.error(\"failed {}\", 4, new RuntimeException());\n"
+        + "    logger.trace(\"varargs {} {} {}\", arguments);\n"
+        + "    logger.info(\"not formatted {}\");\n"
+        + "    logger.info(\"not formatted {}\", new RuntimeException());\n"
+        + "    logger.info(dynamic, 5);\n"
+        + "  }\n"
+        + "}\n";
+
+    // when
+    var diagnostics = compile(source);
+
+    // then
+    var index = output.resolve(MessageTemplateProcessor.TEMPLATE_INDEX);
+
+    assertAll("Index",
+        () -> assertThat(diagnostics, empty()),
+        () -> assertTrue(Files.exists(index), "index"),
+        () -> assertEquals(List.of("constant {}", "failed {}", "marked\\n{}",
+                "user {} logged in {} times", "varargs {} {} {}"),
+            Files.readAllLines(index, StandardCharsets.UTF_8)));
+  }
+
+  @DisplayName("Warn about a mismatch of placeholders and arguments")
+  @Test
+  void mismatch() {
+    // given
+    var source = "import org.slf4j.Logger;\n"
+        + "class Handler {\n"
+        + "  void handle(Logger logger) {\n"
+        + "    logger.info(\"user {} logged in {} times\", \"John\");\n"
+        + "    logger.error(\"failed {}\", 4, 5, new RuntimeException());\n"
+        + "  }\n"
+        + "}\n";
+
+    // when
+    var diagnostics = compile(source);
+
+    // then
+    assertThat(diagnostics,
+        contains(containsString("has 2 placeholder(s) but 1 argument(s)"),
+            containsString("has 1 placeholder(s) but 2 argument(s)")));
+  }
+
+  @DisplayName("Check and index lazy calls")
+  @Test
+  void lazyCalls() throws IOException {
+    // given
+    var source = "import java.util.function.Supplier;\n"
+        + "import org.slf4j.Logger;\n"
+        + "interface LazyLogger extends Logger {\n"
+        + "  void debugLazy(String format, Supplier<?>... argumentSuppliers);\n"
+        + "}\n"
+        + "class Handler {\n"
+        + "  void handle(LazyLogger logger) {\n"
+        + "    logger.debugLazy(\"payload {}\", () -> 1);\n"
+        + "    logger.debugLazy(\"payload {} {}\", () -> 2);\n"
+        + "  }\n"
+        + "}\n";
+
+    // when
+    var diagnostics = compile(source);
+
+    // then
+    var index = output.resolve(MessageTemplateProcessor.TEMPLATE_INDEX);
+
+    assertAll("Lazy calls",
+        () -> assertThat(diagnostics,
+            contains(containsString("has 2 placeholder(s) but 1 argument(s)"))),
+        () -> assertEquals(List.of("payload {}", "payload {} {}"),
+            Files.readAllLines(index, StandardCharsets.UTF_8)));
+  }
+
+  @DisplayName("Check and index primitive calls")
+  @Test
+  void primitiveCalls() throws IOException {
+    // given
+    var source = "import org.slf4j.Logger;\n"
+        + "interface PrimitiveLogger extends Logger {\n"
+        + "  void infoPrimitive(String format, long argument);\n"
+        + "}\n"
+        + "class Handler {\n"
+        + "  void handle(PrimitiveLogger logger) {\n"
+        + "    logger.infoPrimitive(\"took {} ms\", 1L);\n"
+        + "    logger.infoPrimitive(\"took {} ms of {}\", 2L);\n"
+        + "  }\n"
+        + "}\n";
+
+    // when
+    var diagnostics = compile(source);
+
+    // then
+    var index = output.resolve(MessageTemplateProcessor.TEMPLATE_INDEX);
+
+    assertAll("Primitive calls",
+        () -> assertThat(diagnostics,
+            contains(containsString("has 2 placeholder(s) but 1 argument(s)"))),
+        () -> assertEquals(List.of("took {} ms", "took {} ms of {}"),
+            Files.readAllLines(index, StandardCharsets.UTF_8)));
+  }
+
+  @DisplayName("Nothing is indexed without logging calls")
+  @Test
+  void withoutLoggingCalls() {
+    // given
+    var source = "class Handler {\n"
+        + "  String handle() {\n"
+        + "    return String.format(\"%s {}\", 1);\n"
+        + "  }\n"
+        + "}\n";
+
+    // when
+    var diagnostics = compile(source);
+
+    // then
+    assertAll("Without logging calls",
+        () -> assertThat(diagnostics, empty()),
+        () -> assertFalse(Files.exists(output.resolve(MessageTemplateProcessor.TEMPLATE_INDEX))));
+  }
+
+  @DisplayName("Count placeholders")
+  @ParameterizedTest
+  @CsvSource(delimiter = '|', value = {"no placeholders|0", "{}|1", "a {} b {}|2", "\\{}|0",
+      "\\\\{}|1", "{{}}|1", "{}{}{}|3"})
+  void countPlaceholders(String pattern, int count) {
+    // when and then
+    assertEquals(count, MessageTemplateProcessor.countPlaceholders(pattern));
+  }
+
+  @DisplayName("Escape a pattern")
+  @Test
+  void escape() {
+    // when and then
+    assertEquals("a\\\\{}\\nb\\r", MessageTemplateProcessor.escape("a\\{}\nb\r"));
+  }
+
+  private List<String> compile(String source) {
+    var compiler = ToolProvider.getSystemJavaCompiler();
+    var diagnostics = new DiagnosticCollector<JavaFileObject>();
+    var task = compiler.getTask(null, null, diagnostics,
+        List.of("-d", output.toString(), "-classpath", System.getProperty("java.class.path")),
+        null, List.of(new SourceFile(source)));
+
+    task.setProcessors(List.of(new MessageTemplateProcessor()));
+    assertTrue(task.call(), () -> diagnostics.getDiagnostics().toString());
+
+    return diagnostics.getDiagnostics().stream()
+        .filter(diagnostic -> diagnostic.getKind() == Diagnostic.Kind.WARNING)
+        .map(diagnostic -> diagnostic.getMessage(null))
+        .collect(Collectors.toList());
+  }
+
+  private static class SourceFile extends SimpleJavaFileObject {
+
+    private final String source;
+
+    SourceFile(String source) {
+      super(URI.create("string:///Handler.java"), Kind.SOURCE);
+      this.source = source;
+    }
+
+    @Override
+    public CharSequence getCharContent(boolean ignoreEncodingErrors) {
+      return source;
+    }
+
+  }
+
+}